@@ -0,0 +1,93 @@
+package commonadapter.library;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FootprintBenchmark
+ * 以装箱类型和每行一个对象保存数据, 与以基本类型数组和 ColumnStore 保存数据的内存占用对比.
+ * 每次调用创建一份完整的数据, 预先分配容量, 因此分配的字节数就是数据的内存占用:
+ * ./gradlew :benchmark:jmh -Pinclude=Footprint -Pprofilers=gc, 比较 gc.alloc.rate.norm.
+ * 每行占用的上限在 library 的 FootprintTest 中检查
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class FootprintBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    private static final String SENSOR = "sensor";
+
+    private static final int COLUMN_TIME = 0;
+    private static final int COLUMN_VALUE = 1;
+    private static final int COLUMN_FLAGS = 2;
+    private static final int COLUMN_SENSOR = 3;
+
+    @Benchmark
+    public List<Long> boxedLongs() {
+        List<Long> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++)
+            list.add(1000003L * i);
+        return list;
+    }
+
+    @Benchmark
+    public LongArrayList primitiveLongs() {
+        LongArrayList list = new LongArrayList(size);
+        for (int i = 0; i < size; i++)
+            list.addLong(1000003L * i);
+        return list;
+    }
+
+    @Benchmark
+    public List<Reading> rowObjects() {
+        List<Reading> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++)
+            list.add(new Reading(1000003L * i, i * 0.5, i & 0xFF, SENSOR));
+        return list;
+    }
+
+    @Benchmark
+    public ColumnStore columnStore() {
+        ColumnStore store = new ColumnStore(ColumnStore.TYPE_LONG, ColumnStore.TYPE_DOUBLE,
+                ColumnStore.TYPE_INT, ColumnStore.TYPE_STRING);
+        store.ensureCapacity(size);
+        for (int i = 0; i < size; i++) {
+            int row = store.addRow();
+            store.setLong(row, COLUMN_TIME, 1000003L * i);
+            store.setDouble(row, COLUMN_VALUE, i * 0.5);
+            store.setInt(row, COLUMN_FLAGS, i & 0xFF);
+            store.setString(row, COLUMN_SENSOR, SENSOR);
+        }
+        return store;
+    }
+
+    /**
+     * 按行保存时每行一个对象, 字段都是基本类型, 与 ColumnStore 的差别只有对象头和引用
+     */
+    static final class Reading {
+        final long mTime;
+        final double mValue;
+        final int mFlags;
+        final String mSensor;
+
+        Reading(long time, double value, int flags, String sensor) {
+            mTime = time;
+            mValue = value;
+            mFlags = flags;
+            mSensor = sensor;
+        }
+    }
+
+}
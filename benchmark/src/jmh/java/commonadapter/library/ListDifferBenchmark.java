@@ -0,0 +1,89 @@
+package commonadapter.library;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ListDifferBenchmark
+ * submitData() 在后台线程中计算差异的开销, 新数据由旧数据经过若干次随机的插入, 删除和修改得到
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ListDifferBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+
+    /**
+     * 随机修改的次数, 差分的复杂度为 O((N + M) * D)
+     */
+    @Param({"0", "16", "128"})
+    public int edits;
+
+    private List<Item> mOldList;
+    private List<Item> mNewList;
+
+    private static final DiffCallback<Item> CALLBACK = new DiffCallback<Item>() {
+        @Override
+        public boolean areItemsTheSame(Item oldItem, Item newItem) {
+            return oldItem.mId == newItem.mId;
+        }
+
+        @Override
+        public boolean areContentsTheSame(Item oldItem, Item newItem) {
+            return oldItem.mVersion == newItem.mVersion;
+        }
+    };
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        mOldList = new ArrayList<>(size);
+        for (int i = 0; i < size; i++)
+            mOldList.add(new Item(i, 0));
+        mNewList = new ArrayList<>(mOldList);
+        int nextId = size;
+        for (int i = 0; i < edits; i++) {
+            int position = random.nextInt(mNewList.size());
+            switch (random.nextInt(3)) {
+                case 0:
+                    mNewList.add(position, new Item(nextId++, 0));
+                    break;
+                case 1:
+                    mNewList.remove(position);
+                    break;
+                default:
+                    mNewList.set(position, new Item(mNewList.get(position).mId, 1));
+                    break;
+            }
+        }
+    }
+
+    @Benchmark
+    public ListDiffer.Result diff() {
+        return ListDiffer.diff(mOldList, mNewList, CALLBACK);
+    }
+
+    static final class Item {
+        final int mId;
+        final int mVersion;
+
+        Item(int id, int version) {
+            mId = id;
+            mVersion = version;
+        }
+    }
+
+}
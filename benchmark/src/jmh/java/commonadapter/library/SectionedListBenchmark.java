@@ -0,0 +1,93 @@
+package commonadapter.library;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SectionedListBenchmark
+ * SectionedAdapter 中位置到 Item 的转换: 滚动时的连续访问, 跳转时的随机访问, 以及分组大小改变后的更新
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SectionedListBenchmark {
+
+    /**
+     * 所有分组中 Item 的总数
+     */
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    @Param({"10", "1000"})
+    public int sectionSize;
+
+    /**
+     * 一屏显示的 Item 数量
+     */
+    private static final int WINDOW = 16;
+    private static final int RANDOM_COUNT = 1024;
+
+    private SectionedList<String, Integer> mList;
+    private int[] mRandomPositions;
+    private int[] mRandomSections;
+    private int mNext;
+
+    @Setup
+    public void setup() {
+        mList = new SectionedList<>();
+        for (int start = 0; start < size; start += sectionSize) {
+            List<Integer> items = new ArrayList<>(sectionSize + 1);
+            for (int i = start; i < Math.min(size, start + sectionSize); i++)
+                items.add(i);
+            mList.addSection("section " + start, items);
+        }
+        Random random = new Random(42);
+        mRandomPositions = new int[RANDOM_COUNT];
+        mRandomSections = new int[RANDOM_COUNT];
+        for (int i = 0; i < RANDOM_COUNT; i++) {
+            mRandomPositions[i] = random.nextInt(mList.size() - WINDOW);
+            mRandomSections[i] = random.nextInt(mList.getSectionCount());
+        }
+    }
+
+    private int next() {
+        mNext = (mNext + 1) & (RANDOM_COUNT - 1);
+        return mNext;
+    }
+
+    @Benchmark
+    public void scrollWindow(Blackhole blackhole) {
+        int start = mRandomPositions[next()];
+        for (int i = start; i < start + WINDOW; i++)
+            blackhole.consume(mList.get(i));
+    }
+
+    @Benchmark
+    public Object randomGet() {
+        return mList.get(mRandomPositions[next()]);
+    }
+
+    @Benchmark
+    public int resizeSection() {
+        int section = mRandomSections[next()];
+        List<Integer> items = mList.getItems(section);
+        items.add(-1);
+        mList.updateSection(section);
+        items.remove(items.size() - 1);
+        mList.updateSection(section);
+        return mList.size();
+    }
+
+}
@@ -0,0 +1,120 @@
+package commonadapter.library;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SnapshotBenchmark
+ * 进程重建后恢复数据的开销: 按需解码时从打开快照到第一屏 Item 可以绑定的时间, 与解码全部数据对比.
+ * 数据往返的正确性由单元测试 DataSnapshotTest 保证
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SnapshotBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    /**
+     * 第一屏显示的 Item 数量
+     */
+    private static final int FIRST_SCREEN = 16;
+
+    private static final ItemCodec<Row> CODEC = new ItemCodec<Row>() {
+        @Override
+        public int version() {
+            return 1;
+        }
+
+        @Override
+        public void encode(Row item, DataOutput out) throws IOException {
+            out.writeLong(item.mId);
+            out.writeDouble(item.mValue);
+            out.writeUTF(item.mTitle);
+        }
+
+        @Override
+        public Row decode(DataInput in) throws IOException {
+            return new Row(in.readLong(), in.readDouble(), in.readUTF());
+        }
+    };
+
+    private List<Row> mRows;
+    private File mFile;
+
+    @Setup
+    public void setup() throws IOException {
+        mRows = new ArrayList<>(size);
+        for (int i = 0; i < size; i++)
+            mRows.add(new Row(1000003L * i, i * 0.25, "Item #" + i));
+        mFile = File.createTempFile("snapshot", ".bin");
+        DataSnapshot.save(mRows, mFile, CODEC);
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (!mFile.delete())
+            mFile.deleteOnExit();
+    }
+
+    @Benchmark
+    public void restoreFirstScreen(Blackhole blackhole) throws IOException {
+        List<Row> rows = DataSnapshot.restore(mFile, CODEC);
+        for (int i = 0; i < Math.min(FIRST_SCREEN, rows.size()); i++)
+            blackhole.consume(rows.get(i));
+    }
+
+    @Benchmark
+    public List<Row> restoreAll() throws IOException {
+        return new ArrayList<>(DataSnapshot.restore(mFile, CODEC));
+    }
+
+    @Benchmark
+    public File save() throws IOException {
+        DataSnapshot.save(mRows, mFile, CODEC);
+        return mFile;
+    }
+
+    static final class Row {
+        final long mId;
+        final double mValue;
+        final String mTitle;
+
+        Row(long id, double value, String title) {
+            mId = id;
+            mValue = value;
+            mTitle = title;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Row))
+                return false;
+            Row row = (Row) o;
+            return mId == row.mId && 0 == Double.compare(mValue, row.mValue) && mTitle.equals(row.mTitle);
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) (mId ^ (mId >>> 32));
+        }
+    }
+
+}
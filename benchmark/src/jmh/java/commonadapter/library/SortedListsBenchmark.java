@@ -0,0 +1,98 @@
+package commonadapter.library;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SortedListsBenchmark
+ * 排序模式下 add() 和 addAll() 的开销, 与追加后整体排序对比, 以及 requestSort() 整体排序的开销
+ * 每次调用前重新复制列表, 复制的时间不计入结果
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SortedListsBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int size;
+
+    /**
+     * 一次 addAll() 添加的 Item 数量
+     */
+    @Param({"16", "1024"})
+    public int batch;
+
+    private static final Comparator<Integer> COMPARATOR = new Comparator<Integer>() {
+        @Override
+        public int compare(Integer lhs, Integer rhs) {
+            return lhs.compareTo(rhs);
+        }
+    };
+
+    private List<Integer> mSorted;
+    private List<Integer> mShuffled;
+    private List<Integer> mBatch;
+    private List<Integer> mList;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        mSorted = new ArrayList<>(size);
+        for (int i = 0; i < size; i++)
+            mSorted.add(random.nextInt());
+        mShuffled = new ArrayList<>(mSorted);
+        Collections.sort(mSorted, COMPARATOR);
+        mBatch = new ArrayList<>(batch);
+        for (int i = 0; i < batch; i++)
+            mBatch.add(random.nextInt());
+    }
+
+    @Setup(Level.Invocation)
+    public void copy() {
+        mList = new ArrayList<>(size + batch);
+        mList.addAll(mSorted);
+    }
+
+    @Benchmark
+    public List<Integer> merge() {
+        SortedLists.merge(mList, mBatch, COMPARATOR);
+        return mList;
+    }
+
+    @Benchmark
+    public List<Integer> insertEach() {
+        for (Integer item : mBatch)
+            SortedLists.insert(mList, item, COMPARATOR);
+        return mList;
+    }
+
+    @Benchmark
+    public List<Integer> appendAndSort() {
+        mList.addAll(mBatch);
+        Collections.sort(mList, COMPARATOR);
+        return mList;
+    }
+
+    @Benchmark
+    public List<Integer> sortUnsorted() {
+        mList.clear();
+        mList.addAll(mShuffled);
+        Collections.sort(mList, COMPARATOR);
+        return mList;
+    }
+
+}
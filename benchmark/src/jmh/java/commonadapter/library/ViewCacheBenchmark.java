@@ -0,0 +1,114 @@
+package commonadapter.library;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ViewCacheBenchmark
+ * DefaultViewHolder.getView() 命中缓存时的查找开销, 以及首次绑定时建立缓存的开销.
+ * keyedTagLookup 是改用 ViewCache 之前的做法: View.setTag(int, Object) 保存在 SparseArray 中,
+ * 每次查找二分搜索有序的 int[] 再强制转换, 与 lookup 在相同的 viewCount 下对比
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ViewCacheBenchmark {
+
+    /**
+     * 一个 Item 布局中通过 getView() 访问的 View 数量
+     */
+    @Param({"4", "16", "64"})
+    public int viewCount;
+
+    private int[] mIds;
+    private Object[] mViews;
+    private ViewCache mCache;
+    private int[] mTagKeys;
+    private Object[] mTagValues;
+
+    @Setup
+    public void setup() {
+        mIds = new int[viewCount];
+        mViews = new Object[viewCount];
+        mCache = new ViewCache();
+        for (int i = 0; i < viewCount; i++) {
+            // 与 aapt 生成的 R.id 相同, 连续分配在 0x7f0b0000 之后
+            mIds[i] = 0x7f0b0000 + i;
+            mViews[i] = new FakeView();
+            mCache.put(mIds[i], mViews[i]);
+            mCache.setShadow(mIds[i], ViewCache.SHADOW_TEXT_RES, i);
+        }
+        // SparseArray 按键升序保存
+        mTagKeys = mIds.clone();
+        mTagValues = mViews.clone();
+    }
+
+    /**
+     * 与 DefaultViewHolder.getView() 一样在查找后转换为 View 类型
+     */
+    @Benchmark
+    public void lookup(Blackhole blackhole) {
+        for (int id : mIds)
+            blackhole.consume((FakeView) mCache.get(id));
+    }
+
+    /**
+     * 改用 ViewCache 之前的查找方式, 与 SparseArray.get() 相同的二分搜索
+     */
+    @Benchmark
+    public void keyedTagLookup(Blackhole blackhole) {
+        for (int id : mIds)
+            blackhole.consume((FakeView) tagOf(id));
+    }
+
+    private Object tagOf(int key) {
+        int lo = 0;
+        int hi = mTagKeys.length - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int midVal = mTagKeys[mid];
+            if (midVal < key)
+                lo = mid + 1;
+            else if (midVal > key)
+                hi = mid - 1;
+            else
+                return mTagValues[mid];
+        }
+        return null;
+    }
+
+    @Benchmark
+    public Object lookupMiss() {
+        return mCache.get(0x7f0c0000);
+    }
+
+    @Benchmark
+    public void shadowCheck(Blackhole blackhole) {
+        for (int i = 0; i < mIds.length; i++)
+            blackhole.consume(mCache.hasShadow(mIds[i], ViewCache.SHADOW_TEXT_RES, i));
+    }
+
+    @Benchmark
+    public ViewCache populate() {
+        ViewCache cache = new ViewCache();
+        for (int i = 0; i < mIds.length; i++)
+            cache.put(mIds[i], mViews[i]);
+        return cache;
+    }
+
+    /**
+     * 代替 View, 只用于查找后的类型转换
+     */
+    static final class FakeView {
+    }
+
+}
@@ -0,0 +1,19 @@
+package commonadapter.compiler;
+
+/**
+ * FieldSpec
+ * 一个 {@code @BindView} 字段: 名称, View 类型和 ID
+ */
+final class FieldSpec {
+
+    final String mName;
+    final String mType;
+    final int mViewId;
+
+    FieldSpec(String name, String type, int viewId) {
+        mName = name;
+        mType = type;
+        mViewId = viewId;
+    }
+
+}
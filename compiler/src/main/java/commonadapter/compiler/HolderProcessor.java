@@ -0,0 +1,161 @@
+package commonadapter.compiler;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+/**
+ * HolderProcessor
+ * 根据 commonadapter.library.BindLayout 和 BindView 注解生成 ViewHolder 和 CommonAdapter 子类
+ * 为了不依赖 Android 库, 注解按名称匹配
+ */
+public class HolderProcessor extends AbstractProcessor {
+
+    static final String LIBRARY_PACKAGE = "commonadapter.library";
+    static final String BIND_LAYOUT = LIBRARY_PACKAGE + ".BindLayout";
+    static final String BIND_VIEW = LIBRARY_PACKAGE + ".BindView";
+    static final String VIEW = "android.view.View";
+    static final String VIEW_HOLDER_SUFFIX = "ViewHolder";
+    static final String ADAPTER_SUFFIX = "Adapter";
+
+    private Elements mElements;
+    private Types mTypes;
+    private Messager mMessager;
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        mElements = processingEnv.getElementUtils();
+        mTypes = processingEnv.getTypeUtils();
+        mMessager = processingEnv.getMessager();
+    }
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        Set<String> types = new HashSet<>();
+        types.add(BIND_LAYOUT);
+        types.add(BIND_VIEW);
+        return Collections.unmodifiableSet(types);
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        TypeElement bindLayout = mElements.getTypeElement(BIND_LAYOUT);
+        if (null == bindLayout)
+            return false;
+        for (Element element : roundEnv.getElementsAnnotatedWith(bindLayout)) {
+            if (ElementKind.CLASS != element.getKind()) {
+                error(element, "@BindLayout can only be applied to classes.");
+                continue;
+            }
+            HolderSpec spec = parse((TypeElement) element);
+            if (null == spec)
+                continue;
+            try {
+                write(spec.mHolderName, element, spec.holderSource());
+                write(spec.mAdapterName, element, spec.adapterSource());
+            } catch (IOException e) {
+                error(element, "Unable to generate holder for " + element + ": " + e.getMessage());
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 读取被注解类中的布局和 View 声明, 有错误时返回 null
+     */
+    private HolderSpec parse(TypeElement type) {
+        Integer layoutId = annotationValue(type, BIND_LAYOUT);
+        if (null == layoutId)
+            return null;
+        TypeElement viewElement = mElements.getTypeElement(VIEW);
+        TypeMirror viewType = null == viewElement ? null : viewElement.asType();
+        List<FieldSpec> fields = new ArrayList<>();
+        boolean valid = true;
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            Integer viewId = annotationValue(field, BIND_VIEW);
+            if (null == viewId)
+                continue;
+            TypeMirror fieldType = field.asType();
+            if (null != viewType && !mTypes.isAssignable(fieldType, viewType)) {
+                error(field, "@BindView fields must be android.view.View subclasses.");
+                valid = false;
+                continue;
+            }
+            fields.add(new FieldSpec(field.getSimpleName().toString(),
+                    mTypes.erasure(fieldType).toString(), viewId));
+        }
+        if (!valid)
+            return null;
+        PackageElement pkg = mElements.getPackageOf(type);
+        String packageName = pkg.isUnnamed() ? "" : pkg.getQualifiedName().toString();
+        String baseName = packageName.isEmpty() ? type.getQualifiedName().toString()
+                : type.getQualifiedName().toString().substring(packageName.length() + 1);
+        baseName = baseName.replace('.', '_');
+        return new HolderSpec(packageName, type.getQualifiedName().toString(),
+                baseName + VIEW_HOLDER_SUFFIX, baseName + ADAPTER_SUFFIX, layoutId, fields);
+    }
+
+    /**
+     * 按名称查找注解并返回其 int 类型的 value, 没有该注解时返回 null
+     */
+    private Integer annotationValue(Element element, String annotationName) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            TypeElement annotation = (TypeElement) mirror.getAnnotationType().asElement();
+            if (!annotation.getQualifiedName().contentEquals(annotationName))
+                continue;
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+                    : mirror.getElementValues().entrySet())
+                if (entry.getKey().getSimpleName().contentEquals("value"))
+                    return (Integer) entry.getValue().getValue();
+        }
+        return null;
+    }
+
+    private void write(String simpleName, Element origin, String source) throws IOException {
+        String packageName = mElements.getPackageOf(origin).getQualifiedName().toString();
+        String name = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+        JavaFileObject file = processingEnv.getFiler().createSourceFile(name, origin);
+        Writer writer = file.openWriter();
+        try {
+            writer.write(source);
+        } finally {
+            writer.close();
+        }
+    }
+
+    private void error(Element element, String message) {
+        mMessager.printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+}
@@ -0,0 +1,134 @@
+package commonadapter.compiler;
+
+import java.util.List;
+
+/**
+ * HolderSpec
+ * 一个 {@code @BindLayout} 类的描述, 负责生成对应的 ViewHolder 和 Adapter 源码
+ */
+final class HolderSpec {
+
+    final String mPackageName;
+    final String mSpecName;
+    final String mHolderName;
+    final String mAdapterName;
+    final int mLayoutId;
+    final List<FieldSpec> mFields;
+
+    HolderSpec(String packageName, String specName, String holderName, String adapterName,
+               int layoutId, List<FieldSpec> fields) {
+        mPackageName = packageName;
+        mSpecName = specName;
+        mHolderName = holderName;
+        mAdapterName = adapterName;
+        mLayoutId = layoutId;
+        mFields = fields;
+    }
+
+    private void header(StringBuilder sb, String className, String... imports) {
+        if (!mPackageName.isEmpty())
+            sb.append("package ").append(mPackageName).append(";\n\n");
+        String group = null;
+        for (String name : imports) {
+            String next = name.substring(0, name.indexOf('.'));
+            if (null != group && !group.equals(next))
+                sb.append('\n');
+            group = next;
+            sb.append("import ").append(name).append(";\n");
+        }
+        sb.append("\n/**\n")
+                .append(" * ").append(className).append('\n')
+                .append(" * 由 HolderProcessor 根据 ").append(mSpecName).append(" 生成, 请勿修改\n")
+                .append(" */\n");
+    }
+
+    private static String hex(int value) {
+        return "0x" + Integer.toHexString(value);
+    }
+
+    /**
+     * 生成 ViewHolder: 在构造时找到所有 View 保存到 final 字段, 绑定时没有查找和类型转换
+     */
+    String holderSource() {
+        StringBuilder sb = new StringBuilder();
+        header(sb, mHolderName,
+                "android.support.annotation.LayoutRes",
+                "android.support.annotation.NonNull",
+                "android.support.annotation.Nullable",
+                "android.view.LayoutInflater",
+                "android.view.View",
+                "android.view.ViewGroup",
+                "commonadapter.library.ViewHolder");
+        sb.append("public final class ").append(mHolderName).append(" implements ViewHolder {\n\n")
+                .append("    public static final int LAYOUT_ID = ").append(hex(mLayoutId)).append(";\n\n");
+        for (FieldSpec field : mFields)
+            sb.append("    public final ").append(field.mType).append(' ')
+                    .append(field.mName).append(";\n");
+        sb.append("    private final View mConvertView;\n\n")
+                .append("    private ").append(mHolderName).append("(View convertView) {\n")
+                .append("        mConvertView = convertView;\n");
+        for (FieldSpec field : mFields) {
+            sb.append("        ").append(field.mName).append(" = ");
+            // findViewById() 返回 View, 字段就是 View 时不需要转换, 否则会产生多余转换的警告
+            if (!HolderProcessor.VIEW.equals(field.mType))
+                sb.append('(').append(field.mType).append(") ");
+            sb.append("convertView.findViewById(").append(hex(field.mViewId)).append(");\n");
+        }
+        sb.append("        convertView.setTag(this);\n")
+                .append("    }\n\n")
+                .append("    /**\n")
+                .append("     * 获取一个 ").append(mHolderName).append(" 对象, convertView 为 null 时 inflate 一个新的 Item\n")
+                .append("     */\n")
+                .append("    public static ").append(mHolderName)
+                .append(" getHolder(@NonNull LayoutInflater inflater,\n")
+                .append("                                 @Nullable View convertView,\n")
+                .append("                                 @NonNull ViewGroup parent,\n")
+                .append("                                 @LayoutRes int layoutId) {\n")
+                .append("        if (null == convertView)\n")
+                .append("            return new ").append(mHolderName)
+                .append("(inflater.inflate(layoutId, parent, false));\n")
+                .append("        return (").append(mHolderName).append(") convertView.getTag();\n")
+                .append("    }\n\n")
+                .append("    @Override\n")
+                .append("    public View getConvertView() {\n")
+                .append("        return mConvertView;\n")
+                .append("    }\n\n")
+                .append("}\n");
+        return sb.toString();
+    }
+
+    /**
+     * 生成使用该 ViewHolder 的 CommonAdapter 子类, 只需要实现 convert()
+     */
+    String adapterSource() {
+        StringBuilder sb = new StringBuilder();
+        header(sb, mAdapterName,
+                "android.content.Context",
+                "android.support.annotation.LayoutRes",
+                "android.support.annotation.NonNull",
+                "android.support.annotation.Nullable",
+                "android.view.LayoutInflater",
+                "android.view.View",
+                "android.view.ViewGroup",
+                "java.util.List",
+                "commonadapter.library.CommonAdapter");
+        sb.append("public abstract class ").append(mAdapterName)
+                .append("<T> extends CommonAdapter<T, ").append(mHolderName).append("> {\n\n")
+                .append("    public ").append(mAdapterName)
+                .append("(@NonNull Context context, @NonNull List<T> data) {\n")
+                .append("        super(context, data, ").append(mHolderName).append(".LAYOUT_ID);\n")
+                .append("    }\n\n")
+                .append("    @Override\n")
+                .append("    protected ").append(mHolderName)
+                .append(" getHolder(@NonNull LayoutInflater inflater,\n")
+                .append("                                  @Nullable View convertView,\n")
+                .append("                                  @NonNull ViewGroup parent,\n")
+                .append("                                  @LayoutRes int layoutId) {\n")
+                .append("        return ").append(mHolderName)
+                .append(".getHolder(inflater, convertView, parent, layoutId);\n")
+                .append("    }\n\n")
+                .append("}\n");
+        return sb.toString();
+    }
+
+}
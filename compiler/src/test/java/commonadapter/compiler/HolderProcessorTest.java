@@ -0,0 +1,230 @@
+package commonadapter.compiler;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import javax.annotation.processing.Processor;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 用 javax.tools.JavaCompiler 编译 {@code @BindLayout} 类, 检查生成的源码, 并且生成的源码能够没有警告地编译.
+ * Android 和 library 中用到的类以最小的源码代替
+ */
+public class HolderProcessorTest {
+
+    private static final String[][] STUBS = {
+            {"android.content.Context",
+                    "package android.content; public class Context {}"},
+            {"android.view.View",
+                    "package android.view; public class View {"
+                    + " public View findViewById(int id) { return null; }"
+                    + " public void setTag(Object tag) {}"
+                    + " public Object getTag() { return null; } }"},
+            {"android.view.ViewGroup",
+                    "package android.view; public class ViewGroup extends View {}"},
+            {"android.view.LayoutInflater",
+                    "package android.view; public class LayoutInflater {"
+                    + " public View inflate(int resource, ViewGroup root, boolean attach) { return null; } }"},
+            {"android.widget.TextView",
+                    "package android.widget; public class TextView extends android.view.View {}"},
+            {"android.support.annotation.LayoutRes",
+                    "package android.support.annotation; public @interface LayoutRes {}"},
+            {"android.support.annotation.IdRes",
+                    "package android.support.annotation; public @interface IdRes {}"},
+            {"android.support.annotation.NonNull",
+                    "package android.support.annotation; public @interface NonNull {}"},
+            {"android.support.annotation.Nullable",
+                    "package android.support.annotation; public @interface Nullable {}"},
+            {"commonadapter.library.BindLayout",
+                    "package commonadapter.library; public @interface BindLayout { int value(); }"},
+            {"commonadapter.library.BindView",
+                    "package commonadapter.library; public @interface BindView { int value(); }"},
+            {"commonadapter.library.ViewHolder",
+                    "package commonadapter.library;"
+                    + " public interface ViewHolder { android.view.View getConvertView(); }"},
+            {"commonadapter.library.CommonAdapter",
+                    "package commonadapter.library;"
+                    + " public abstract class CommonAdapter<T, H extends ViewHolder> {"
+                    + " public CommonAdapter(android.content.Context context, java.util.List<T> data,"
+                    + " int... layoutIds) {}"
+                    + " protected abstract H getHolder(android.view.LayoutInflater inflater,"
+                    + " android.view.View convertView, android.view.ViewGroup parent, int layoutId);"
+                    + " protected abstract void convert(H holder, int position); }"},
+    };
+
+    private static final String SIMPLE_ITEM = "package sample;\n"
+            + "import android.view.View;\n"
+            + "import android.widget.TextView;\n"
+            + "import commonadapter.library.BindLayout;\n"
+            + "import commonadapter.library.BindView;\n"
+            + "@BindLayout(0x7f030001)\n"
+            + "class SimpleItem {\n"
+            + "    @BindView(0x7f0b0001) TextView title;\n"
+            + "    @BindView(0x7f0b0002) View divider;\n"
+            + "}\n";
+
+    private File mOutput;
+    private File mGenerated;
+    private DiagnosticCollector<JavaFileObject> mDiagnostics;
+
+    @Before
+    public void setUp() throws IOException {
+        mOutput = Files.createTempDirectory("holder-classes").toFile();
+        mGenerated = Files.createTempDirectory("holder-sources").toFile();
+        mDiagnostics = new DiagnosticCollector<>();
+    }
+
+    @After
+    public void tearDown() {
+        delete(mOutput);
+        delete(mGenerated);
+    }
+
+    @Test
+    public void generatesHolderAndAdapter() throws IOException {
+        assertTrue(compile(SIMPLE_ITEM));
+        String holder = generated("sample/SimpleItemViewHolder.java");
+        assertTrue(holder, holder.contains("public static final int LAYOUT_ID = 0x7f030001;"));
+        assertTrue(holder, holder.contains("public final android.widget.TextView title;"));
+        assertTrue(holder, holder.contains(
+                "title = (android.widget.TextView) convertView.findViewById(0x7f0b0001);"));
+        String adapter = generated("sample/SimpleItemAdapter.java");
+        assertTrue(adapter, adapter.contains(
+                "public abstract class SimpleItemAdapter<T> extends CommonAdapter<T, SimpleItemViewHolder>"));
+    }
+
+    @Test
+    public void viewFieldIsNotCast() throws IOException {
+        assertTrue(compile(SIMPLE_ITEM));
+        String holder = generated("sample/SimpleItemViewHolder.java");
+        assertTrue(holder, holder.contains("divider = convertView.findViewById(0x7f0b0002);"));
+    }
+
+    @Test
+    public void generatedSourcesCompileWithoutWarnings() {
+        assertTrue(compile(SIMPLE_ITEM));
+        for (Diagnostic<? extends JavaFileObject> diagnostic : mDiagnostics.getDiagnostics())
+            assertFalse(diagnostic.toString(), null != diagnostic.getSource()
+                    && Diagnostic.Kind.ERROR != diagnostic.getKind()
+                    && Diagnostic.Kind.NOTE != diagnostic.getKind());
+    }
+
+    @Test
+    public void nestedClassNameIsFlattened() throws IOException {
+        assertTrue(compile("package sample;\n"
+                + "import android.view.View;\n"
+                + "import commonadapter.library.BindLayout;\n"
+                + "import commonadapter.library.BindView;\n"
+                + "class Items {\n"
+                + "    @BindLayout(1)\n"
+                + "    static class Header {\n"
+                + "        @BindView(2) View line;\n"
+                + "    }\n"
+                + "}\n"));
+        assertNotNull(generated("sample/Items_HeaderViewHolder.java"));
+        assertNotNull(generated("sample/Items_HeaderAdapter.java"));
+    }
+
+    @Test
+    public void nonViewFieldIsRejected() {
+        assertFalse(compile("package sample;\n"
+                + "import commonadapter.library.BindLayout;\n"
+                + "import commonadapter.library.BindView;\n"
+                + "@BindLayout(1)\n"
+                + "class BadItem {\n"
+                + "    @BindView(2) String name;\n"
+                + "}\n"));
+        assertEquals(1, errors().size());
+        assertEquals("@BindView fields must be android.view.View subclasses.", errors().get(0));
+    }
+
+    /**
+     * 编译 source 和所有替代类, 运行 HolderProcessor, 生成的源码也一起编译
+     */
+    private boolean compile(String source) {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assertNotNull("tests need a JDK", compiler);
+        StandardJavaFileManager fileManager = compiler.getStandardFileManager(mDiagnostics, Locale.ROOT,
+                Charset.forName("UTF-8"));
+        List<JavaFileObject> units = new ArrayList<>();
+        for (String[] stub : STUBS)
+            units.add(new StringSource(stub[0], stub[1]));
+        units.add(new StringSource("sample.Sample", source));
+        List<String> options = Arrays.asList("-Xlint:all", "-implicit:class", "-encoding", "UTF-8",
+                "-d", mOutput.getPath(), "-s", mGenerated.getPath());
+        JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, mDiagnostics, options, null, units);
+        task.setProcessors(Arrays.<Processor>asList(new HolderProcessor()));
+        try {
+            return task.call();
+        } finally {
+            try {
+                fileManager.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private String generated(String path) throws IOException {
+        File file = new File(mGenerated, path);
+        assertTrue(path + " not generated", file.isFile());
+        return new String(Files.readAllBytes(file.toPath()), "UTF-8");
+    }
+
+    private List<String> errors() {
+        List<String> errors = new ArrayList<>();
+        for (Diagnostic<? extends JavaFileObject> diagnostic : mDiagnostics.getDiagnostics())
+            if (Diagnostic.Kind.ERROR == diagnostic.getKind())
+                errors.add(diagnostic.getMessage(Locale.ROOT));
+        return errors;
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (null != children)
+            for (File child : children)
+                delete(child);
+        //noinspection ResultOfMethodCallIgnored
+        file.delete();
+    }
+
+    /**
+     * 内存中的源码, 按类名作为文件路径, 与 public 类型必须在同名文件中的要求一致
+     */
+    private static final class StringSource extends SimpleJavaFileObject {
+
+        private final String mSource;
+
+        StringSource(String className, String source) {
+            super(URI.create("string:///" + className.replace('.', '/') + Kind.SOURCE.extension), Kind.SOURCE);
+            mSource = source;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return mSource;
+        }
+    }
+
+}
@@ -0,0 +1,152 @@
+package commonadapter.library;
+
+import android.os.SystemClock;
+import android.test.InstrumentationTestCase;
+import android.text.Layout;
+import android.util.Log;
+import android.view.View;
+
+/**
+ * TextPrecomputer 与 PrecomputedTextView 配合时的绑定耗时: 预先计算后绑定直接使用创建好的 Layout,
+ * 与不使用 TextPrecomputer 时在主线程中测量文字比较. 耗时只输出到日志, 不作为判断条件
+ */
+public class TextPrecomputerTest extends InstrumentationTestCase {
+
+    private static final String TAG = "TextPrecomputerTest";
+    private static final int VIEW_ID = 1;
+    private static final int COUNT = 200;
+    private static final int WIDTH = 600;
+
+    private PrecomputedTextView mView;
+    private TextPrecomputer mPrecomputer;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                mView = new PrecomputedTextView(getInstrumentation().getTargetContext());
+                mView.setTextSize(16);
+                mPrecomputer = new TextPrecomputer(COUNT * 2);
+                // 布局后第一次绑定时记录参数, 之后才能预先计算. 空文字不计入命中统计
+                measure(mView);
+                mPrecomputer.setText(mView, VIEW_ID, "");
+            }
+        });
+    }
+
+    public void testPrecomputedLayoutIsApplied() throws Exception {
+        final String text = text("applied", 0);
+        getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                mPrecomputer.precompute(VIEW_ID, text);
+            }
+        });
+        awaitPrecomputed(1);
+        getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                Layout layout = mPrecomputer.getLayout(VIEW_ID, text);
+                assertNotNull(layout);
+                mPrecomputer.setText(mView, VIEW_ID, text);
+                assertSame(layout, mView.getLayout());
+                measure(mView);
+                // 宽度相同, 测量时不会重新创建
+                assertSame(layout, mView.getLayout());
+                assertEquals(text, mView.getText().toString());
+            }
+        });
+        assertEquals(1, mPrecomputer.getHitCount());
+    }
+
+    public void testPrecomputedLayoutIsKeptWithWrapContent() throws Exception {
+        final String text = text("wrap", 0);
+        getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                mPrecomputer.precompute(VIEW_ID, text);
+            }
+        });
+        awaitPrecomputed(1);
+        getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                Layout layout = mPrecomputer.getLayout(VIEW_ID, text);
+                assertNotNull(layout);
+                mPrecomputer.setText(mView, VIEW_ID, text);
+                // 布局宽度不超出 AT_MOST 的上限, 直接使用, 宽度取布局的宽度
+                mView.measure(View.MeasureSpec.makeMeasureSpec(WIDTH * 2, View.MeasureSpec.AT_MOST),
+                        View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED));
+                assertSame(layout, mView.getLayout());
+                assertEquals(layout.getWidth(), mView.getMeasuredWidth());
+                // 超出上限时重新创建
+                mView.measure(View.MeasureSpec.makeMeasureSpec(WIDTH / 2, View.MeasureSpec.AT_MOST),
+                        View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED));
+                assertNotSame(layout, mView.getLayout());
+                assertTrue(mView.getMeasuredWidth() <= WIDTH / 2);
+            }
+        });
+    }
+
+    public void testBindTimeWithAndWithoutPrecompute() throws Exception {
+        getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < COUNT; i++)
+                    mPrecomputer.precompute(VIEW_ID, text("precomputed", i));
+            }
+        });
+        awaitPrecomputed(COUNT);
+        final long[] nanos = new long[2];
+        getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                PrecomputedTextView plain = new PrecomputedTextView(getInstrumentation().getTargetContext());
+                plain.setTextSize(16);
+                for (int i = 0; i < COUNT; i++) {
+                    long start = System.nanoTime();
+                    plain.setText(text("plain", i));
+                    measure(plain);
+                    nanos[0] += System.nanoTime() - start;
+
+                    start = System.nanoTime();
+                    mPrecomputer.setText(mView, VIEW_ID, text("precomputed", i));
+                    measure(mView);
+                    nanos[1] += System.nanoTime() - start;
+                }
+            }
+        });
+        Log.i(TAG, String.format("bind %d texts: without precompute %d us, with precompute %d us",
+                COUNT, nanos[0] / 1000, nanos[1] / 1000));
+        assertEquals(COUNT, mPrecomputer.getHitCount());
+        assertEquals(0, mPrecomputer.getMissCount());
+    }
+
+    /**
+     * 等待后台完成预先计算, 结果在主线程中放入缓存
+     */
+    private void awaitPrecomputed(int count) throws InterruptedException {
+        long deadline = SystemClock.uptimeMillis() + 10000;
+        while (mPrecomputer.getPrecomputeCount() < count) {
+            assertTrue("precompute timed out", SystemClock.uptimeMillis() < deadline);
+            Thread.sleep(10);
+            getInstrumentation().waitForIdleSync();
+        }
+    }
+
+    private static void measure(View view) {
+        view.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED));
+        view.layout(0, 0, view.getMeasuredWidth(), view.getMeasuredHeight());
+    }
+
+    private static String text(String prefix, int index) {
+        StringBuilder builder = new StringBuilder(prefix).append(' ').append(index);
+        for (int i = 0; i < 12; i++)
+            builder.append(" lorem ipsum ").append(index * 31 + i);
+        return builder.toString();
+    }
+
+}
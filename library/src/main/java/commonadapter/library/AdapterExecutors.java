@@ -0,0 +1,155 @@
+package commonadapter.library;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.support.annotation.Nullable;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * AdapterExecutors
+ * Adapter 内部使用的主线程 Handler 和后台线程池
+ */
+final class AdapterExecutors {
+
+    private static final int POOL_SIZE =
+            Math.max(2, Math.min(Runtime.getRuntime().availableProcessors() - 1, 4));
+
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+
+    private static final int DECODER_POOL_SIZE = 2;
+
+    /**
+     * 单元测试中代替 Looper 判断主线程, 并接收发送到主线程的任务, 为 null 时使用主线程的 Looper
+     */
+    private static volatile Thread sMainThread;
+    private static volatile Executor sMainExecutor;
+
+    private static volatile Executor sBackground;
+    private static volatile ThreadPoolExecutor sDecoder;
+
+    private AdapterExecutors() {
+    }
+
+    /**
+     * 单元测试使用, 指定作为主线程的线程和执行发送到主线程的任务的 Executor, 都为 null 时恢复默认
+     * 单元测试中没有 Looper, 默认任何线程都被当作主线程, 发送到主线程的任务也不会执行
+     */
+    static void setMainThread(@Nullable Thread thread, @Nullable Executor executor) {
+        sMainThread = thread;
+        sMainExecutor = executor;
+    }
+
+    /**
+     * 判断当前是否是主线程
+     */
+    static boolean isMainThread() {
+        Thread mainThread = sMainThread;
+        if (null != mainThread)
+            return mainThread == Thread.currentThread();
+        return Looper.getMainLooper() == Looper.myLooper();
+    }
+
+    /**
+     * 发送到主线程执行
+     */
+    static void postToMainThread(Runnable action) {
+        Executor executor = sMainExecutor;
+        if (null != executor)
+            executor.execute(action);
+        else
+            MAIN_HANDLER.post(action);
+    }
+
+    /**
+     * 在主线程执行 action, 当前已经是主线程时直接执行
+     */
+    static void runOnMainThread(Runnable action) {
+        if (isMainThread())
+            action.run();
+        else
+            postToMainThread(action);
+    }
+
+    /**
+     * 后台线程池, 线程空闲一段时间后会自动退出
+     */
+    static Executor background() {
+        Executor executor = sBackground;
+        if (null == executor) {
+            synchronized (AdapterExecutors.class) {
+                executor = sBackground;
+                if (null == executor) {
+                    ThreadPoolExecutor pool = new ThreadPoolExecutor(POOL_SIZE, POOL_SIZE,
+                            30, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+                            new BackgroundThreadFactory("CommonAdapter #"));
+                    pool.allowCoreThreadTimeOut(true);
+                    sBackground = executor = pool;
+                }
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * 解码图片的线程池, 后提交的任务先执行, 使最新显示的 Item 的图片优先加载
+     */
+    static ThreadPoolExecutor decoder() {
+        ThreadPoolExecutor executor = sDecoder;
+        if (null == executor) {
+            synchronized (AdapterExecutors.class) {
+                executor = sDecoder;
+                if (null == executor) {
+                    executor = new ThreadPoolExecutor(DECODER_POOL_SIZE, DECODER_POOL_SIZE,
+                            30, TimeUnit.SECONDS, new LifoBlockingDeque(),
+                            new BackgroundThreadFactory("CommonAdapter-Decoder #"));
+                    executor.allowCoreThreadTimeOut(true);
+                    sDecoder = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * 从头部插入的队列, 线程池从头部取出任务, 因此后提交的任务先执行
+     */
+    private static final class LifoBlockingDeque extends LinkedBlockingDeque<Runnable> {
+
+        @Override
+        public boolean offer(Runnable r) {
+            return offerFirst(r);
+        }
+    }
+
+    private static final class BackgroundThreadFactory implements ThreadFactory {
+
+        private final String mName;
+        private final AtomicInteger mCount = new AtomicInteger();
+
+        BackgroundThreadFactory(String name) {
+            mName = name;
+        }
+
+        @Override
+        public Thread newThread(final Runnable r) {
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                    r.run();
+                }
+            }, mName + mCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+}
@@ -0,0 +1,52 @@
+package commonadapter.library;
+
+import android.support.annotation.LayoutRes;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * BindLayout
+ * 声明一个 Item 布局, 配合 {@link BindView} 使用, 由 compiler 模块在编译期生成代码:
+ * <pre>
+ * &#64;BindLayout(R.layout.item_simple)
+ * class SimpleItem {
+ *     &#64;BindView(R.id.iv_icon) ImageView icon;
+ *     &#64;BindView(R.id.tv_num) TextView num;
+ * }
+ * </pre>
+ * 会生成 SimpleItemViewHolder, 在 inflate 时一次性找到所有 View 并保存到 final 字段中,
+ * 以及 SimpleItemAdapter&lt;T&gt;, 已经实现了 getHolder(), 只需要实现 convert().
+ * 只能用于 layoutId 和 viewId 是常量的模块中.
+ * <p>
+ * 注解处理器在 compiler 模块中, 通过 android-apt 插件应用到使用注解的模块:
+ * <pre>
+ * // 项目的 build.gradle
+ * buildscript {
+ *     dependencies {
+ *         classpath 'com.neenbedankt.gradle.plugins:android-apt:1.8'
+ *     }
+ * }
+ *
+ * // 模块的 build.gradle
+ * apply plugin: 'com.neenbedankt.android-apt'
+ *
+ * dependencies {
+ *     compile project(':library')
+ *     apt project(':compiler')
+ * }
+ * </pre>
+ * 生成的源码在 build/generated/source/apt 中
+ */
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface BindLayout {
+
+    /**
+     * Item 布局的 ID
+     */
+    @LayoutRes int value();
+
+}
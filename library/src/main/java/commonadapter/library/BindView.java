@@ -0,0 +1,23 @@
+package commonadapter.library;
+
+import android.support.annotation.IdRes;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * BindView
+ * 声明 {@link BindLayout} 布局中的一个 View, 字段的名称和类型就是生成的 ViewHolder 中字段的名称和类型
+ */
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.FIELD)
+public @interface BindView {
+
+    /**
+     * View 的 ID
+     */
+    @IdRes int value();
+
+}
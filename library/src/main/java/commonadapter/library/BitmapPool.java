@@ -0,0 +1,71 @@
+package commonadapter.library;
+
+import android.annotation.TargetApi;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.os.Build;
+
+/**
+ * BitmapPool
+ * 可以作为 BitmapFactory.Options.inBitmap 重用的 Bitmap, 按字节数限制大小, 可以在任意线程访问
+ * 放入的 Bitmap 必须不再被任何 ImageView 显示, 取出时按 BitmapFactory.Options 描述的图片匹配
+ */
+final class BitmapPool extends SizedPool<Bitmap, BitmapFactory.Options> {
+
+    BitmapPool(int maxBytes) {
+        super(maxBytes);
+    }
+
+    /**
+     * 获取 Bitmap 占用的字节数
+     */
+    static int byteCountOf(Bitmap bitmap) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT)
+            return allocationByteCount(bitmap);
+        return bitmap.getByteCount();
+    }
+
+    @TargetApi(Build.VERSION_CODES.KITKAT)
+    private static int allocationByteCount(Bitmap bitmap) {
+        return bitmap.getAllocationByteCount();
+    }
+
+    @Override
+    int sizeOf(Bitmap bitmap) {
+        return byteCountOf(bitmap);
+    }
+
+    /**
+     * 放入一个不再使用的 Bitmap, 不可修改或者已经回收的 Bitmap 不能重用, 直接丢弃
+     */
+    @Override
+    void put(Bitmap bitmap) {
+        if (bitmap.isMutable() && !bitmap.isRecycled())
+            super.put(bitmap);
+    }
+
+    /**
+     * 是否可以用于解码 options 描述的图片, options 中需要已经包含 inJustDecodeBounds 得到的宽高和计算好的 inSampleSize.
+     * KITKAT 开始只要字节数足够就可以重用, 之前需要宽高完全相同并且不缩放
+     */
+    @Override
+    boolean canReuse(Bitmap bitmap, BitmapFactory.Options options) {
+        int sampleSize = Math.max(1, options.inSampleSize);
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.KITKAT)
+            return 1 == sampleSize && bitmap.getWidth() == options.outWidth
+                    && bitmap.getHeight() == options.outHeight
+                    && bitmap.getConfig() == options.inPreferredConfig;
+        int width = (options.outWidth + sampleSize - 1) / sampleSize;
+        int height = (options.outHeight + sampleSize - 1) / sampleSize;
+        return width * height * bytesPerPixel(options.inPreferredConfig) <= byteCountOf(bitmap);
+    }
+
+    private static int bytesPerPixel(Bitmap.Config config) {
+        if (Bitmap.Config.RGB_565 == config || Bitmap.Config.ARGB_4444 == config)
+            return 2;
+        if (Bitmap.Config.ALPHA_8 == config)
+            return 1;
+        return 4;
+    }
+
+}
@@ -0,0 +1,31 @@
+package commonadapter.library;
+
+import android.view.View;
+
+/**
+ * ChildClickHandler
+ * 每个 Item 一个的点击和长按监听, 在 Item 第一次被绑定时设置给注册的子视图, 之后复用时不再分配.
+ * 点击时通过 HolderState 找到当前的 Adapter 和位置再分发
+ */
+final class ChildClickHandler implements View.OnClickListener, View.OnLongClickListener {
+
+    private final HolderState mState;
+
+    ChildClickHandler(HolderState state) {
+        mState = state;
+    }
+
+    @Override
+    public void onClick(View v) {
+        CommonAdapter<?, ?> adapter = mState.mAdapter;
+        if (null != adapter)
+            adapter.dispatchChildClick(mState, v.getId());
+    }
+
+    @Override
+    public boolean onLongClick(View v) {
+        CommonAdapter<?, ?> adapter = mState.mAdapter;
+        return null != adapter && adapter.dispatchChildLongClick(mState, v.getId());
+    }
+
+}
@@ -0,0 +1,64 @@
+package commonadapter.library;
+
+import android.content.Context;
+import android.support.annotation.LayoutRes;
+import android.support.annotation.NonNull;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * ColumnAdapter
+ * 数据保存在 ColumnStore 中的 CommonAdapter, 每个 Item 对应表格的一行, 不需要为每行创建对象.
+ * convert() 中的位置就是行的位置, 通过 getStore() 按列读取数据; getItem() 返回行的位置.
+ * 修改 ColumnStore 后需要调用 notifyDataSetChanged(), 不支持 add() 等修改方法
+ */
+@SuppressWarnings("unused")
+public abstract class ColumnAdapter<H extends ViewHolder> extends PrimitiveAdapter<Integer, H> {
+
+    private final ColumnStore mStore;
+
+    /**
+     * @param context   Context 对象
+     * @param store     表格数据
+     * @param layoutIds 布局ID, 使用分类型 ListView 时传递多个即可, 至少设置一个
+     */
+    public ColumnAdapter(@NonNull Context context,
+                         @NonNull ColumnStore store,
+                         @LayoutRes int... layoutIds) {
+        super(context, new Rows(store), layoutIds);
+        mStore = store;
+    }
+
+    /**
+     * 获取表格数据, 修改后需要调用 notifyDataSetChanged()
+     */
+    public ColumnStore getStore() {
+        return mStore;
+    }
+
+    /**
+     * 以行的位置作为元素的只读列表, 大小随 ColumnStore 变化
+     */
+    private static final class Rows extends AbstractList<Integer> implements RandomAccess {
+
+        private final ColumnStore mStore;
+
+        Rows(ColumnStore store) {
+            mStore = store;
+        }
+
+        @Override
+        public Integer get(int index) {
+            if (index >= mStore.getRowCount() || 0 > index)
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + mStore.getRowCount());
+            return index;
+        }
+
+        @Override
+        public int size() {
+            return mStore.getRowCount();
+        }
+    }
+
+}
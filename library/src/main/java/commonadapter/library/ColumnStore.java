@@ -0,0 +1,216 @@
+package commonadapter.library;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ColumnStore
+ * 按列保存的表格数据, 每列是一个基本类型数组或 String 列表, 每行只占用各列一个元素的空间,
+ * 不需要为每行创建对象. 列的类型在构造时确定, 行和列都通过位置访问
+ */
+@SuppressWarnings("unused")
+public final class ColumnStore {
+
+    public static final int TYPE_INT = 0;
+    public static final int TYPE_LONG = 1;
+    public static final int TYPE_DOUBLE = 2;
+    public static final int TYPE_STRING = 3;
+
+    private static final String[] TYPE_NAMES = {"int", "long", "double", "String"};
+
+    private final int[] mTypes;
+    private final Object[] mColumns;
+    private int mRowCount;
+
+    /**
+     * @param types 每列的类型, TYPE_INT, TYPE_LONG, TYPE_DOUBLE 或 TYPE_STRING
+     */
+    public ColumnStore(int... types) {
+        mTypes = types.clone();
+        mColumns = new Object[types.length];
+        for (int i = 0; i < types.length; i++) {
+            switch (types[i]) {
+                case TYPE_INT:
+                    mColumns[i] = new IntArrayList();
+                    break;
+                case TYPE_LONG:
+                    mColumns[i] = new LongArrayList();
+                    break;
+                case TYPE_DOUBLE:
+                    mColumns[i] = new DoubleArrayList();
+                    break;
+                case TYPE_STRING:
+                    mColumns[i] = new ArrayList<String>();
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown column type: " + types[i]);
+            }
+        }
+    }
+
+    public int getColumnCount() {
+        return mTypes.length;
+    }
+
+    public int getColumnType(int column) {
+        return mTypes[column];
+    }
+
+    public int getRowCount() {
+        return mRowCount;
+    }
+
+    /**
+     * 确保每列至少可以保存 rows 行, 之后添加行时不需要扩容
+     */
+    @SuppressWarnings("unchecked")
+    public void ensureCapacity(int rows) {
+        for (int i = 0; i < mColumns.length; i++) {
+            switch (mTypes[i]) {
+                case TYPE_INT:
+                    ((IntArrayList) mColumns[i]).ensureCapacity(rows);
+                    break;
+                case TYPE_LONG:
+                    ((LongArrayList) mColumns[i]).ensureCapacity(rows);
+                    break;
+                case TYPE_DOUBLE:
+                    ((DoubleArrayList) mColumns[i]).ensureCapacity(rows);
+                    break;
+                default:
+                    ((ArrayList<String>) mColumns[i]).ensureCapacity(rows);
+                    break;
+            }
+        }
+    }
+
+    /**
+     * 在尾部添加一行, 数值列为 0, String 列为 null, 返回新行的位置
+     */
+    @SuppressWarnings("unchecked")
+    public int addRow() {
+        for (int i = 0; i < mColumns.length; i++) {
+            switch (mTypes[i]) {
+                case TYPE_INT:
+                    ((IntArrayList) mColumns[i]).addInt(0);
+                    break;
+                case TYPE_LONG:
+                    ((LongArrayList) mColumns[i]).addLong(0);
+                    break;
+                case TYPE_DOUBLE:
+                    ((DoubleArrayList) mColumns[i]).addDouble(0);
+                    break;
+                default:
+                    ((ArrayList<String>) mColumns[i]).add(null);
+                    break;
+            }
+        }
+        return mRowCount++;
+    }
+
+    /**
+     * 移除指定的行, 之后的行向前移动
+     */
+    @SuppressWarnings("unchecked")
+    public void removeRow(int row) {
+        if (row >= mRowCount || 0 > row)
+            throw new IndexOutOfBoundsException("Row: " + row + ", Rows: " + mRowCount);
+        for (int i = 0; i < mColumns.length; i++) {
+            switch (mTypes[i]) {
+                case TYPE_INT:
+                    ((IntArrayList) mColumns[i]).removeAt(row);
+                    break;
+                case TYPE_LONG:
+                    ((LongArrayList) mColumns[i]).removeAt(row);
+                    break;
+                case TYPE_DOUBLE:
+                    ((DoubleArrayList) mColumns[i]).removeAt(row);
+                    break;
+                default:
+                    ((ArrayList<String>) mColumns[i]).remove(row);
+                    break;
+            }
+        }
+        mRowCount--;
+    }
+
+    /**
+     * 移除所有行, 保留已分配的容量
+     */
+    public void clear() {
+        for (Object column : mColumns)
+            ((List<?>) column).clear();
+        mRowCount = 0;
+    }
+
+    public int getInt(int row, int column) {
+        return ints(column).getInt(row);
+    }
+
+    public void setInt(int row, int column, int value) {
+        ints(column).setInt(row, value);
+    }
+
+    public long getLong(int row, int column) {
+        return longs(column).getLong(row);
+    }
+
+    public void setLong(int row, int column, long value) {
+        longs(column).setLong(row, value);
+    }
+
+    public double getDouble(int row, int column) {
+        return doubles(column).getDouble(row);
+    }
+
+    public void setDouble(int row, int column, double value) {
+        doubles(column).setDouble(row, value);
+    }
+
+    public String getString(int row, int column) {
+        return strings(column).get(row);
+    }
+
+    public void setString(int row, int column, String value) {
+        strings(column).set(row, value);
+    }
+
+    /**
+     * 获取 int 类型的列, 可以直接读写, 但不能改变其大小
+     */
+    public IntArrayList ints(int column) {
+        checkType(column, TYPE_INT);
+        return (IntArrayList) mColumns[column];
+    }
+
+    /**
+     * 获取 long 类型的列, 可以直接读写, 但不能改变其大小
+     */
+    public LongArrayList longs(int column) {
+        checkType(column, TYPE_LONG);
+        return (LongArrayList) mColumns[column];
+    }
+
+    /**
+     * 获取 double 类型的列, 可以直接读写, 但不能改变其大小
+     */
+    public DoubleArrayList doubles(int column) {
+        checkType(column, TYPE_DOUBLE);
+        return (DoubleArrayList) mColumns[column];
+    }
+
+    /**
+     * 获取 String 类型的列, 可以直接读写, 但不能改变其大小
+     */
+    @SuppressWarnings("unchecked")
+    public ArrayList<String> strings(int column) {
+        checkType(column, TYPE_STRING);
+        return (ArrayList<String>) mColumns[column];
+    }
+
+    private void checkType(int column, int type) {
+        if (mTypes[column] != type)
+            throw new IllegalArgumentException("Column " + column + " is "
+                    + TYPE_NAMES[mTypes[column]] + ", not " + TYPE_NAMES[type] + '.');
+    }
+
+}
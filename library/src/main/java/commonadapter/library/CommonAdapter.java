@@ -3,31 +3,101 @@ package commonadapter.library;
 import android.app.Activity;
 import android.content.Context;
 import android.content.Intent;
+import android.database.DataSetObserver;
+import android.support.annotation.IdRes;
 import android.support.annotation.LayoutRes;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
+import android.widget.AbsListView;
+import android.widget.AbsListView.OnScrollListener;
+import android.widget.AbsListView.RecyclerListener;
+import android.widget.AdapterView;
 import android.widget.BaseAdapter;
+import android.widget.Filter;
+import android.widget.Filterable;
+import android.widget.ListView;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * CommonAdapter
  * Created by Jian Zhang on 2016-05-23.
  */
 @SuppressWarnings("unused")
-public abstract class CommonAdapter<T, H extends ViewHolder> extends BaseAdapter {
+public abstract class CommonAdapter<T, H extends ViewHolder> extends BaseAdapter implements Filterable {
 
     protected List<T> mData;
     protected Context mContext;
     protected final int[] mLayoutIds;
     protected final LayoutInflater mInflater;
 
+    private int mBatchDepth;
+    private boolean mNotifyPending;
+    private FrameNotifier mFrameNotifier;
+    private int mDataVersion;
+
+    private boolean mConcurrent;
+    private List<T> mPendingData;
+    private boolean mPublishScheduled;
+    private final Runnable mPublishRunnable = new Runnable() {
+        @Override
+        public void run() {
+            publishData();
+        }
+    };
+    private final Runnable mNotifyRunnable = new Runnable() {
+        @Override
+        public void run() {
+            dispatchDataSetChanged();
+        }
+    };
+
+    private AbsListView mListView;
+    private final ListViewHooks mHooks = new ListViewHooks();
+    private DiffCallback<? super T> mDiffCallback;
+    private int mSubmitGeneration;
+
+    private InflatePool<H> mInflatePool;
+    private RecycledHolderPool mRecycledPool;
+
+    private ItemIdProvider<? super T> mIdProvider;
+    private int mBindGeneration;
+
+    private ItemFilter mFilter;
+    private List<T> mOriginalData;
+    private int mOriginalVersion;
+    private boolean mIncrementalFilter = true;
+    private String mFilterQuery;
+    private List<T> mFilterResults;
+    private int mFilterResultsVersion;
+    private final AtomicInteger mFilterRequests = new AtomicInteger();
+
+    private Comparator<? super T> mSortComparator;
+    private int mEditVersion;
+    private int mSortGeneration;
+
+    private final DelegateRegistry mDelegates;
+    private MetricsListener mMetrics;
+    private boolean mObserved;
+    private DeferredBindQueue mDeferredBinds;
+
+    /**
+     * 子视图点击注册的版本, 每次修改注册时加一. Item 记录设置监听的 Adapter, 在不同 Adapter 之间切换时重新设置
+     */
+    private int mClickGeneration;
+    private int[] mClickIds = {};
+    private int[] mLongClickIds = {};
+    private OnItemChildClickListener<? super T, ? super H> mChildClickListener;
+    private OnItemChildLongClickListener<? super T, ? super H> mChildLongClickListener;
+
     /**
      * @param context   Context 对象
      * @param data      List数据集合
@@ -42,6 +112,7 @@ public abstract class CommonAdapter<T, H extends ViewHolder> extends BaseAdapter
         mContext = context;
         mLayoutIds = layoutIds;
         mInflater = LayoutInflater.from(context);
+        mDelegates = new DelegateRegistry(layoutIds);
     }
 
     /**
@@ -52,10 +123,367 @@ public abstract class CommonAdapter<T, H extends ViewHolder> extends BaseAdapter
     }
 
     /**
-     * 设置 Adapter 中的数据
+     * 设置 Adapter 中的数据, 同时清除过滤状态
      */
     public void setData(List<T> data) {
-        this.mData = data;
+        synchronized (this) {
+            mDataVersion++;
+            mEditVersion++;
+            mPendingData = null;
+            clearFilterState();
+            if (mConcurrent && !AdapterExecutors.isMainThread()) {
+                mPendingData = data;
+                schedulePublish();
+            } else
+                this.mData = data;
+        }
+        requestSort();
+    }
+
+    /**
+     * 设置是否开启并发模式, 需要在主线程调用
+     * 开启后可以在任意线程修改数据: 修改作用在数据的副本上, 然后在主线程中替换数据并通知 ListView,
+     * 主线程读取数据时无需加锁, 并且总是和最后一次通知一致.
+     * 并发模式下不要直接修改 getData() 返回的列表, 在非主线程调用 setData() 时也会通知 ListView
+     */
+    public void setConcurrentMode(boolean concurrent) {
+        boolean publish;
+        synchronized (this) {
+            mConcurrent = concurrent;
+            if (concurrent && null != mOriginalData && mOriginalData == mData)
+                mOriginalData = new ArrayList<>(mData);
+            publish = !concurrent && null != mPendingData;
+            if (publish) {
+                mData = mPendingData;
+                mPendingData = null;
+            }
+        }
+        if (publish)
+            notifyDataSetChanged();
+    }
+
+    /**
+     * 获取修改数据时使用的列表, 需要持有 Adapter 的锁
+     * 并发模式下第一次修改时复制一份当前数据, 之后的修改都作用在这份副本上, 直到副本被发布
+     * 过滤状态下修改作用在原始数据上
+     */
+    private List<T> editData() {
+        if (null != mOriginalData)
+            return mOriginalData;
+        if (!mConcurrent)
+            return mData;
+        if (null == mPendingData)
+            mPendingData = new ArrayList<>(mData);
+        return mPendingData;
+    }
+
+    /**
+     * 数据修改完成, 需要持有 Adapter 的锁
+     * 过滤状态下重新过滤, 并发模式下发布数据副本, 否则直接通知 ListView
+     */
+    private void commitEdit() {
+        mDataVersion++;
+        mEditVersion++;
+        if (null != mOriginalData) {
+            mOriginalVersion++;
+            if (mOriginalData == mData)
+                notifyDataSetChanged();
+            if (null != mFilterQuery)
+                filter(mFilterQuery);
+        } else if (mConcurrent)
+            schedulePublish();
+        else
+            notifyDataSetChanged();
+    }
+
+    /**
+     * 请求发布数据副本, 在主线程时立即发布, 否则发送到主线程发布
+     */
+    private void schedulePublish() {
+        if (AdapterExecutors.isMainThread())
+            publishData();
+        else if (!mPublishScheduled) {
+            mPublishScheduled = true;
+            AdapterExecutors.postToMainThread(mPublishRunnable);
+        }
+    }
+
+    /**
+     * 在主线程中用数据副本替换当前数据并通知 ListView, 批量修改中时等到 endBatch() 再发布
+     */
+    private void publishData() {
+        synchronized (this) {
+            mPublishScheduled = false;
+            if (null == mPendingData || 0 < mBatchDepth)
+                return;
+            mData = mPendingData;
+            mPendingData = null;
+        }
+        notifyDataSetChanged();
+    }
+
+    /**
+     * 获取当前最新的数据, 过滤状态下为原始数据, 并发模式下为还没有发布的副本, 需要持有 Adapter 的锁
+     */
+    private List<T> currentData() {
+        if (null != mOriginalData)
+            return mOriginalData;
+        return null == mPendingData ? mData : mPendingData;
+    }
+
+    /**
+     * 设置排序模式使用的比较器, 设置为 null 时退出排序模式
+     * 排序模式下数据始终按比较器的顺序排列: add() 通过二分查找插入, addAll() 先排序再归并,
+     * setData() 和设置比较器时在后台线程中排序, 然后在主线程中写回数据并通知 ListView.
+     * 排序模式下不能调用 insert(), sort() 和 reverse()
+     */
+    public void setSortComparator(@Nullable Comparator<? super T> comparator) {
+        synchronized (this) {
+            mSortComparator = comparator;
+            mSortGeneration++;
+        }
+        requestSort();
+    }
+
+    /**
+     * 获取排序模式使用的比较器, 不处于排序模式时返回 null
+     */
+    @Nullable
+    public synchronized Comparator<? super T> getSortComparator() {
+        return mSortComparator;
+    }
+
+    /**
+     * 排序模式下, 在后台线程中对当前数据的副本排序
+     */
+    private void requestSort() {
+        final Comparator<? super T> comparator;
+        final List<T> snapshot;
+        final int generation;
+        final int version;
+        synchronized (this) {
+            comparator = mSortComparator;
+            if (null == comparator)
+                return;
+            snapshot = new ArrayList<>(currentData());
+            generation = ++mSortGeneration;
+            version = mEditVersion;
+        }
+        AdapterExecutors.background().execute(new Runnable() {
+            @Override
+            public void run() {
+                Collections.sort(snapshot, comparator);
+                AdapterExecutors.postToMainThread(new Runnable() {
+                    @Override
+                    public void run() {
+                        applySort(snapshot, generation, version);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * 在主线程中写回排序结果, 排序期间数据被修改过时重新排序
+     */
+    private void applySort(List<T> sorted, int generation, int version) {
+        synchronized (this) {
+            if (generation != mSortGeneration)
+                return;
+            if (version == mEditVersion) {
+                List<T> data = editData();
+                for (int i = 0, size = sorted.size(); i < size; i++)
+                    data.set(i, sorted.get(i));
+                commitEdit();
+                return;
+            }
+        }
+        requestSort();
+    }
+
+    /**
+     * 排序模式下不支持改变 Item 顺序的操作
+     */
+    private void checkUnsorted() {
+        if (null != mSortComparator)
+            throw new UnsupportedOperationException("Not supported in sorted mode.");
+    }
+
+    /**
+     * 设置 submitData() 比较新旧数据时使用的 DiffCallback
+     */
+    public void setDiffCallback(@Nullable DiffCallback<? super T> callback) {
+        mDiffCallback = callback;
+    }
+
+    /**
+     * 使用新的数据替换 Adapter 中的数据
+     * 在后台线程中使用 DiffCallback 计算新旧数据的差异, 然后在主线程中替换数据:
+     * 没有 Item 被添加, 移除或移动时, 只重新绑定内容改变了的可见 Item, 否则调用 notifyDataSetChanged()
+     * 多次调用时只有最后一次会生效, 只重新绑定可见 Item 需要先调用 attachTo().
+     * 和 setData() 不同, 过滤状态下替换的是原始数据并重新过滤, 排序模式下会重新排序
+     */
+    public void submitData(@NonNull final List<T> data) {
+        final DiffCallback<? super T> callback = mDiffCallback;
+        if (null == callback)
+            throw new IllegalStateException("Call setDiffCallback() before submitData().");
+        final List<T> oldData;
+        final int generation;
+        final int version;
+        synchronized (this) {
+            List<T> current = currentData();
+            oldData = mConcurrent && current == mData ? mData : new ArrayList<>(current);
+            generation = ++mSubmitGeneration;
+            version = mDataVersion;
+        }
+        AdapterExecutors.background().execute(new Runnable() {
+            @Override
+            public void run() {
+                final ListDiffer.Result result = ListDiffer.diff(oldData, data, callback);
+                AdapterExecutors.postToMainThread(new Runnable() {
+                    @Override
+                    public void run() {
+                        applyDiff(data, result, generation, version);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * 在主线程中应用 submitData() 的计算结果
+     */
+    private void applyDiff(List<T> data, ListDiffer.Result result, int generation, int version) {
+        AbsListView listView;
+        synchronized (this) {
+            if (generation != mSubmitGeneration)
+                return;
+            boolean rebind = !result.isStructural() && version == mDataVersion && 0 == mBatchDepth
+                    && null == mOriginalData && null == mSortComparator;
+            listView = rebind ? mListView : null;
+        }
+        if (null == listView) {
+            replaceData(data);
+            notifyDataSetChanged();
+        } else if (!rebindChanged(listView, data, result))
+            notifyDataSetChanged();
+    }
+
+    /**
+     * 替换数据并只重新绑定内容改变了的可见 Item, 无法只重新绑定时返回 false
+     */
+    private boolean rebindChanged(AbsListView listView, List<T> data, ListDiffer.Result result) {
+        int headerCount = listView instanceof ListView
+                ? ((ListView) listView).getHeaderViewsCount() : 0;
+        int first = listView.getFirstVisiblePosition() - headerCount;
+        int childCount = listView.getChildCount();
+        int size = data.size();
+        int[] viewTypes = new int[childCount];
+        for (int i = 0; i < childCount; i++) {
+            int position = first + i;
+            if (0 <= position && position < size && result.isChanged(position))
+                viewTypes[i] = getItemViewType(position);
+        }
+        replaceData(data);
+        for (int i = 0; i < childCount; i++) {
+            int position = first + i;
+            if (0 > position || position >= size || !result.isChanged(position))
+                continue;
+            if (getItemViewType(position) != viewTypes[i])
+                return false;
+            View child = listView.getChildAt(i);
+            if (getView(position, child, listView) != child)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * 在主线程中替换 submitData() 提交的数据, 和 setData() 不同, 保留过滤和排序状态:
+     * 过滤状态下替换原始数据并按当前条件重新过滤, 排序模式下重新排序. 不通知 ListView
+     */
+    private void replaceData(List<T> data) {
+        synchronized (this) {
+            mDataVersion++;
+            mEditVersion++;
+            mPendingData = null;
+            if (null == mOriginalData)
+                mData = data;
+            else {
+                if (mOriginalData == mData)
+                    mData = data;
+                mOriginalData = mConcurrent && mData == data ? new ArrayList<>(data) : data;
+                mOriginalVersion++;
+                if (null != mFilterQuery)
+                    filter(mFilterQuery);
+            }
+        }
+        requestSort();
+    }
+
+    /**
+     * 将此 Adapter 设置给指定的 ListView 或 GridView, 并保持对它的引用
+     * submitData() 只重新绑定可见 Item 时需要通过它访问可见的 Item.
+     * 同时设置 ListView 的 OnScrollListener 和 RecyclerListener, 用于回收和暂停图片请求,
+     * 之后需要通过 Adapter 的 setOnScrollListener() 和 setRecyclerListener() 设置监听器
+     */
+    public void attachTo(@NonNull AbsListView listView) {
+        mListView = listView;
+        listView.setRecyclerListener(mHooks);
+        listView.setOnScrollListener(mHooks);
+        listView.setAdapter(this);
+    }
+
+    /**
+     * 设置 attachTo() 关联的 ListView 的 OnScrollListener
+     */
+    public void setOnScrollListener(@Nullable OnScrollListener listener) {
+        mHooks.setOnScrollListener(listener);
+    }
+
+    /**
+     * 设置 attachTo() 关联的 ListView 的 RecyclerListener
+     */
+    public void setRecyclerListener(@Nullable RecyclerListener listener) {
+        mHooks.setRecyclerListener(listener);
+    }
+
+    /**
+     * 设置快速滑动时是否暂停 RecyclableImageBinder 的图片请求, 默认开启, 需要先调用 attachTo()
+     * 暂停期间绑定的图片在停止快速滑动后只为可见的 Item 加载
+     *
+     * @see DefaultViewHolder.RecyclableImageBinder
+     */
+    public void setPauseImagesOnFling(boolean pause) {
+        boolean paused = mHooks.isImagesPaused();
+        mHooks.setPauseImagesOnFling(pause);
+        if (paused && !mHooks.isImagesPaused() && null != mListView)
+            mHooks.resumeImages(mListView);
+    }
+
+    /**
+     * 设置预取器, 需要先调用 attachTo(), 设置为 null 时取消所有还没有显示的预取
+     * 滚动时根据方向和速度计算可见区域前方的预取范围: 至少 maxDistance / 2 个, 越快越远, 最多 maxDistance 个.
+     * 在主线程空闲时从离可见区域最近的 Item 开始调用 prefetch(), 离开范围并且没有显示过的 Item 调用 cancel()
+     */
+    public void setItemPrefetcher(@Nullable ItemPrefetcher<? super T> prefetcher, int maxDistance) {
+        mHooks.setPrefetcher(null == prefetcher ? null
+                : new PrefetchScheduler(this, prefetcher, maxDistance));
+    }
+
+    /**
+     * 判断当前是否暂停图片请求
+     */
+    boolean isImagesPaused() {
+        return null != mListView && mHooks.isImagesPaused();
+    }
+
+    /**
+     * 获取通过 attachTo() 关联的 ListView 或 GridView, 没有关联时返回 null
+     */
+    @Nullable
+    public AbsListView getListView() {
+        return mListView;
     }
 
     /**
@@ -83,34 +511,118 @@ public abstract class CommonAdapter<T, H extends ViewHolder> extends BaseAdapter
 
     /**
      * 获取布局类型(数据类型)的数量, 会根布局类型生成相对应的 Item.
+     * 包括构造方法传入的布局和 register() 注册的布局
      */
     @Override
     public int getViewTypeCount() {
-        return mLayoutIds.length;
+        return mDelegates.getViewTypeCount();
     }
 
     /**
-     * 默认返回 0, 使用分类型 ListView 时需要重写此方法, 返回对应的 Type,
+     * 默认返回 Item 注册的布局对应的 Type, 没有注册时返回 0.
+     * 不使用 register() 时, 使用分类型 ListView 需要重写此方法, 返回对应的 Type,
      * Adapter 才可以根据此 Type 使用相应的 Item 布局和 ViewHolder.
      */
     @Override
     public int getItemViewType(int position) {
-        return super.getItemViewType(position);
+        if (mDelegates.isEmpty())
+            return super.getItemViewType(position);
+        return Math.max(0, mDelegates.getViewType(getItem(position)));
     }
 
     /**
      * 获取 Item 布局的 ID
      */
     public int getLayoutId(int position) {
-        return mLayoutIds[getItemViewType(position)];
+        return mDelegates.getLayoutId(getItemViewType(position));
+    }
+
+    /**
+     * 注册 clazz 类型的 Item 使用的布局和 ItemBinder, 需要在 Adapter 设置给 ListView 之前调用
+     * 这些 Item 由 binder 绑定, 不再调用 convert(). 为 Item 的具体类型注册的优先,
+     * 否则使用第一个注册的父类型或接口. 查找结果按具体类型缓存, 不会在每次绑定时重复查找
+     */
+    public <E extends T> void register(@NonNull Class<E> clazz,
+                                       @LayoutRes int layoutId,
+                                       @NonNull ItemBinder<? super E, ? super H> binder) {
+        checkUnobserved();
+        mDelegates.register(clazz, layoutId, binder);
+    }
+
+    /**
+     * 注册 matcher 匹配的 Item 使用的布局和 ItemBinder, 需要在 Adapter 设置给 ListView 之前调用
+     * ItemMatcher 按注册顺序在按类型查找之前检查, 每次绑定都会调用, 能按类型区分时优先按类型注册
+     */
+    public void register(@NonNull ItemMatcher<? super T> matcher,
+                         @LayoutRes int layoutId,
+                         @NonNull ItemBinder<? super T, ? super H> binder) {
+        checkUnobserved();
+        mDelegates.register(matcher, layoutId, binder);
+    }
+
+    /**
+     * ListView 只在设置 Adapter 时读取一次 getViewTypeCount(), 之后不能再增加布局
+     */
+    private void checkUnobserved() {
+        if (mObserved)
+            throw new IllegalStateException("Register item binders before setting the adapter.");
+    }
+
+    /**
+     * 设置给 ListView 时会注册 DataSetObserver, 之后不能再调用 register()
+     */
+    @Override
+    public void registerDataSetObserver(DataSetObserver observer) {
+        mObserved = true;
+        super.registerDataSetObserver(observer);
     }
 
     /**
-     * 获取 Item 的 ID, 不常用
+     * 获取 Item 的 ID, 设置了 ItemIdProvider 时返回它提供的 ID, 否则返回 position
+     * 还没有加载的占位 Item(null) 没有 ID, 返回 AdapterView.INVALID_ROW_ID
      */
     @Override
     public long getItemId(int position) {
-        return position;
+        ItemIdProvider<? super T> provider = mIdProvider;
+        if (null == provider)
+            return position;
+        T item = getItem(position);
+        return null == item ? AdapterView.INVALID_ROW_ID : provider.getItemId(item);
+    }
+
+    /**
+     * 设置了 ItemIdProvider 时 Item 的 ID 是稳定的
+     */
+    @Override
+    public boolean hasStableIds() {
+        return null != mIdProvider;
+    }
+
+    /**
+     * 设置 ItemIdProvider, 需要在 Adapter 设置给 ListView 之前调用
+     * 设置后 hasStableIds() 返回 true, ListView 可以在数据改变后保持选中等状态;
+     * 并且 getView() 复用的 Item 已经绑定了相同位置上相同 ID 和内容版本的数据时, 直接跳过 convert().
+     * 因此 convert() 的结果只能由 Item 的内容和位置决定, 依赖其他状态时需要调用 invalidateBinds()
+     */
+    public void setItemIdProvider(@Nullable ItemIdProvider<? super T> provider) {
+        mIdProvider = provider;
+        invalidateBinds();
+    }
+
+    /**
+     * 使所有 Item 的绑定记录失效, 下一次 getView() 时一定会调用 convert()
+     */
+    public void invalidateBinds() {
+        mBindGeneration++;
+    }
+
+    /**
+     * 通知 ListView 数据已失效, 同时使所有 Item 的绑定记录失效
+     */
+    @Override
+    public void notifyDataSetInvalidated() {
+        invalidateBinds();
+        super.notifyDataSetInvalidated();
     }
 
     /**
@@ -135,12 +647,320 @@ public abstract class CommonAdapter<T, H extends ViewHolder> extends BaseAdapter
      */
     @Override
     public View getView(int position, View convertView, ViewGroup parent) {
+        MetricsListener metrics = mMetrics;
         int layoutId = getLayoutId(position);
-        H holder = getHolder(mInflater, convertView, parent, layoutId);
-        convert(holder, position);
+        H holder = null;
+        if (null == convertView)
+            holder = obtainHolder(layoutId);
+        if (null != holder) {
+            if (null != metrics)
+                metrics.onReuse(layoutId, true);
+        } else if (null == metrics) {
+            holder = getHolder(mInflater, convertView, parent, layoutId);
+        } else if (null != convertView) {
+            holder = getHolder(mInflater, convertView, parent, layoutId);
+            metrics.onReuse(layoutId, false);
+        } else {
+            long start = System.nanoTime();
+            holder = getHolder(mInflater, null, parent, layoutId);
+            metrics.onInflate(layoutId, System.nanoTime() - start);
+        }
+        HolderState state = HolderState.obtain(holder, layoutId);
+        if (state.mScrapped)
+            reuseScrapped(state, position);
+        state.mAdapter = this;
+        state.mPosition = position;
+        if (state.mClickAdapter != this || state.mClickGeneration != mClickGeneration)
+            installChildClicks(state);
+        if (null == metrics)
+            bind(holder, state, position);
+        else {
+            long start = System.nanoTime();
+            if (bind(holder, state, position))
+                metrics.onBind(layoutId, System.nanoTime() - start);
+            else
+                metrics.onBindSkipped(layoutId);
+        }
         return holder.getConvertView();
     }
 
+    /**
+     * 设置统计 Item 生成和绑定情况的 MetricsListener, 设置为 null 时关闭统计
+     * 关闭时 getView() 只多一次判断, 没有其他开销
+     *
+     * @see MetricsRecorder
+     */
+    public void setMetricsListener(@Nullable MetricsListener listener) {
+        mMetrics = listener;
+    }
+
+    /**
+     * 设置子视图的点击监听, 代替在 convert() 中为每个 Item 创建监听
+     * 每个 Item 只在第一次绑定时设置一次共享的监听, 点击时按 Item 当前的位置分发, 滚动时不分配内存
+     *
+     * @param listener 为 null 时取消
+     * @param viewIds  需要监听点击的子视图ID
+     */
+    public void setOnItemChildClickListener(@Nullable OnItemChildClickListener<? super T, ? super H> listener,
+                                            @NonNull @IdRes int... viewIds) {
+        mChildClickListener = listener;
+        mClickIds = null == listener ? new int[0] : viewIds.clone();
+        mClickGeneration++;
+        notifyDataSetChanged();
+    }
+
+    /**
+     * 设置子视图的长按监听, 与 setOnItemChildClickListener() 相同
+     *
+     * @param listener 为 null 时取消
+     * @param viewIds  需要监听长按的子视图ID
+     */
+    public void setOnItemChildLongClickListener(@Nullable OnItemChildLongClickListener<? super T, ? super H> listener,
+                                                @NonNull @IdRes int... viewIds) {
+        mChildLongClickListener = listener;
+        mLongClickIds = null == listener ? new int[0] : viewIds.clone();
+        mClickGeneration++;
+        notifyDataSetChanged();
+    }
+
+    /**
+     * 为 Item 注册的子视图设置共享的监听, 注册改变后或者 Item 来自其他 Adapter 时调用
+     * 之前设置过但已经不再注册的子视图会被移除监听, 恢复为不可点击
+     */
+    private void installChildClicks(HolderState state) {
+        View convertView = state.mHolder.getConvertView();
+        for (int viewId : state.mClickIds) {
+            View view = contains(mClickIds, viewId) ? null : findChildView(convertView, viewId);
+            if (null != view) {
+                view.setOnClickListener(null);
+                view.setClickable(false);
+            }
+        }
+        for (int viewId : state.mLongClickIds) {
+            View view = contains(mLongClickIds, viewId) ? null : findChildView(convertView, viewId);
+            if (null != view) {
+                view.setOnLongClickListener(null);
+                view.setLongClickable(false);
+            }
+        }
+        if (null == state.mClickHandler && (0 != mClickIds.length || 0 != mLongClickIds.length))
+            state.mClickHandler = new ChildClickHandler(state);
+        for (int viewId : mClickIds) {
+            View view = findChildView(convertView, viewId);
+            if (null != view)
+                view.setOnClickListener(state.mClickHandler);
+        }
+        for (int viewId : mLongClickIds) {
+            View view = findChildView(convertView, viewId);
+            if (null != view)
+                view.setOnLongClickListener(state.mClickHandler);
+        }
+        state.mClickAdapter = this;
+        state.mClickGeneration = mClickGeneration;
+        state.mClickIds = mClickIds;
+        state.mLongClickIds = mLongClickIds;
+    }
+
+    /**
+     * 查找 Item 中设置点击监听的子视图
+     */
+    View findChildView(View convertView, @IdRes int viewId) {
+        return convertView.findViewById(viewId);
+    }
+
+    /**
+     * 分发子视图的点击, 位置已经失效或者 viewId 不再注册时忽略
+     */
+    @SuppressWarnings("unchecked")
+    void dispatchChildClick(HolderState state, int viewId) {
+        OnItemChildClickListener<? super T, ? super H> listener = mChildClickListener;
+        int position = state.mPosition;
+        if (null == listener || !contains(mClickIds, viewId) || position >= getCount())
+            return;
+        listener.onItemChildClick((H) state.mHolder, viewId, position, getItem(position));
+    }
+
+    /**
+     * 分发子视图的长按, 返回是否已经处理
+     */
+    @SuppressWarnings("unchecked")
+    boolean dispatchChildLongClick(HolderState state, int viewId) {
+        OnItemChildLongClickListener<? super T, ? super H> listener = mChildLongClickListener;
+        int position = state.mPosition;
+        if (null == listener || !contains(mLongClickIds, viewId) || position >= getCount())
+            return false;
+        return listener.onItemChildLongClick((H) state.mHolder, viewId, position, getItem(position));
+    }
+
+    private static boolean contains(int[] ids, int id) {
+        for (int i : ids)
+            if (i == id)
+                return true;
+        return false;
+    }
+
+    /**
+     * 在 convert() 或 ItemBinder 中调用, 将耗时的次要内容推迟到之后的帧中绑定
+     * 每一帧绘制完成后在时间预算内依次执行, 执行前 Item 重新绑定或者被回收时自动取消,
+     * 因此 getView() 中只需要完成必要的绑定, 一个耗时的 Item 不会导致滚动掉帧.
+     * binder 可以是不保存状态的常量对象, 注册时不分配内存
+     *
+     * @param holder   当前正在绑定的 ViewHolder 对象
+     * @param position 当前正在绑定的位置
+     */
+    public void deferBind(@NonNull H holder, int position, @NonNull DeferredBinder<? super H> binder) {
+        HolderState state = HolderState.of(holder.getConvertView());
+        if (null == state || state.mAdapter != this)
+            throw new IllegalArgumentException("holder is not bound by this adapter.");
+        if (null == mDeferredBinds)
+            mDeferredBinds = new DeferredBindQueue(this);
+        mDeferredBinds.add(state, position, binder);
+    }
+
+    /**
+     * 设置每一帧执行推迟的绑定最多使用的时间, 默认为 4 毫秒
+     */
+    public void setDeferredBindBudget(long budgetMillis) {
+        if (null == mDeferredBinds)
+            mDeferredBinds = new DeferredBindQueue(this);
+        mDeferredBinds.setBudget(budgetMillis);
+    }
+
+    /**
+     * 获取推迟的绑定队列, 没有使用过 deferBind() 时返回 null
+     */
+    DeferredBindQueue getDeferredBindQueue() {
+        return mDeferredBinds;
+    }
+
+    /**
+     * 从 ListView 回收站中取回的 Item 用于显示其他数据时立即回收, 显示相同数据时保留它的图片请求.
+     * 设置了 ItemIdProvider 时按 ID 判断, 否则按位置判断
+     */
+    private void reuseScrapped(HolderState state, int position) {
+        state.mScrapped = false;
+        boolean same;
+        ItemIdProvider<? super T> provider = mIdProvider;
+        if (state.mAdapter != this)
+            same = false;
+        else if (null == provider)
+            same = state.mPosition == position;
+        else {
+            T item = getItem(position);
+            same = null != item && state.isBoundTo(this, provider.getItemId(item));
+        }
+        if (!same)
+            state.mAdapter.recycleHolder(state);
+    }
+
+    /**
+     * 回收不再显示或者将要显示其他数据的 Item: 取消它的图片请求和还没有执行的推迟的绑定, 同时使绑定记录失效,
+     * 之后同一位置复用该 Item 时会重新调用 convert() 恢复图片和推迟的内容
+     */
+    void recycleHolder(HolderState state) {
+        state.setBound(null, 0, 0, 0, 0);
+        if (null != mDeferredBinds)
+            mDeferredBinds.cancel(state);
+        if (state.mHolder instanceof DefaultViewHolder)
+            ((DefaultViewHolder) state.mHolder).recycleImages();
+    }
+
+    /**
+     * 调用 convert() 绑定数据, 设置了 ItemIdProvider 并且 Item 已经绑定了相同的数据时跳过并返回 false
+     * 占位 Item(null) 不记录绑定, 总是调用 convert()
+     */
+    private boolean bind(H holder, HolderState state, int position) {
+        ItemIdProvider<? super T> provider = mIdProvider;
+        T item = null == provider ? null : getItem(position);
+        if (null == item) {
+            state.setBound(null, 0, 0, 0, 0);
+            state.mBindToken++;
+            dispatchConvert(holder, position);
+            return true;
+        }
+        long itemId = provider.getItemId(item);
+        long version = provider.getContentVersion(item);
+        if (state.isBound(this, mBindGeneration, position, itemId, version))
+            return false;
+        state.setBound(null, 0, 0, 0, 0);
+        state.mBindToken++;
+        dispatchConvert(holder, position);
+        state.setBound(this, mBindGeneration, position, itemId, version);
+        return true;
+    }
+
+    /**
+     * 使用 Item 注册的 ItemBinder 绑定数据, 没有注册时调用 convert()
+     */
+    @SuppressWarnings("unchecked")
+    private void dispatchConvert(H holder, int position) {
+        if (mDelegates.isEmpty()) {
+            convert(holder, position);
+            return;
+        }
+        T item = getItem(position);
+        ItemBinder<Object, H> binder = (ItemBinder<Object, H>) mDelegates.getBinder(item);
+        if (null == binder)
+            convert(holder, position);
+        else
+            binder.bind(holder, item, position);
+    }
+
+    /**
+     * 从共享池或者预先 inflate 的 Item 中取出一个 ViewHolder, 都没有时返回 null
+     */
+    @SuppressWarnings("unchecked")
+    private H obtainHolder(int layoutId) {
+        H holder = null;
+        RecycledHolderPool recycledPool = mRecycledPool;
+        if (null != recycledPool)
+            holder = (H) recycledPool.get(layoutId);
+        InflatePool<H> inflatePool = mInflatePool;
+        if (null == holder && null != inflatePool)
+            holder = inflatePool.obtain(layoutId);
+        return holder;
+    }
+
+    /**
+     * 设置共享的 ViewHolder 池, getView() 需要新的 Item 时优先从池中取出
+     * 与 recycleViews() 配合, 使多个显示相同布局的 ListView 复用彼此的 Item
+     */
+    public void setRecycledHolderPool(@Nullable RecycledHolderPool pool) {
+        mRecycledPool = pool;
+    }
+
+    /**
+     * 获取共享的 ViewHolder 池, 没有设置时返回 null
+     */
+    @Nullable
+    public RecycledHolderPool getRecycledHolderPool() {
+        return mRecycledPool;
+    }
+
+    /**
+     * 将 attachTo() 关联的 ListView 中所有的 Item(包括显示中的和 ListView 缓存的)回收到共享池中,
+     * 在 ListView 不再显示时调用, 例如切换 Tab 或者 Fragment 的 onDestroyView().
+     * 回收会触发 ListView 的 RecyclerListener, 之后 ListView 会重新创建 Item.
+     * 不在 RecyclerListener 中回收, 因为那时 Item 仍然在 ListView 自己的缓存中, 会被重复使用
+     */
+    public void recycleViews() {
+        AbsListView listView = mListView;
+        RecycledHolderPool pool = mRecycledPool;
+        if (null == listView || null == pool)
+            return;
+        List<View> views = new ArrayList<>();
+        listView.reclaimViews(views);
+        for (View view : views) {
+            HolderState state = HolderState.of(view);
+            if (null == state)
+                continue;
+            state.mScrapped = false;
+            if (null != state.mAdapter)
+                state.mAdapter.recycleHolder(state);
+            pool.put(state.mLayoutId, state.mHolder);
+        }
+    }
+
     /**
      * 获取一个 ViewHolder 对象
      * 如果 convertView 为 null 表示是要新生成一个 Item
@@ -152,7 +972,40 @@ public abstract class CommonAdapter<T, H extends ViewHolder> extends BaseAdapter
                                    @LayoutRes int layoutId);
 
     /**
-     * 设置视图数据的抽象方法
+     * 在后台线程中为每种布局预先 inflate capacity 个 Item
+     * getView() 需要新的 Item 时优先使用预先 inflate 的, 用完后再同步 inflate
+     *
+     * @param parent   Item 将要被添加到的 ListView, inflate 时用于生成 LayoutParams
+     * @param capacity 每种布局预先 inflate 的数量
+     */
+    public void preInflate(@NonNull ViewGroup parent, int capacity) {
+        for (int i = 0, count = mDelegates.getViewTypeCount(); i < count; i++)
+            preInflate(parent, mDelegates.getLayoutId(i), capacity);
+    }
+
+    /**
+     * 在后台线程中为指定布局预先 inflate capacity 个 Item
+     * 后台线程会调用 getHolder(), 因此 getHolder() 中不能有只能在主线程执行的操作
+     */
+    public void preInflate(@NonNull ViewGroup parent, @LayoutRes int layoutId, int capacity) {
+        synchronized (this) {
+            if (null == mInflatePool)
+                mInflatePool = new InflatePool<>(this, mInflater);
+        }
+        mInflatePool.request(parent, layoutId, capacity);
+    }
+
+    /**
+     * 丢弃所有预先 inflate 但还没有使用的 Item
+     */
+    public void clearPreInflated() {
+        InflatePool<H> inflatePool = mInflatePool;
+        if (null != inflatePool)
+            inflatePool.clear();
+    }
+
+    /**
+     * 设置视图数据的抽象方法, 通过 register() 注册了 ItemBinder 的 Item 不会调用此方法
      * 如果使用了分类型 ListView, 需要重写 getItemViewType(position) 返回对应的 Type 值,
      * 此 Type 值作为数组 mLayoutIds 的下标, 从而加载对应的布局.
      *
@@ -162,35 +1015,42 @@ public abstract class CommonAdapter<T, H extends ViewHolder> extends BaseAdapter
     protected abstract void convert(H holder, int position);
 
     /**
-     * 向列表的尾部添加一个 Item
+     * 向列表的尾部添加一个 Item, 排序模式下插入到排序后的位置
      */
     public synchronized void add(T object) {
-        mData.add(object);
-        notifyDataSetChanged();
+        if (null == mSortComparator)
+            editData().add(object);
+        else
+            SortedLists.insert(editData(), object, mSortComparator);
+        commitEdit();
     }
 
     /**
-     * 添加指定 Collection 中的所有元素到此列表的结尾
+     * 添加指定 Collection 中的所有元素到此列表的结尾, 排序模式下归并到排序后的位置
      */
     public synchronized void addAll(Collection<? extends T> collection) {
-        mData.addAll(collection);
-        notifyDataSetChanged();
+        if (null == mSortComparator)
+            editData().addAll(collection);
+        else
+            SortedLists.merge(editData(), collection, mSortComparator);
+        commitEdit();
     }
 
     /**
      * 在列表的指定位置插入指定 Item
      */
     public synchronized void insert(int index, T object) {
-        mData.add(index, object);
-        notifyDataSetChanged();
+        checkUnsorted();
+        editData().add(index, object);
+        commitEdit();
     }
 
     /**
      * 移除列表中指定位置的 Item
      */
     public synchronized T remove(int index) {
-        T o = mData.remove(index);
-        notifyDataSetChanged();
+        T o = editData().remove(index);
+        commitEdit();
         return o;
     }
 
@@ -198,8 +1058,8 @@ public abstract class CommonAdapter<T, H extends ViewHolder> extends BaseAdapter
      * 从此列表中移除第一次出现的指定 Item
      */
     public synchronized boolean remove(T object) {
-        boolean b = mData.remove(object);
-        notifyDataSetChanged();
+        boolean b = editData().remove(object);
+        commitEdit();
         return b;
     }
 
@@ -207,8 +1067,8 @@ public abstract class CommonAdapter<T, H extends ViewHolder> extends BaseAdapter
      * 从列表中移除所有 Item
      */
     public synchronized void clear() {
-        mData.clear();
-        notifyDataSetChanged();
+        editData().clear();
+        commitEdit();
     }
 
     /**
@@ -217,18 +1077,255 @@ public abstract class CommonAdapter<T, H extends ViewHolder> extends BaseAdapter
      * @param comparator 确定列表顺序的比较器, null 值指示应该使用 Item 的自然顺序
      */
     public synchronized void sort(Comparator<? super T> comparator) {
-        Collections.sort(mData, comparator);
-        notifyDataSetChanged();
+        checkUnsorted();
+        Collections.sort(editData(), comparator);
+        commitEdit();
     }
 
     /**
      * 反转列表中 Item 的顺序
      */
     public synchronized void reverse() {
-        Collections.reverse(mData);
+        checkUnsorted();
+        Collections.reverse(editData());
+        commitEdit();
+    }
+
+    /**
+     * 开始一次批量修改, 直到对应的 endBatch() 之前, 数据修改产生的通知都会被暂存
+     * 可以嵌套调用, 最外层的 endBatch() 时统一通知 ListView 刷新一次
+     */
+    public synchronized void beginBatch() {
+        mBatchDepth++;
+    }
+
+    /**
+     * 结束一次批量修改, 如果期间有数据修改, 最外层调用时通知 ListView 刷新一次
+     */
+    public void endBatch() {
+        synchronized (this) {
+            if (0 == mBatchDepth)
+                throw new IllegalStateException("endBatch() called without beginBatch().");
+            if (0 != --mBatchDepth)
+                return;
+            if (null != mPendingData)
+                schedulePublish();
+            if (!mNotifyPending)
+                return;
+            mNotifyPending = false;
+        }
         notifyDataSetChanged();
     }
 
+    /**
+     * 在一次批量修改中执行 action, action 中的所有修改只会通知 ListView 刷新一次
+     */
+    public void batch(@NonNull Runnable action) {
+        beginBatch();
+        try {
+            action.run();
+        } finally {
+            endBatch();
+        }
+    }
+
+    /**
+     * 设置是否将通知合并到下一帧
+     * 开启后一帧内的多次 notifyDataSetChanged() 最多只会通知 ListView 一次,
+     * 在数据修改到下一帧之间 ListView 仍使用修改前的 getCount(), 建议只在主线程修改数据时开启
+     */
+    public synchronized void setNotifyOnFrame(boolean notifyOnFrame) {
+        if (notifyOnFrame == (null != mFrameNotifier))
+            return;
+        mFrameNotifier = notifyOnFrame ? new FrameNotifier(this) : null;
+    }
+
+    /**
+     * 通知 ListView 数据已改变
+     * 处于批量修改中时只做标记, 开启了 setNotifyOnFrame() 时合并到下一帧通知,
+     * 并发模式下在非主线程调用时发送到主线程通知
+     */
+    @Override
+    public void notifyDataSetChanged() {
+        FrameNotifier frameNotifier;
+        boolean post;
+        synchronized (this) {
+            mDataVersion++;
+            if (0 < mBatchDepth) {
+                mNotifyPending = true;
+                return;
+            }
+            frameNotifier = mFrameNotifier;
+            post = mConcurrent && !AdapterExecutors.isMainThread();
+        }
+        if (null != frameNotifier)
+            frameNotifier.schedule();
+        else if (post)
+            AdapterExecutors.postToMainThread(mNotifyRunnable);
+        else
+            dispatchDataSetChanged();
+    }
+
+    /**
+     * 立即通知 ListView 数据已改变, 供 FrameNotifier 在帧回调中调用
+     */
+    void dispatchDataSetChanged() {
+        MetricsListener metrics = mMetrics;
+        if (null != metrics)
+            metrics.onNotifyDataSetChanged();
+        super.notifyDataSetChanged();
+    }
+
+    /**
+     * 获取过滤 Item 的 Filter, 第一次需要在主线程调用
+     * 过滤在 Filter 的后台线程中执行, 结果在主线程中一次性替换显示的数据并通知 ListView.
+     * 过滤状态下 getData() 返回过滤后的数据, add() 等修改作用在原始数据上并自动重新过滤
+     */
+    @Override
+    public Filter getFilter() {
+        if (null == mFilter)
+            mFilter = new ItemFilter();
+        return mFilter;
+    }
+
+    /**
+     * 根据 constraint 过滤 Item, constraint 为空时恢复显示原始数据
+     * 和直接调用 getFilter().filter() 相比, 新的调用会中断正在执行的过滤, 适合输入时的实时搜索
+     */
+    public void filter(@Nullable CharSequence constraint) {
+        mFilterRequests.incrementAndGet();
+        getFilter().filter(constraint);
+    }
+
+    /**
+     * 判断 Item 是否符合过滤条件, 在 Filter 的后台线程中调用
+     * 默认 Item 的 toString() 以 constraint 开头, 或者其中某个单词以 constraint 开头时符合.
+     * 增量过滤时只在上一次的结果中过滤, 因此重写时需要保证符合较长 constraint 的 Item 一定符合
+     * 它的前缀, 否则需要调用 setIncrementalFilter(false)
+     *
+     * @param constraint 转换为小写的过滤条件, 不为空
+     */
+    protected boolean onFilterItem(T item, @NonNull String constraint) {
+        String text = String.valueOf(item).toLowerCase();
+        return text.startsWith(constraint) || text.contains(" " + constraint);
+    }
+
+    /**
+     * 设置是否开启增量过滤, 默认开启
+     * 开启后 constraint 以上一次的 constraint 开头并且原始数据没有改变时, 只在上一次的结果中过滤
+     */
+    public synchronized void setIncrementalFilter(boolean incremental) {
+        mIncrementalFilter = incremental;
+        mFilterResults = null;
+    }
+
+    /**
+     * 判断当前是否处于过滤状态
+     */
+    public synchronized boolean isFiltered() {
+        return null != mOriginalData;
+    }
+
+    /**
+     * 获取过滤前的原始数据, 不处于过滤状态时和 getData() 相同
+     */
+    public synchronized List<T> getOriginalData() {
+        return null == mOriginalData ? mData : mOriginalData;
+    }
+
+    /**
+     * 清除过滤状态并中断正在执行的过滤, 需要持有 Adapter 的锁
+     */
+    private void clearFilterState() {
+        mOriginalData = null;
+        mFilterQuery = null;
+        mFilterResults = null;
+        mFilterRequests.incrementAndGet();
+    }
+
+    /**
+     * 在 Filter 的后台线程中过滤 Item, 结果中携带请求序号和原始数据的版本
+     * 包内可见, 单元测试直接调用 performFiltering() 和 publishResults()
+     */
+    class ItemFilter extends Filter {
+
+        @Override
+        protected ItemFilterResults performFiltering(CharSequence constraint) {
+            ItemFilterResults results = new ItemFilterResults();
+            results.mRequest = mFilterRequests.get();
+            String query = null == constraint ? "" : constraint.toString().toLowerCase();
+            List<T> source;
+            synchronized (CommonAdapter.this) {
+                if (null == mOriginalData) {
+                    if (null != mPendingData)
+                        mOriginalData = mPendingData;
+                    else
+                        mOriginalData = mConcurrent ? new ArrayList<>(mData) : mData;
+                    mPendingData = null;
+                }
+                results.mVersion = mOriginalVersion;
+                if (0 == query.length()) {
+                    results.values = mOriginalData;
+                    return results;
+                }
+                if (mIncrementalFilter && null != mFilterResults
+                        && mFilterResultsVersion == mOriginalVersion && query.startsWith(mFilterQuery))
+                    source = mFilterResults;
+                else
+                    source = new ArrayList<>(mOriginalData);
+            }
+            List<T> matched = new ArrayList<>();
+            for (int i = 0, size = source.size(); i < size; i++) {
+                if (0 == (i & 0x3FF) && results.mRequest != mFilterRequests.get())
+                    return results;
+                T item = source.get(i);
+                if (onFilterItem(item, query))
+                    matched.add(item);
+            }
+            synchronized (CommonAdapter.this) {
+                if (results.mRequest != mFilterRequests.get())
+                    return results;
+                mFilterQuery = query;
+                mFilterResults = matched;
+                mFilterResultsVersion = results.mVersion;
+            }
+            results.values = matched;
+            results.count = matched.size();
+            return results;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected void publishResults(CharSequence constraint, FilterResults results) {
+            ItemFilterResults filterResults = (ItemFilterResults) results;
+            boolean refilter;
+            synchronized (CommonAdapter.this) {
+                if (null == results.values || filterResults.mRequest != mFilterRequests.get()
+                        || null == mOriginalData)
+                    return;
+                if (results.values == mOriginalData) {
+                    mData = mOriginalData;
+                    clearFilterState();
+                    refilter = false;
+                } else {
+                    mData = (List<T>) results.values;
+                    refilter = filterResults.mVersion != mOriginalVersion;
+                }
+            }
+            notifyDataSetChanged();
+            if (refilter)
+                filter(constraint);
+        }
+
+        /**
+         * 过滤结果, 被新的请求中断时 values 为 null
+         */
+        class ItemFilterResults extends FilterResults {
+            int mRequest;
+            int mVersion;
+        }
+    }
+
     /**
      * 带回调的启动
      */
@@ -244,4 +1341,31 @@ public abstract class CommonAdapter<T, H extends ViewHolder> extends BaseAdapter
     public void onActivityResult(int requestCode, int resultCode, Intent data) {
     }
 
+    /**
+     * Item 中子视图的点击监听, 通过 {@link #setOnItemChildClickListener} 设置
+     */
+    public interface OnItemChildClickListener<T, H extends ViewHolder> {
+
+        /**
+         * @param holder   被点击的 Item 的 ViewHolder 对象
+         * @param viewId   被点击的子视图ID
+         * @param position Item 当前的位置
+         * @param item     当前位置的 Item
+         */
+        void onItemChildClick(H holder, int viewId, int position, T item);
+
+    }
+
+    /**
+     * Item 中子视图的长按监听, 通过 {@link #setOnItemChildLongClickListener} 设置
+     */
+    public interface OnItemChildLongClickListener<T, H extends ViewHolder> {
+
+        /**
+         * 参数与 OnItemChildClickListener 相同, 返回 true 表示已经处理
+         */
+        boolean onItemChildLongClick(H holder, int viewId, int position, T item);
+
+    }
+
 }
@@ -0,0 +1,265 @@
+package commonadapter.library;
+
+import android.database.DataSetObserver;
+import android.support.annotation.NonNull;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.BaseAdapter;
+
+import java.util.Arrays;
+
+/**
+ * ConcatAdapter
+ * 将多个 CommonAdapter 依次连接显示在一个 ListView 中, 不复制它们的数据.
+ * 每个子 Adapter 的 ViewType 被映射到不同的区间, 全局位置通过在各个子 Adapter 的起始位置中二分查找定位.
+ * 子 Adapter 通知数据改变时只更新它之后的起始位置, 然后通知 ListView.
+ * 各个子 Adapter 的 Item 数量在它们通知之后才重新读取, 只在主线程中使用.
+ * 只有 ConcatAdapter 被 ListView 观察时才观察子 Adapter, 因此设置给 ListView 之前子 Adapter 仍然可以 register()
+ */
+@SuppressWarnings("unused")
+public class ConcatAdapter extends BaseAdapter {
+
+    private final CommonAdapter<?, ?>[] mAdapters;
+    private final int[] mTypeOffsets;
+    private int mViewTypeCount;
+    private final ChildObserver[] mChildObservers;
+    private int mObserverCount;
+    private final int[] mStarts;
+    private final int[] mCounts;
+    private final boolean[] mDirty;
+    private int mCount;
+    private int mDirtyFrom;
+
+    private int mLastChild;
+
+    /**
+     * @param adapters 依次显示的子 Adapter, 需要在设置给 ListView 之前完成 register() 等设置
+     */
+    public ConcatAdapter(@NonNull CommonAdapter<?, ?>... adapters) {
+        if (0 == adapters.length)
+            throw new IllegalArgumentException("Providing at least one adapter.");
+        mAdapters = adapters.clone();
+        mTypeOffsets = new int[adapters.length];
+        mStarts = new int[adapters.length];
+        mCounts = new int[adapters.length];
+        mDirty = new boolean[adapters.length];
+        mChildObservers = new ChildObserver[adapters.length];
+        for (int i = 0; i < adapters.length; i++)
+            mChildObservers[i] = new ChildObserver(i);
+        markAllDirty();
+        updateViewTypes();
+    }
+
+    /**
+     * 第一个观察者注册时开始观察子 Adapter, 之前子 Adapter 的改变没有被观察到, 重新读取所有数量.
+     * ListView 在读取 getViewTypeCount() 之前注册观察者, 此时重新计算 ViewType 的区间
+     */
+    @Override
+    public void registerDataSetObserver(DataSetObserver observer) {
+        super.registerDataSetObserver(observer);
+        if (0 != mObserverCount++)
+            return;
+        updateViewTypes();
+        markAllDirty();
+        for (int i = 0; i < mAdapters.length; i++)
+            mAdapters[i].registerDataSetObserver(mChildObservers[i]);
+    }
+
+    /**
+     * 最后一个观察者注销时停止观察子 Adapter, 使 ConcatAdapter 可以随 ListView 一起被回收
+     */
+    @Override
+    public void unregisterDataSetObserver(DataSetObserver observer) {
+        super.unregisterDataSetObserver(observer);
+        if (0 == mObserverCount || 0 != --mObserverCount)
+            return;
+        for (int i = 0; i < mAdapters.length; i++)
+            mAdapters[i].unregisterDataSetObserver(mChildObservers[i]);
+    }
+
+    /**
+     * 按顺序为每个子 Adapter 分配 ViewType 的区间
+     */
+    private void updateViewTypes() {
+        int viewTypeCount = 0;
+        for (int i = 0; i < mAdapters.length; i++) {
+            mTypeOffsets[i] = viewTypeCount;
+            viewTypeCount += mAdapters[i].getViewTypeCount();
+        }
+        mViewTypeCount = viewTypeCount;
+    }
+
+    /**
+     * 获取子 Adapter 的数量
+     */
+    public int getAdapterCount() {
+        return mAdapters.length;
+    }
+
+    /**
+     * 获取指定的子 Adapter
+     */
+    public CommonAdapter<?, ?> getAdapter(int index) {
+        return mAdapters[index];
+    }
+
+    /**
+     * 获取指定子 Adapter 的第一个 Item 在 ListView 中的位置
+     */
+    public int getAdapterStart(int index) {
+        updateStarts();
+        return mStarts[index];
+    }
+
+    /**
+     * 获取指定位置所属的子 Adapter 的下标, O(log n)
+     */
+    public int getAdapterIndex(int position) {
+        updateStarts();
+        if (0 > position || position >= mCount)
+            throw new IndexOutOfBoundsException("Position: " + position + ", Count: " + mCount);
+        int last = mLastChild;
+        if (position >= mStarts[last] && (last + 1 == mStarts.length || position < mStarts[last + 1]))
+            return last;
+        int index = Arrays.binarySearch(mStarts, position);
+        if (0 > index)
+            index = -index - 2;
+        else
+            while (index + 1 < mStarts.length && mStarts[index + 1] == position)
+                index++;
+        return mLastChild = index;
+    }
+
+    /**
+     * 获取指定位置在所属的子 Adapter 中的位置
+     */
+    public int getLocalPosition(int position) {
+        return position - mStarts[getAdapterIndex(position)];
+    }
+
+    /**
+     * 重新读取通知过的子 Adapter 的 Item 数量, 并从第一个通知过的子 Adapter 开始重新计算起始位置
+     */
+    private void updateStarts() {
+        int from = mDirtyFrom;
+        if (from >= mAdapters.length)
+            return;
+        int start = 0 == from ? 0 : mStarts[from - 1] + mCounts[from - 1];
+        for (int i = from; i < mAdapters.length; i++) {
+            if (mDirty[i]) {
+                mCounts[i] = mAdapters[i].getCount();
+                mDirty[i] = false;
+            }
+            mStarts[i] = start;
+            start += mCounts[i];
+        }
+        mCount = start;
+        mDirtyFrom = mAdapters.length;
+    }
+
+    private void markAllDirty() {
+        Arrays.fill(mDirty, true);
+        mDirtyFrom = 0;
+    }
+
+    /**
+     * 标记子 Adapter 的 Item 数量需要重新读取
+     */
+    private void markDirty(int index) {
+        mDirty[index] = true;
+        if (index < mDirtyFrom)
+            mDirtyFrom = index;
+    }
+
+    @Override
+    public int getCount() {
+        updateStarts();
+        return mCount;
+    }
+
+    @Override
+    public Object getItem(int position) {
+        int index = getAdapterIndex(position);
+        return mAdapters[index].getItem(position - mStarts[index]);
+    }
+
+    /**
+     * 子 Adapter 之间的 ID 可能重复, 只有所有子 Adapter 的 ID 都稳定并且互不重复时才可以使用
+     */
+    @Override
+    public long getItemId(int position) {
+        int index = getAdapterIndex(position);
+        return mAdapters[index].getItemId(position - mStarts[index]);
+    }
+
+    /**
+     * 所有子 Adapter 的 ID 都稳定时返回 true, 此时它们的 ID 需要互不重复
+     */
+    @Override
+    public boolean hasStableIds() {
+        for (CommonAdapter<?, ?> adapter : mAdapters)
+            if (!adapter.hasStableIds())
+                return false;
+        return true;
+    }
+
+    @Override
+    public View getView(int position, View convertView, ViewGroup parent) {
+        int index = getAdapterIndex(position);
+        return mAdapters[index].getView(position - mStarts[index], convertView, parent);
+    }
+
+    @Override
+    public int getViewTypeCount() {
+        return Math.max(1, mViewTypeCount);
+    }
+
+    /**
+     * 将子 Adapter 的 ViewType 映射到它的区间
+     */
+    @Override
+    public int getItemViewType(int position) {
+        int index = getAdapterIndex(position);
+        int viewType = mAdapters[index].getItemViewType(position - mStarts[index]);
+        return IGNORE_ITEM_VIEW_TYPE == viewType ? viewType : mTypeOffsets[index] + viewType;
+    }
+
+    @Override
+    public boolean areAllItemsEnabled() {
+        for (CommonAdapter<?, ?> adapter : mAdapters)
+            if (!adapter.areAllItemsEnabled())
+                return false;
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled(int position) {
+        int index = getAdapterIndex(position);
+        return mAdapters[index].isEnabled(position - mStarts[index]);
+    }
+
+    /**
+     * 子 Adapter 数据改变时标记起始位置需要重新计算, 并通知 ListView
+     */
+    private final class ChildObserver extends DataSetObserver {
+
+        private final int mIndex;
+
+        ChildObserver(int index) {
+            mIndex = index;
+        }
+
+        @Override
+        public void onChanged() {
+            markDirty(mIndex);
+            notifyDataSetChanged();
+        }
+
+        @Override
+        public void onInvalidated() {
+            markDirty(mIndex);
+            notifyDataSetInvalidated();
+        }
+    }
+
+}
@@ -0,0 +1,96 @@
+package commonadapter.library;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.List;
+
+/**
+ * DataSnapshot
+ * 将 Adapter 的数据保存到本地文件, 在进程重建后快速恢复. 恢复时只映射文件并校验文件头,
+ * 返回的 SnapshotList 在 get() 时才解码对应的 Item, 不需要在启动时解析全部数据.
+ * 文件格式: 文件头(魔数, 格式版本, 编码版本, Item 数量), 依次编码的 Item, 每个 Item 起始位置的索引
+ */
+public final class DataSnapshot {
+
+    static final int MAGIC = 0x43414453;
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_SIZE = 16;
+
+    private DataSnapshot() {
+    }
+
+    /**
+     * 将 data 保存到 file, 耗时操作, 应在后台线程调用. 先写入临时文件再替换, 写入失败时不影响原来的快照
+     * 写入期间 data 不能被修改, 可以传入 Adapter 数据的副本
+     */
+    public static <T> void save(List<? extends T> data, File file, ItemCodec<? super T> codec)
+            throws IOException {
+        int count = data.size();
+        int[] offsets = new int[count + 1];
+        File temp = new File(file.getPath() + ".tmp");
+        FileOutputStream stream = new FileOutputStream(temp);
+        try {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream, 64 * 1024));
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(codec.version());
+            out.writeInt(count);
+            for (int i = 0; i < count; i++) {
+                offsets[i] = out.size();
+                codec.encode(data.get(i), out);
+                if (Integer.MAX_VALUE == out.size())
+                    throw new IOException("Snapshot exceeds 2GB.");
+            }
+            offsets[count] = out.size();
+            for (int offset : offsets)
+                out.writeInt(offset);
+            out.flush();
+            stream.getFD().sync();
+        } catch (IOException | RuntimeException e) {
+            stream.close();
+            temp.delete();
+            throw e;
+        }
+        stream.close();
+        if (!temp.renameTo(file)) {
+            temp.delete();
+            throw new IOException("Cannot rename " + temp + " to " + file);
+        }
+    }
+
+    /**
+     * 映射 file 并校验文件头, 返回按需解码的列表, 文件不存在, 已损坏或编码版本不同时抛出 IOException
+     * 返回的列表第一次被修改时会解码全部 Item, 之后不再使用文件
+     */
+    public static <T> SnapshotList<T> restore(File file, ItemCodec<T> codec) throws IOException {
+        FileInputStream stream = new FileInputStream(file);
+        MappedByteBuffer buffer;
+        try {
+            FileChannel channel = stream.getChannel();
+            long length = channel.size();
+            if (length < HEADER_SIZE + 4 || length > Integer.MAX_VALUE)
+                throw new IOException("Invalid snapshot size: " + length);
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+        } finally {
+            stream.close();
+        }
+        if (MAGIC != buffer.getInt(0) || FORMAT_VERSION != buffer.getInt(4))
+            throw new IOException("Not a snapshot file: " + file);
+        int version = buffer.getInt(8);
+        if (version != codec.version())
+            throw new IOException("Snapshot was written by codec version " + version
+                    + ", expected " + codec.version() + '.');
+        int count = buffer.getInt(12);
+        long indexOffset = buffer.capacity() - 4L * (count + 1);
+        if (0 > count || indexOffset < HEADER_SIZE || buffer.getInt((int) indexOffset + 4 * count) != indexOffset)
+            throw new IOException("Corrupted snapshot: " + file);
+        return new SnapshotList<>(buffer, count, (int) indexOffset, codec);
+    }
+
+}
@@ -1,6 +1,7 @@
 package commonadapter.library;
 
 import android.content.Context;
+import android.support.annotation.IdRes;
 import android.support.annotation.LayoutRes;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
@@ -15,6 +16,11 @@ import java.util.List;
  * Created by Jian Chang on 2016-05-23.
  */
 public abstract class DefaultAdapter<T> extends CommonAdapter<T, DefaultViewHolder> {
+
+    private int[] mPrefetchIds = {};
+    private boolean mSkipRedundantWrites;
+    private TextPrecomputer mTextPrecomputer;
+
     public DefaultAdapter(@NonNull Context context,
                           @NonNull List<T> data,
                           @LayoutRes int... layoutIds) {
@@ -26,6 +32,33 @@ public abstract class DefaultAdapter<T> extends CommonAdapter<T, DefaultViewHold
                                           @Nullable View convertView,
                                           @NonNull ViewGroup parent,
                                           @LayoutRes int layoutId) {
-        return DefaultViewHolder.getHolder(inflater, convertView, parent, layoutId);
+        return DefaultViewHolder.getHolder(inflater, convertView, parent, layoutId, mPrefetchIds)
+                .setSkipRedundantWrites(mSkipRedundantWrites)
+                .setTextPrecomputer(mTextPrecomputer);
+    }
+
+    /**
+     * 设置新生成 Item 时需要预先查找并缓存的 viewId, 在 convert() 中获取这些 View 时可以直接命中缓存
+     */
+    public void setPrefetchViewIds(@NonNull @IdRes int... viewIds) {
+        mPrefetchIds = viewIds;
+    }
+
+    /**
+     * 设置此 Adapter 的 DefaultViewHolder 是否跳过重复的写入
+     *
+     * @see DefaultViewHolder#setSkipRedundantWrites(boolean)
+     */
+    public void setSkipRedundantWrites(boolean skip) {
+        mSkipRedundantWrites = skip;
+    }
+
+    /**
+     * 设置此 Adapter 的 DefaultViewHolder 使用的 TextPrecomputer, 为 null 时关闭, 只对布局中的 PrecomputedTextView 有效
+     * 配合 setItemPrefetcher() 使用, 在 ItemPrefetcher.prefetch() 中为即将显示的 Item 调用
+     * {@link TextPrecomputer#precompute(int, CharSequence)}
+     */
+    public void setTextPrecomputer(@Nullable TextPrecomputer precomputer) {
+        mTextPrecomputer = precomputer;
     }
 }
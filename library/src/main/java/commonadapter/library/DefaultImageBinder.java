@@ -0,0 +1,444 @@
+package commonadapter.library;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.net.Uri;
+import android.support.annotation.DrawableRes;
+import android.support.annotation.NonNull;
+import android.support.annotation.WorkerThread;
+import android.view.ViewGroup;
+import android.view.ViewTreeObserver;
+import android.widget.ImageView;
+
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * DefaultImageBinder
+ * 库自带的图片绑定器, 支持本地文件路径, file://, content:// 和 android.resource:// 地址, 不支持网络地址.
+ * 在后台线程池中按 ImageView 的大小缩小解码, 结果保存在按字节数限制大小的 LRU 内存缓存中.
+ * ImageView 还没有布局并且没有固定大小时, 等到第一次绘制前按测量的大小加载,
+ * 不再被缓存和 ImageView 使用的 Bitmap 会作为 inBitmap 重用, 减少分配和 GC.
+ * 除解码以外的操作都在主线程中进行, 同一个对象可以给多个 Adapter 使用
+ */
+@SuppressWarnings("unused")
+public class DefaultImageBinder implements DefaultViewHolder.RecyclableImageBinder {
+
+    private final Context mContext;
+    private final BitmapCache mCache;
+    private final BitmapPool mPool;
+    private final RefCounter<Bitmap> mRefCounts = new RefCounter<>();
+    private volatile Bitmap.Config mConfig = Bitmap.Config.ARGB_8888;
+    private int mPlaceholderId;
+    private int mDecodeCount;
+    private int mFailureCount;
+
+    /**
+     * 使用最大可用内存的 1/8 作为内存缓存
+     */
+    public DefaultImageBinder(@NonNull Context context) {
+        this(context, (int) Math.min(Integer.MAX_VALUE, Runtime.getRuntime().maxMemory() / 8));
+    }
+
+    /**
+     * @param maxBytes 内存缓存的最大字节数, 另外最多使用其 1/4 保存可以重用的 Bitmap
+     */
+    public DefaultImageBinder(@NonNull Context context, int maxBytes) {
+        mContext = context.getApplicationContext();
+        mCache = new BitmapCache(maxBytes);
+        mPool = new BitmapPool(maxBytes / 4);
+    }
+
+    /**
+     * 设置加载中和加载失败时显示的图片, 为 0 时不显示图片
+     */
+    public void setPlaceholder(@DrawableRes int resId) {
+        mPlaceholderId = resId;
+    }
+
+    /**
+     * 设置解码使用的 Bitmap.Config, 默认为 ARGB_8888, 不需要透明度时可以使用 RGB_565 节省一半内存
+     */
+    public void setBitmapConfig(@NonNull Bitmap.Config config) {
+        mConfig = config;
+    }
+
+    @Override
+    public void bind(@NonNull ImageView imageView, @NonNull String url) {
+        load(imageView, requestOf(imageView), url, false);
+    }
+
+    /**
+     * 按 ImageView 的大小加载图片, 大小未知时等到第一次绘制前再加载一次, 仍然未知时使用屏幕大小
+     *
+     * @param laidOut 是否已经等待过布局
+     */
+    private void load(ImageView imageView, Request request, String url, boolean laidOut) {
+        int width = targetSize(imageView, true);
+        int height = targetSize(imageView, false);
+        if (!laidOut && (0 >= width || 0 >= height)) {
+            if (null == request.mWaiter || !url.equals(request.mWaiter.mUrl)) {
+                release(imageView, request);
+                request.mKey = null;
+                showPlaceholder(imageView);
+                request.mWaiter = new LayoutWaiter(imageView, request, url);
+                imageView.getViewTreeObserver().addOnPreDrawListener(request.mWaiter);
+            }
+            return;
+        }
+        if (0 >= width)
+            width = mContext.getResources().getDisplayMetrics().widthPixels;
+        if (0 >= height)
+            height = mContext.getResources().getDisplayMetrics().heightPixels;
+        String key = url + '#' + width + 'x' + height;
+        if (key.equals(request.mKey) && (null != request.mTask || null != request.mBitmap))
+            return;
+        release(imageView, request);
+        request.mKey = key;
+        Bitmap bitmap = mCache.get(key);
+        if (null != bitmap) {
+            show(imageView, request, bitmap);
+            return;
+        }
+        showPlaceholder(imageView);
+        DecodeTask task = new DecodeTask(imageView, request, url, key, width, height);
+        request.mTask = task;
+        AdapterExecutors.decoder().execute(task);
+    }
+
+    @Override
+    public void unbind(@NonNull ImageView imageView) {
+        Request request = (Request) imageView.getTag(R.id.commonadapter_image_request);
+        if (null != request) {
+            release(imageView, request);
+            request.mKey = null;
+        }
+        showPlaceholder(imageView);
+    }
+
+    /**
+     * 获取 ImageView 对应的请求记录, 没有时创建一个
+     */
+    private static Request requestOf(ImageView imageView) {
+        Request request = (Request) imageView.getTag(R.id.commonadapter_image_request);
+        if (null == request) {
+            request = new Request();
+            imageView.setTag(R.id.commonadapter_image_request, request);
+        }
+        return request;
+    }
+
+    /**
+     * 取消 ImageView 正在等待的布局和进行的解码, 并释放它显示的 Bitmap
+     */
+    private void release(ImageView imageView, Request request) {
+        if (null != request.mWaiter) {
+            removeWaiter(imageView, request.mWaiter);
+            request.mWaiter = null;
+        }
+        if (null != request.mTask) {
+            request.mTask.mCancelled = true;
+            AdapterExecutors.decoder().remove(request.mTask);
+            request.mTask = null;
+        }
+        if (null != request.mBitmap) {
+            showPlaceholder(imageView);
+            releaseBitmap(request.mBitmap);
+            request.mBitmap = null;
+        }
+    }
+
+    private void show(ImageView imageView, Request request, Bitmap bitmap) {
+        retainBitmap(bitmap);
+        request.mBitmap = bitmap;
+        imageView.setImageBitmap(bitmap);
+    }
+
+    private void showPlaceholder(ImageView imageView) {
+        if (0 == mPlaceholderId)
+            imageView.setImageDrawable(null);
+        else
+            imageView.setImageResource(mPlaceholderId);
+    }
+
+    private static void removeWaiter(ImageView imageView, LayoutWaiter waiter) {
+        ViewTreeObserver observer = imageView.getViewTreeObserver();
+        if (observer.isAlive())
+            observer.removeOnPreDrawListener(waiter);
+    }
+
+    /**
+     * 增加 Bitmap 的引用计数, 内存缓存和显示它的每个 ImageView 各持有一个引用
+     */
+    private void retainBitmap(Bitmap bitmap) {
+        mRefCounts.retain(bitmap);
+    }
+
+    /**
+     * 减少 Bitmap 的引用计数, 没有引用时放入 BitmapPool 等待重用
+     */
+    private void releaseBitmap(Bitmap bitmap) {
+        if (mRefCounts.release(bitmap))
+            mPool.put(bitmap);
+    }
+
+    /**
+     * 获取目标尺寸: 已经测量过时使用 ImageView 的大小, 否则使用 LayoutParams 中的固定大小, 都没有时返回 0
+     */
+    private static int targetSize(ImageView imageView, boolean width) {
+        int size = width ? imageView.getWidth() : imageView.getHeight();
+        ViewGroup.LayoutParams params = imageView.getLayoutParams();
+        if (0 >= size && null != params)
+            size = width ? params.width : params.height;
+        return Math.max(0, size);
+    }
+
+    /**
+     * 在主线程中处理解码结果: 放入内存缓存, 请求仍然有效时显示
+     */
+    private void onDecoded(DecodeTask task, Bitmap bitmap) {
+        if (null == bitmap) {
+            mFailureCount++;
+            if (task.mRequest.mTask == task)
+                task.mRequest.mTask = null;
+            return;
+        }
+        mDecodeCount++;
+        if (task.mRequest.mTask == task) {
+            task.mRequest.mTask = null;
+            show(task.mImageView, task.mRequest, bitmap);
+        }
+        retainBitmap(bitmap);
+        mCache.put(task.mKey, bitmap);
+    }
+
+    /**
+     * 在后台线程中按目标尺寸解码图片, 失败时返回 null
+     */
+    @WorkerThread
+    private Bitmap decode(String url, int width, int height) {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        try {
+            options.inJustDecodeBounds = true;
+            decodeStream(url, options);
+            if (0 >= options.outWidth || 0 >= options.outHeight)
+                return null;
+            options.inJustDecodeBounds = false;
+            options.inSampleSize = sampleSize(options.outWidth, options.outHeight, width, height);
+            options.inPreferredConfig = mConfig;
+            options.inMutable = true;
+            options.inBitmap = mPool.get(options);
+            try {
+                return decodeStream(url, options);
+            } catch (IllegalArgumentException e) {
+                if (null == options.inBitmap)
+                    throw e;
+                options.inBitmap = null;
+                return decodeStream(url, options);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private Bitmap decodeStream(String url, BitmapFactory.Options options) throws IOException {
+        InputStream in = openStream(url);
+        try {
+            return BitmapFactory.decodeStream(in, null, options);
+        } finally {
+            in.close();
+        }
+    }
+
+    private InputStream openStream(String url) throws IOException {
+        Uri uri = Uri.parse(url);
+        String scheme = uri.getScheme();
+        if (null == scheme)
+            return new FileInputStream(url);
+        if ("file".equals(scheme))
+            return new FileInputStream(uri.getPath());
+        if ("content".equals(scheme) || "android.resource".equals(scheme)) {
+            InputStream in = mContext.getContentResolver().openInputStream(uri);
+            if (null != in)
+                return in;
+        }
+        throw new FileNotFoundException("Unsupported image url: " + url);
+    }
+
+    /**
+     * 计算缩小的倍数, 取 2 的幂, 缩小后的宽高都不小于目标尺寸
+     */
+    private static int sampleSize(int width, int height, int targetWidth, int targetHeight) {
+        int sampleSize = 1;
+        while (width / (sampleSize * 2) >= targetWidth && height / (sampleSize * 2) >= targetHeight)
+            sampleSize *= 2;
+        return sampleSize;
+    }
+
+    /**
+     * 获取内存缓存命中的次数
+     */
+    public int getHitCount() {
+        return mCache.hitCount();
+    }
+
+    /**
+     * 获取内存缓存没有命中的次数
+     */
+    public int getMissCount() {
+        return mCache.missCount();
+    }
+
+    /**
+     * 获取因为超出大小从内存缓存中移除的次数
+     */
+    public int getEvictionCount() {
+        return mCache.evictionCount();
+    }
+
+    /**
+     * 获取解码时重用 Bitmap 的次数
+     */
+    public int getReuseCount() {
+        return mPool.getReuseCount();
+    }
+
+    /**
+     * 获取解码成功的次数
+     */
+    public int getDecodeCount() {
+        return mDecodeCount;
+    }
+
+    /**
+     * 获取解码失败的次数
+     */
+    public int getFailureCount() {
+        return mFailureCount;
+    }
+
+    /**
+     * 获取内存缓存当前占用的字节数
+     */
+    public int getCacheSize() {
+        return mCache.size();
+    }
+
+    /**
+     * 清空内存缓存和可以重用的 Bitmap, 正在显示的图片不受影响
+     */
+    public void clear() {
+        mCache.evictAll();
+        mPool.clear();
+    }
+
+    /**
+     * 根据内存紧张程度释放缓存, 在 Application 或 Activity 的 onTrimMemory() 中调用
+     */
+    public void trimMemory(int level) {
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_BACKGROUND
+                || level == ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL) {
+            clear();
+        } else if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+            mCache.trimToSize(mCache.maxSize() / 2);
+            mPool.clear();
+        }
+    }
+
+    /**
+     * 按字节数计算大小的内存缓存, 移除的 Bitmap 释放缓存持有的引用
+     */
+    private final class BitmapCache extends SizedLruCache<String, Bitmap> {
+
+        BitmapCache(int maxBytes) {
+            super(maxBytes);
+        }
+
+        @Override
+        int sizeOf(String key, Bitmap value) {
+            return BitmapPool.byteCountOf(value);
+        }
+
+        @Override
+        void entryRemoved(boolean evicted, String key, Bitmap oldValue, Bitmap newValue) {
+            releaseBitmap(oldValue);
+        }
+    }
+
+    /**
+     * ImageView 当前的请求, 保存在 ImageView 的 Tag 中
+     */
+    private static final class Request {
+        String mKey;
+        LayoutWaiter mWaiter;
+        DecodeTask mTask;
+        Bitmap mBitmap;
+    }
+
+    /**
+     * 等待 ImageView 布局完成, 在第一次绘制前按测量的大小加载, 之后移除自己
+     */
+    private final class LayoutWaiter implements ViewTreeObserver.OnPreDrawListener {
+
+        final ImageView mImageView;
+        final Request mRequest;
+        final String mUrl;
+
+        LayoutWaiter(ImageView imageView, Request request, String url) {
+            mImageView = imageView;
+            mRequest = request;
+            mUrl = url;
+        }
+
+        @Override
+        public boolean onPreDraw() {
+            removeWaiter(mImageView, this);
+            if (mRequest.mWaiter == this) {
+                mRequest.mWaiter = null;
+                load(mImageView, mRequest, mUrl, true);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * 解码任务, 在解码线程池中执行, 结果发送到主线程
+     */
+    private final class DecodeTask implements Runnable {
+
+        final ImageView mImageView;
+        final Request mRequest;
+        final String mUrl;
+        final String mKey;
+        final int mWidth;
+        final int mHeight;
+        volatile boolean mCancelled;
+
+        DecodeTask(ImageView imageView, Request request, String url, String key, int width, int height) {
+            mImageView = imageView;
+            mRequest = request;
+            mUrl = url;
+            mKey = key;
+            mWidth = width;
+            mHeight = height;
+        }
+
+        @Override
+        public void run() {
+            if (mCancelled)
+                return;
+            final Bitmap bitmap = decode(mUrl, mWidth, mHeight);
+            AdapterExecutors.postToMainThread(new Runnable() {
+                @Override
+                public void run() {
+                    onDecoded(DecodeTask.this, bitmap);
+                }
+            });
+        }
+    }
+
+}
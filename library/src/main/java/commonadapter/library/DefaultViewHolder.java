@@ -1,5 +1,6 @@
 package commonadapter.library;
 
+import android.content.res.ColorStateList;
 import android.graphics.Bitmap;
 import android.graphics.drawable.Drawable;
 import android.support.annotation.ColorInt;
@@ -20,6 +21,9 @@ import android.widget.CheckBox;
 import android.widget.ImageView;
 import android.widget.TextView;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * DefaultViewHolder
  * Created by Jian Zhang on 2016-05-23.
@@ -27,17 +31,31 @@ import android.widget.TextView;
 @SuppressWarnings("unused")
 public class DefaultViewHolder implements ViewHolder {
 
+    private static final int[] NO_IDS = {};
+
     private View mFindView;
+    private ViewCache mViewCache;
+    private ViewCache[] mViewCaches;
     private final View mConvertView;
     private final SparseArray<Object> mTags;
 
+    private boolean mSkipRedundantWrites;
+    private TextPrecomputer mTextPrecomputer;
+    private int mSkippedWrites;
+    private int mAppliedWrites;
+
+    private List<ImageRequest> mImageRequests;
+
     /**
      * 构造器, 只允许通过 getHolder() 方法获取 DefaultViewHolder 对象
      */
-    private DefaultViewHolder(LayoutInflater inflater, ViewGroup parent, int layoutId) {
+    private DefaultViewHolder(LayoutInflater inflater, ViewGroup parent, int layoutId,
+                              int[] prefetchIds) {
         mTags = new SparseArray<>();
         mFindView = mConvertView = inflater.inflate(layoutId, parent, false);
+        mViewCache = new ViewCache(prefetchIds.length);
         mConvertView.setTag(this);
+        prefetch(prefetchIds);
     }
 
     /**
@@ -49,8 +67,19 @@ public class DefaultViewHolder implements ViewHolder {
                                               @Nullable View convertView,
                                               @NonNull ViewGroup parent,
                                               @LayoutRes int layoutId) {
+        return getHolder(inflater, convertView, parent, layoutId, NO_IDS);
+    }
+
+    /**
+     * 获取一个 DefaultViewHolder 对象, 新生成 Item 时预先查找并缓存 prefetchIds 对应的 View
+     */
+    public static DefaultViewHolder getHolder(@NonNull LayoutInflater inflater,
+                                              @Nullable View convertView,
+                                              @NonNull ViewGroup parent,
+                                              @LayoutRes int layoutId,
+                                              @NonNull @IdRes int... prefetchIds) {
         if (null == convertView)
-            return new DefaultViewHolder(inflater, parent, layoutId);
+            return new DefaultViewHolder(inflater, parent, layoutId, prefetchIds);
         return (DefaultViewHolder) convertView.getTag();
     }
 
@@ -72,19 +101,28 @@ public class DefaultViewHolder implements ViewHolder {
 
     /**
      * 根据 viewId 获取一个 View 对象
+     * 查找结果按 findView 分别缓存, 再次获取时不需要 findViewById()
      */
     @NonNull
     public View getView(@IdRes int viewId) {
-        View view;
-        Object viewObj = mFindView.getTag(viewId);
-        if (null == viewObj) {
+        View view = (View) mViewCache.get(viewId);
+        if (null == view) {
             view = mFindView.findViewById(viewId);
-            mFindView.setTag(viewId, view);
-        } else
-            view = (View) viewObj;
+            if (null != view)
+                mViewCache.put(viewId, view);
+        }
         return view;
     }
 
+    /**
+     * 预先在当前 findView 上查找并缓存指定 viewId 的 View, 之后的 getView() 可以直接命中缓存
+     */
+    public DefaultViewHolder prefetch(@IdRes int... viewIds) {
+        for (int viewId : viewIds)
+            getView(viewId);
+        return this;
+    }
+
     /**
      * 设置从 convertView 指定位置的子视图上 getView()
      * getView() 方法将从该子视图上 findViewById()
@@ -97,11 +135,34 @@ public class DefaultViewHolder implements ViewHolder {
                 mFindView = viewGroup.getChildAt(index);
             else
                 throw new IllegalArgumentException("invalid index.");
-        } else
+        } else {
+            index = -1;
             mFindView = mConvertView;
+        }
+        mViewCache = getViewCache(index + 1);
         return this;
     }
 
+    /**
+     * 获取 findView 对应的缓存, 0 表示 convertView, 其他表示 convertView 的第 (slot - 1) 个子视图
+     */
+    private ViewCache getViewCache(int slot) {
+        if (null == mViewCaches) {
+            if (0 == slot)
+                return mViewCache;
+            mViewCaches = new ViewCache[slot + 1];
+            mViewCaches[0] = mViewCache;
+        } else if (slot >= mViewCaches.length) {
+            ViewCache[] caches = new ViewCache[slot + 1];
+            System.arraycopy(mViewCaches, 0, caches, 0, mViewCaches.length);
+            mViewCaches = caches;
+        }
+        ViewCache cache = mViewCaches[slot];
+        if (null == cache)
+            mViewCaches[slot] = cache = new ViewCache();
+        return cache;
+    }
+
     /**
      * 根据 viewId 获取一个 ImageView 对象
      */
@@ -123,11 +184,102 @@ public class DefaultViewHolder implements ViewHolder {
         return (CheckBox) getView(viewId);
     }
 
+    /**
+     * 设置是否跳过重复的写入
+     * 开启后 setText(), setTextColor(), setVisibility(), setImageResource(),
+     * setBackgroundResource(), setChecked() 在值没有改变时不会调用 View 的方法, 避免重新测量和布局.
+     * 文字, 颜色, 可见性和选中状态直接与 View 当前的值比较; 图片和背景资源记录最后一次写入的值,
+     * 如果通过其他方式修改了这些 View 的图片或背景, 需要调用 clearShadowState()
+     */
+    public DefaultViewHolder setSkipRedundantWrites(boolean skip) {
+        if (mSkipRedundantWrites && !skip)
+            clearShadowState();
+        mSkipRedundantWrites = skip;
+        return this;
+    }
+
+    /**
+     * 设置 setText(int, CharSequence) 使用的 TextPrecomputer, 只对 PrecomputedTextView 有效, 为 null 时直接设置文字
+     *
+     * @see TextPrecomputer
+     */
+    public DefaultViewHolder setTextPrecomputer(@Nullable TextPrecomputer precomputer) {
+        mTextPrecomputer = precomputer;
+        return this;
+    }
+
+    /**
+     * 清除记录的图片和背景资源, 下一次写入时一定会调用 View 的方法
+     */
+    public DefaultViewHolder clearShadowState() {
+        mViewCache.clearShadows();
+        if (null != mViewCaches)
+            for (ViewCache cache : mViewCaches)
+                if (null != cache)
+                    cache.clearShadows();
+        return this;
+    }
+
+    /**
+     * 获取开启 setSkipRedundantWrites() 后被跳过的写入次数
+     */
+    public int getSkippedWrites() {
+        return mSkippedWrites;
+    }
+
+    /**
+     * 获取开启 setSkipRedundantWrites() 后实际执行的写入次数
+     */
+    public int getAppliedWrites() {
+        return mAppliedWrites;
+    }
+
+    /**
+     * 重置写入次数的统计
+     */
+    public DefaultViewHolder resetWriteCounters() {
+        mSkippedWrites = mAppliedWrites = 0;
+        return this;
+    }
+
+    /**
+     * 统计一次写入, 返回是否需要跳过
+     */
+    private boolean skipWrite(boolean unchanged) {
+        if (unchanged)
+            mSkippedWrites++;
+        else
+            mAppliedWrites++;
+        return unchanged;
+    }
+
+    /**
+     * 与记录的值比较并统计一次写入, 需要写入时记录新的值
+     */
+    private boolean skipShadowWrite(int viewId, int property, int value) {
+        if (skipWrite(mViewCache.hasShadow(viewId, property, value)))
+            return true;
+        mViewCache.setShadow(viewId, property, value);
+        return false;
+    }
+
+    /**
+     * 判断 TextView 当前的文字是否与 text 相同, 只比较不带样式的 String
+     */
+    private static boolean isSameText(CharSequence current, CharSequence text) {
+        return current == text || (current instanceof String && text instanceof String
+                && current.equals(text));
+    }
+
     /**
      * 为指定 viewId 的 ImageView 对象设置图片
      */
     public DefaultViewHolder setImageBitmap(@IdRes int viewId, Bitmap bm) {
-        getImageView(viewId).setImageBitmap(bm);
+        ImageView view = getImageView(viewId);
+        dropImageRequest(view);
+        if (mSkipRedundantWrites)
+            mViewCache.clearShadow(viewId, ViewCache.SHADOW_IMAGE_RES);
+        view.setImageBitmap(bm);
         return this;
     }
 
@@ -135,7 +287,11 @@ public class DefaultViewHolder implements ViewHolder {
      * 为指定 viewId 的 ImageView 对象设置图片
      */
     public DefaultViewHolder setImageDrawable(@IdRes int viewId, @Nullable Drawable drawable) {
-        getImageView(viewId).setImageDrawable(drawable);
+        ImageView view = getImageView(viewId);
+        dropImageRequest(view);
+        if (mSkipRedundantWrites)
+            mViewCache.clearShadow(viewId, ViewCache.SHADOW_IMAGE_RES);
+        view.setImageDrawable(drawable);
         return this;
     }
 
@@ -143,35 +299,142 @@ public class DefaultViewHolder implements ViewHolder {
      * 为指定 viewId 的 ImageView 对象设置图片
      */
     public DefaultViewHolder setImageResource(@IdRes int viewId, @DrawableRes int resId) {
-        getImageView(viewId).setImageResource(resId);
+        ImageView view = getImageView(viewId);
+        dropImageRequest(view);
+        if (mSkipRedundantWrites && skipShadowWrite(viewId, ViewCache.SHADOW_IMAGE_RES, resId))
+            return this;
+        view.setImageResource(resId);
         return this;
     }
 
     /**
      * 为指定 viewId 的 ImageView 对象设置网络图片
+     * 使用 {@link RecyclableImageBinder} 时, ImageView 已经在加载相同的图片时不会重复请求,
+     * 切换图片或 Item 被回收时取消之前的请求, 快速滑动时请求会暂停到停止滑动后
      *
      * @param url         图片的 URL 地址或者图片绑定器支持的可获取图片的字符串
      * @param imageBinder 实现了 {@link ImageBinder} 接口的图片绑定器对象
      */
     public DefaultViewHolder bindImage(@IdRes int viewId, @NonNull String url,
                                        @NonNull ImageBinder imageBinder) {
-        imageBinder.bind(getImageView(viewId), url);
+        ImageView view = getImageView(viewId);
+        if (mSkipRedundantWrites)
+            mViewCache.clearShadow(viewId, ViewCache.SHADOW_IMAGE_RES);
+        if (imageBinder instanceof RecyclableImageBinder)
+            bindImage(view, url, (RecyclableImageBinder) imageBinder);
+        else
+            imageBinder.bind(view, url);
         return this;
     }
 
+    /**
+     * 发出 ImageView 的图片请求, 相同的请求已经发出或正在等待时跳过
+     */
+    private void bindImage(ImageView view, String url, RecyclableImageBinder binder) {
+        HolderState state = HolderState.of(mConvertView);
+        boolean paused = null != state && null != state.mAdapter && state.mAdapter.isImagesPaused();
+        ImageRequest request = getImageRequest(view);
+        if (binder == request.mBinder && url.equals(request.mUrl)) {
+            if (request.mPending && !paused) {
+                request.mPending = false;
+                binder.bind(view, url);
+            }
+            return;
+        }
+        if (null != request.mBinder && !request.mPending)
+            request.mBinder.unbind(view);
+        request.mUrl = url;
+        request.mBinder = binder;
+        request.mPending = paused;
+        if (!paused)
+            binder.bind(view, url);
+    }
+
+    /**
+     * 获取 ImageView 对应的图片请求记录, 没有时创建一个
+     */
+    private ImageRequest getImageRequest(ImageView view) {
+        if (null == mImageRequests)
+            mImageRequests = new ArrayList<>(2);
+        for (int i = 0, size = mImageRequests.size(); i < size; i++) {
+            ImageRequest request = mImageRequests.get(i);
+            if (request.mView == view)
+                return request;
+        }
+        ImageRequest request = new ImageRequest(view);
+        mImageRequests.add(request);
+        return request;
+    }
+
+    /**
+     * 直接设置图片前取消 ImageView 之前的图片请求
+     */
+    private void dropImageRequest(ImageView view) {
+        if (null == mImageRequests)
+            return;
+        for (int i = 0, size = mImageRequests.size(); i < size; i++) {
+            ImageRequest request = mImageRequests.get(i);
+            if (request.mView == view)
+                request.cancel();
+        }
+    }
+
+    /**
+     * Item 被回收时取消所有的图片请求
+     */
+    void recycleImages() {
+        if (null == mImageRequests)
+            return;
+        for (int i = 0, size = mImageRequests.size(); i < size; i++)
+            mImageRequests.get(i).cancel();
+    }
+
+    /**
+     * 停止快速滑动后发出暂停期间的图片请求
+     */
+    void resumeImages() {
+        if (null == mImageRequests)
+            return;
+        for (int i = 0, size = mImageRequests.size(); i < size; i++) {
+            ImageRequest request = mImageRequests.get(i);
+            if (request.mPending) {
+                request.mPending = false;
+                request.mBinder.bind(request.mView, request.mUrl);
+            }
+        }
+    }
+
     /**
      * 为指定 viewId 的 TextView 对象设置文字
      */
     public DefaultViewHolder setText(@IdRes int viewId, @StringRes int resid) {
-        getTextView(viewId).setText(resid);
+        TextView view = getTextView(viewId);
+        if (mSkipRedundantWrites && skipShadowWrite(viewId, ViewCache.SHADOW_TEXT_RES, resid))
+            return this;
+        view.setText(resid);
         return this;
     }
 
     /**
-     * 为指定 viewId 的 TextView 对象设置文字
+     * 为指定 viewId 的 TextView 或 PrecomputedTextView 对象设置文字
+     * 设置了 TextPrecomputer 时, PrecomputedTextView 直接使用预先计算好的文字布局
      */
     public DefaultViewHolder setText(@IdRes int viewId, CharSequence text) {
-        getTextView(viewId).setText(text);
+        View view = getView(viewId);
+        boolean precomputed = view instanceof PrecomputedTextView;
+        if (mSkipRedundantWrites) {
+            mViewCache.clearShadow(viewId, ViewCache.SHADOW_TEXT_RES);
+            CharSequence current = precomputed ? ((PrecomputedTextView) view).getText()
+                    : ((TextView) view).getText();
+            if (skipWrite(isSameText(current, text)))
+                return this;
+        }
+        if (!precomputed)
+            ((TextView) view).setText(text);
+        else if (null == mTextPrecomputer)
+            ((PrecomputedTextView) view).setText(text);
+        else
+            mTextPrecomputer.setText((PrecomputedTextView) view, viewId, text);
         return this;
     }
 
@@ -179,7 +442,14 @@ public class DefaultViewHolder implements ViewHolder {
      * 为指定 viewId 的 TextView 对象设置文字颜色
      */
     public DefaultViewHolder setTextColor(@IdRes int viewId, @ColorInt int color) {
-        getTextView(viewId).setTextColor(color);
+        TextView view = getTextView(viewId);
+        if (mSkipRedundantWrites) {
+            ColorStateList colors = view.getTextColors();
+            if (skipWrite(null != colors && !colors.isStateful()
+                    && colors.getDefaultColor() == color))
+                return this;
+        }
+        view.setTextColor(color);
         return this;
     }
 
@@ -195,7 +465,11 @@ public class DefaultViewHolder implements ViewHolder {
      * 为指定 viewId 的 View 对象设置背景图片
      */
     public DefaultViewHolder setBackgroundResource(@IdRes int viewId, @DrawableRes int resid) {
-        getView(viewId).setBackgroundResource(resid);
+        View view = getView(viewId);
+        if (mSkipRedundantWrites
+                && skipShadowWrite(viewId, ViewCache.SHADOW_BACKGROUND_RES, resid))
+            return this;
+        view.setBackgroundResource(resid);
         return this;
     }
 
@@ -218,7 +492,10 @@ public class DefaultViewHolder implements ViewHolder {
      * 为指定 viewId 的 CheckBox 对象设置选中状态
      */
     public DefaultViewHolder setChecked(@IdRes int viewId, boolean checked) {
-        getCheckBox(viewId).setChecked(checked);
+        CheckBox view = getCheckBox(viewId);
+        if (mSkipRedundantWrites && skipWrite(view.isChecked() == checked))
+            return this;
+        view.setChecked(checked);
         return this;
     }
 
@@ -294,7 +571,10 @@ public class DefaultViewHolder implements ViewHolder {
      * 为指定 viewId 的 View 对象设置可见性
      */
     public DefaultViewHolder setVisibility(@IdRes int viewId, int visibility) {
-        getView(viewId).setVisibility(visibility);
+        View view = getView(viewId);
+        if (mSkipRedundantWrites && skipWrite(view.getVisibility() == visibility))
+            return this;
+        view.setVisibility(visibility);
         return this;
     }
 
@@ -318,4 +598,40 @@ public class DefaultViewHolder implements ViewHolder {
 
     }
 
+    /**
+     * 支持取消的图片绑定接口, 配合 {@link CommonAdapter#attachTo(android.widget.AbsListView)} 使用时,
+     * Item 被回收或者 ImageView 切换图片时会调用 unbind(), 快速滑动时暂停调用 bind()
+     */
+    public interface RecyclableImageBinder extends ImageBinder {
+
+        /**
+         * 取消 ImageView 正在进行的图片请求, 并清除已经显示的图片
+         */
+        void unbind(@NonNull ImageView imageView);
+
+    }
+
+    /**
+     * ImageView 最近一次的图片请求, mPending 表示因为快速滑动还没有发出
+     */
+    private static final class ImageRequest {
+
+        final ImageView mView;
+        String mUrl;
+        RecyclableImageBinder mBinder;
+        boolean mPending;
+
+        ImageRequest(ImageView view) {
+            mView = view;
+        }
+
+        void cancel() {
+            if (null != mBinder && !mPending)
+                mBinder.unbind(mView);
+            mUrl = null;
+            mBinder = null;
+            mPending = false;
+        }
+    }
+
 }
@@ -0,0 +1,144 @@
+package commonadapter.library;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.view.Choreographer;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+
+/**
+ * DeferredBindQueue
+ * 保存 convert() 中注册的 DeferredBinder, 每一帧绘制完成后在时间预算内依次执行, 超出预算的留到下一帧.
+ * 注册后 Item 重新绑定或者被回收时自动取消, API 16 以下退化为每个消息循环执行一批. 只在主线程中使用
+ */
+final class DeferredBindQueue implements Runnable {
+
+    static final long DEFAULT_BUDGET_MS = 4;
+
+    private final CommonAdapter<?, ?> mAdapter;
+    private final FrameCallback mFrameCallback;
+    private final ArrayDeque<Task> mTasks = new ArrayDeque<>();
+    private final ArrayList<Task> mFreeTasks = new ArrayList<>();
+    private long mBudgetNanos = DEFAULT_BUDGET_MS * 1000000;
+    private boolean mScheduled;
+
+    DeferredBindQueue(CommonAdapter<?, ?> adapter) {
+        mAdapter = adapter;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN)
+            mFrameCallback = new FrameCallback(this);
+        else
+            mFrameCallback = null;
+    }
+
+    void setBudget(long budgetMillis) {
+        mBudgetNanos = Math.max(1, budgetMillis) * 1000000;
+    }
+
+    /**
+     * 注册一个推迟的绑定, 只有执行时 Item 没有重新绑定过才有效
+     */
+    void add(HolderState state, int position, DeferredBinder<?> binder) {
+        Task task = mFreeTasks.isEmpty() ? new Task() : mFreeTasks.remove(mFreeTasks.size() - 1);
+        task.mState = state;
+        task.mToken = state.mBindToken;
+        task.mPosition = position;
+        task.mBinder = binder;
+        mTasks.addLast(task);
+        schedule();
+    }
+
+    /**
+     * 取消 Item 所有还没有执行的绑定, 返回是否取消了任何绑定
+     */
+    boolean cancel(HolderState state) {
+        boolean cancelled = false;
+        for (Iterator<Task> iterator = mTasks.iterator(); iterator.hasNext(); ) {
+            Task task = iterator.next();
+            if (task.mState == state) {
+                iterator.remove();
+                recycle(task);
+                cancelled = true;
+            }
+        }
+        return cancelled;
+    }
+
+    /**
+     * 取消所有还没有执行的绑定
+     */
+    void cancelAll() {
+        while (!mTasks.isEmpty())
+            recycle(mTasks.pollFirst());
+    }
+
+    private void schedule() {
+        if (mScheduled)
+            return;
+        mScheduled = true;
+        if (null == mFrameCallback)
+            AdapterExecutors.postToMainThread(this);
+        else
+            mFrameCallback.schedule();
+    }
+
+    /**
+     * 在时间预算内执行绑定, 没有执行完时等待下一帧
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void run() {
+        mScheduled = false;
+        long deadline = System.nanoTime() + mBudgetNanos;
+        while (!mTasks.isEmpty()) {
+            Task task = mTasks.pollFirst();
+            HolderState state = task.mState;
+            if (state.mBindToken == task.mToken && state.mAdapter == mAdapter
+                    && task.mPosition < mAdapter.getCount())
+                ((DeferredBinder<ViewHolder>) task.mBinder).bind(state.mHolder, task.mPosition);
+            recycle(task);
+            if (System.nanoTime() >= deadline)
+                break;
+        }
+        if (!mTasks.isEmpty())
+            schedule();
+    }
+
+    private void recycle(Task task) {
+        task.mState = null;
+        task.mBinder = null;
+        mFreeTasks.add(task);
+    }
+
+    private static final class Task {
+        HolderState mState;
+        int mToken;
+        int mPosition;
+        DeferredBinder<?> mBinder;
+    }
+
+    /**
+     * 单独的内部类, 避免 API 16 以下加载 DeferredBindQueue 时找不到 Choreographer
+     * 在帧回调中向主线程发送消息, 使绑定在本帧的测量, 布局和绘制完成之后执行
+     */
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    private static final class FrameCallback implements Choreographer.FrameCallback {
+
+        private final DeferredBindQueue mQueue;
+
+        FrameCallback(DeferredBindQueue queue) {
+            mQueue = queue;
+        }
+
+        void schedule() {
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            AdapterExecutors.postToMainThread(mQueue);
+        }
+    }
+
+}
@@ -0,0 +1,18 @@
+package commonadapter.library;
+
+/**
+ * DeferredBinder
+ * 推迟执行的次要绑定, 通过 {@link CommonAdapter#deferBind(ViewHolder, int, DeferredBinder)} 注册
+ * 同一个对象可以注册给任意多个 Item, 需要的数据都从参数中获取
+ */
+public interface DeferredBinder<H extends ViewHolder> {
+
+    /**
+     * 在之后的帧中绑定次要内容, 只有 holder 仍然显示注册时的位置才会调用
+     *
+     * @param holder   注册时的 ViewHolder 对象
+     * @param position 注册时的位置
+     */
+    void bind(H holder, int position);
+
+}
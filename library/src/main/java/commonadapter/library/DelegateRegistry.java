@@ -0,0 +1,155 @@
+package commonadapter.library;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DelegateRegistry
+ * CommonAdapter 中按 Item 的类型或 ItemMatcher 注册的布局和 ItemBinder, 只在主线程中访问
+ * 每个不同的布局对应一个 ViewType, 构造方法传入的布局排在最前面.
+ * 按类型查找的结果按 Item 的具体类型缓存, 之后同一类型的 Item 只需要一次 HashMap 查找
+ */
+final class DelegateRegistry {
+
+    private static final Delegate NONE = new Delegate(null, null, 0, null);
+
+    private int[] mLayoutIds;
+    private final List<Delegate> mClassDelegates = new ArrayList<>();
+    private final List<Delegate> mMatcherDelegates = new ArrayList<>();
+    private final Map<Class<?>, Delegate> mClassCache = new HashMap<>();
+
+    private Class<?> mLastClass;
+    private Delegate mLastDelegate;
+
+    DelegateRegistry(int[] layoutIds) {
+        mLayoutIds = layoutIds;
+    }
+
+    /**
+     * 判断是否没有注册任何 ItemBinder
+     */
+    boolean isEmpty() {
+        return mClassDelegates.isEmpty() && mMatcherDelegates.isEmpty();
+    }
+
+    /**
+     * 注册指定类型的 Item 使用的布局和 ItemBinder
+     */
+    void register(Class<?> clazz, int layoutId, ItemBinder<?, ?> binder) {
+        mClassDelegates.add(new Delegate(clazz, null, viewTypeOf(layoutId), binder));
+        mClassCache.clear();
+        mLastClass = null;
+    }
+
+    /**
+     * 注册 ItemMatcher 匹配的 Item 使用的布局和 ItemBinder
+     */
+    void register(ItemMatcher<?> matcher, int layoutId, ItemBinder<?, ?> binder) {
+        mMatcherDelegates.add(new Delegate(null, matcher, viewTypeOf(layoutId), binder));
+    }
+
+    /**
+     * 获取布局对应的 ViewType, 新的布局添加到最后
+     */
+    private int viewTypeOf(int layoutId) {
+        int length = mLayoutIds.length;
+        for (int i = 0; i < length; i++)
+            if (mLayoutIds[i] == layoutId)
+                return i;
+        int[] layoutIds = new int[length + 1];
+        System.arraycopy(mLayoutIds, 0, layoutIds, 0, length);
+        layoutIds[length] = layoutId;
+        mLayoutIds = layoutIds;
+        return length;
+    }
+
+    /**
+     * 获取 ViewType 的数量, 即不同布局的数量
+     */
+    int getViewTypeCount() {
+        return mLayoutIds.length;
+    }
+
+    /**
+     * 获取 ViewType 对应的布局 ID
+     */
+    int getLayoutId(int viewType) {
+        return mLayoutIds[viewType];
+    }
+
+    /**
+     * 获取 item 使用的 ViewType, 没有匹配的 ItemBinder 时返回 -1
+     */
+    int getViewType(Object item) {
+        Delegate delegate = resolve(item);
+        return NONE == delegate ? -1 : delegate.mViewType;
+    }
+
+    /**
+     * 获取 item 使用的 ItemBinder, 没有匹配的 ItemBinder 时返回 null
+     */
+    ItemBinder<?, ?> getBinder(Object item) {
+        return resolve(item).mBinder;
+    }
+
+    /**
+     * 查找 item 匹配的 Delegate: 先按注册顺序检查 ItemMatcher, 再按类型查找
+     */
+    @SuppressWarnings("unchecked")
+    private Delegate resolve(Object item) {
+        if (null == item)
+            return NONE;
+        for (int i = 0, size = mMatcherDelegates.size(); i < size; i++) {
+            Delegate delegate = mMatcherDelegates.get(i);
+            if (((ItemMatcher<Object>) delegate.mMatcher).matches(item))
+                return delegate;
+        }
+        Class<?> clazz = item.getClass();
+        if (clazz == mLastClass)
+            return mLastDelegate;
+        Delegate delegate = mClassCache.get(clazz);
+        if (null == delegate) {
+            delegate = resolveClass(clazz);
+            mClassCache.put(clazz, delegate);
+        }
+        mLastClass = clazz;
+        mLastDelegate = delegate;
+        return delegate;
+    }
+
+    /**
+     * 为具体类型查找 Delegate: 优先使用为该类型注册的, 否则使用第一个注册的父类型或接口
+     */
+    private Delegate resolveClass(Class<?> clazz) {
+        Delegate assignable = NONE;
+        for (int i = 0, size = mClassDelegates.size(); i < size; i++) {
+            Delegate delegate = mClassDelegates.get(i);
+            if (delegate.mClass == clazz)
+                return delegate;
+            if (NONE == assignable && delegate.mClass.isAssignableFrom(clazz))
+                assignable = delegate;
+        }
+        return assignable;
+    }
+
+    /**
+     * 一次注册的内容
+     */
+    private static final class Delegate {
+
+        final Class<?> mClass;
+        final ItemMatcher<?> mMatcher;
+        final int mViewType;
+        final ItemBinder<?, ?> mBinder;
+
+        Delegate(Class<?> clazz, ItemMatcher<?> matcher, int viewType, ItemBinder<?, ?> binder) {
+            mClass = clazz;
+            mMatcher = matcher;
+            mViewType = viewType;
+            mBinder = binder;
+        }
+    }
+
+}
@@ -0,0 +1,20 @@
+package commonadapter.library;
+
+/**
+ * DiffCallback
+ * 用于 {@link CommonAdapter#submitData(java.util.List)} 在后台线程比较新旧数据
+ */
+public abstract class DiffCallback<T> {
+
+    /**
+     * 判断新旧两个 Item 是否表示同一个对象, 通常比较它们的 ID
+     */
+    public abstract boolean areItemsTheSame(T oldItem, T newItem);
+
+    /**
+     * 判断同一个对象的新旧两个 Item 内容是否相同, 内容不同的 Item 会被重新绑定
+     * 只有 areItemsTheSame() 返回 true 时才会调用此方法
+     */
+    public abstract boolean areContentsTheSame(T oldItem, T newItem);
+
+}
@@ -0,0 +1,81 @@
+package commonadapter.library;
+
+import android.content.Context;
+import android.support.annotation.LayoutRes;
+import android.support.annotation.NonNull;
+
+/**
+ * DoubleAdapter
+ * 数据保存在 DoubleArrayList 中的 CommonAdapter, 不为每个 Item 创建 Double 对象
+ * 实现 convert(H, int, double) 绑定数据, 绑定时不装箱
+ */
+@SuppressWarnings("unused")
+public abstract class DoubleAdapter<H extends ViewHolder> extends PrimitiveAdapter<Double, H> {
+
+    private final DoubleArrayList mValues;
+
+    /**
+     * @param context   Context 对象
+     * @param values    数据集合
+     * @param layoutIds 布局ID, 使用分类型 ListView 时传递多个即可, 至少设置一个
+     */
+    public DoubleAdapter(@NonNull Context context,
+                         @NonNull DoubleArrayList values,
+                         @LayoutRes int... layoutIds) {
+        super(context, values, layoutIds);
+        mValues = values;
+    }
+
+    /**
+     * 获取数据集合, 直接修改后需要调用 notifyDataSetChanged()
+     */
+    public DoubleArrayList getValues() {
+        return mValues;
+    }
+
+    /**
+     * 获取指定位置的数据, 不装箱
+     */
+    public double getDouble(int position) {
+        return mValues.getDouble(position);
+    }
+
+    /**
+     * 在尾部添加一个数据
+     */
+    public void addDouble(double value) {
+        mValues.addDouble(value);
+        notifyDataSetChanged();
+    }
+
+    /**
+     * 在尾部添加 values 中的所有数据, 只通知一次
+     */
+    public void addAll(@NonNull double[] values) {
+        mValues.addAll(values);
+        notifyDataSetChanged();
+    }
+
+    /**
+     * 替换指定位置的数据
+     */
+    public void setDouble(int position, double value) {
+        mValues.setDouble(position, value);
+        notifyDataSetChanged();
+    }
+
+    @Override
+    protected final void convert(H holder, int position) {
+        convert(holder, position, mValues.getDouble(position));
+    }
+
+    /**
+     * 设置 Item 的数据
+     *
+     * @param holder   ViewHolder 对象
+     * @param position 当前要处理视图(数据)的位置
+     * @param value    当前位置的数据
+     */
+    protected abstract void convert(H holder, int position, double value);
+
+}
@@ -0,0 +1,156 @@
+package commonadapter.library;
+
+import java.util.Arrays;
+
+/**
+ * DoubleArrayList
+ * 以 double[] 保存数据的列表, 不为每个元素创建 Double 对象, 每个元素只占用 8 个字节.
+ * 通过 List 接口访问时会装箱, 大量数据时使用 getDouble(), addDouble() 等方法
+ */
+@SuppressWarnings("unused")
+public final class DoubleArrayList extends PrimitiveArrayList<Double> {
+
+    private static final double[] EMPTY = {};
+
+    private double[] mValues;
+
+    public DoubleArrayList() {
+        mValues = EMPTY;
+    }
+
+    /**
+     * @param capacity 初始容量
+     */
+    public DoubleArrayList(int capacity) {
+        if (0 > capacity)
+            throw new IllegalArgumentException("Illegal capacity: " + capacity);
+        mValues = 0 == capacity ? EMPTY : new double[capacity];
+    }
+
+    /**
+     * 复制 values 中的所有元素
+     */
+    public DoubleArrayList(double[] values) {
+        mValues = values.clone();
+        mSize = values.length;
+    }
+
+    @Override
+    Object array() {
+        return mValues;
+    }
+
+    @Override
+    int capacity() {
+        return mValues.length;
+    }
+
+    @Override
+    void resize(int capacity) {
+        mValues = 0 == capacity ? EMPTY : Arrays.copyOf(mValues, capacity);
+    }
+
+    /**
+     * 获取指定位置的元素, 不装箱
+     */
+    public double getDouble(int index) {
+        checkIndex(index);
+        return mValues[index];
+    }
+
+    /**
+     * 替换指定位置的元素, 返回原来的元素
+     */
+    public double setDouble(int index, double value) {
+        checkIndex(index);
+        double old = mValues[index];
+        mValues[index] = value;
+        return old;
+    }
+
+    /**
+     * 在尾部添加一个元素
+     */
+    public void addDouble(double value) {
+        ensureCapacity(mSize + 1);
+        mValues[mSize++] = value;
+        modCount++;
+    }
+
+    /**
+     * 在指定位置插入一个元素
+     */
+    public void addDouble(int index, double value) {
+        openGap(index);
+        mValues[index] = value;
+    }
+
+    /**
+     * 在尾部添加 values 中的所有元素
+     */
+    public void addAll(double[] values) {
+        addAll(values, 0, values.length);
+    }
+
+    /**
+     * 在尾部添加 values 中从 offset 开始的 count 个元素
+     */
+    public void addAll(double[] values, int offset, int count) {
+        append(values, values.length, offset, count);
+    }
+
+    /**
+     * 移除指定位置的元素, 返回被移除的元素, 不装箱
+     */
+    public double removeAt(int index) {
+        double old = getDouble(index);
+        removeRange(index, index + 1);
+        return old;
+    }
+
+    /**
+     * 获取元素第一次出现的位置, 没有时返回 -1, 与 Double.equals() 一样比较, NaN 等于 NaN
+     */
+    public int indexOfDouble(double value) {
+        for (int i = 0; i < mSize; i++)
+            if (0 == Double.compare(mValues[i], value))
+                return i;
+        return -1;
+    }
+
+    /**
+     * 按升序排序, 不装箱
+     */
+    public void sort() {
+        Arrays.sort(mValues, 0, mSize);
+        modCount++;
+    }
+
+    /**
+     * 复制所有元素到新的数组中
+     */
+    public double[] toDoubleArray() {
+        return Arrays.copyOf(mValues, mSize);
+    }
+
+    @Override
+    public Double get(int index) {
+        return getDouble(index);
+    }
+
+    @Override
+    public Double set(int index, Double value) {
+        return setDouble(index, value);
+    }
+
+    @Override
+    public void add(int index, Double value) {
+        addDouble(index, value);
+    }
+
+    @Override
+    public Double remove(int index) {
+        return removeAt(index);
+    }
+
+}
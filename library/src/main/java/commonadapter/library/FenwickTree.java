@@ -0,0 +1,90 @@
+package commonadapter.library;
+
+import java.util.Arrays;
+
+/**
+ * FenwickTree
+ * 保存一组非负整数的树状数组, 修改单个值, 求前缀和以及按前缀和查找下标都是 O(log n)
+ */
+final class FenwickTree {
+
+    private int[] mTree;
+    private int mSize;
+
+    FenwickTree() {
+        mTree = new int[17];
+    }
+
+    /**
+     * 获取值的数量
+     */
+    int size() {
+        return mSize;
+    }
+
+    /**
+     * 在末尾添加一个值
+     */
+    void append(int value) {
+        int index = ++mSize;
+        if (index >= mTree.length) {
+            int[] tree = new int[mTree.length * 2 - 1];
+            System.arraycopy(mTree, 0, tree, 0, mTree.length);
+            mTree = tree;
+        }
+        mTree[index] = value + prefixSum(index - 1) - prefixSum(index - (index & -index));
+    }
+
+    /**
+     * 给下标为 index 的值加上 delta
+     */
+    void add(int index, int delta) {
+        for (int i = index + 1; i <= mSize; i += i & -i)
+            mTree[i] += delta;
+    }
+
+    /**
+     * 获取前 count 个值的和
+     */
+    int prefixSum(int count) {
+        int sum = 0;
+        for (int i = count; i > 0; i -= i & -i)
+            sum += mTree[i];
+        return sum;
+    }
+
+    /**
+     * 查找包含 position 的值的下标, 即前缀和大于 position 的第一个下标
+     * position 不小于所有值的和时返回 size()
+     */
+    int find(int position) {
+        int index = 0;
+        int remaining = position;
+        for (int step = Integer.highestOneBit(mSize); 0 != step; step >>= 1) {
+            int next = index + step;
+            if (next <= mSize && mTree[next] <= remaining) {
+                index = next;
+                remaining -= mTree[next];
+            }
+        }
+        return index;
+    }
+
+    /**
+     * 用 values 的前 count 个值重建, O(n)
+     */
+    void build(int[] values, int count) {
+        if (count >= mTree.length)
+            mTree = new int[Integer.highestOneBit(count) * 2 + 1];
+        else
+            Arrays.fill(mTree, 0);
+        mSize = count;
+        for (int i = 1; i <= count; i++) {
+            mTree[i] += values[i - 1];
+            int parent = i + (i & -i);
+            if (parent <= count)
+                mTree[parent] += mTree[i];
+        }
+    }
+
+}
@@ -0,0 +1,83 @@
+package commonadapter.library;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.view.Choreographer;
+
+/**
+ * FrameNotifier
+ * 将一帧内的多次 notifyDataSetChanged() 合并为一次, API 16 以下退化为合并到下一个消息循环
+ */
+final class FrameNotifier implements Runnable {
+
+    private final CommonAdapter<?, ?> mAdapter;
+    private final FrameCallback mFrameCallback;
+    private boolean mScheduled;
+
+    FrameNotifier(CommonAdapter<?, ?> adapter) {
+        this(adapter, Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN);
+    }
+
+    /**
+     * @param frameCallback 是否通过 Choreographer 在下一帧通知, 单元测试中用于指定 API 16 以上的行为
+     */
+    FrameNotifier(CommonAdapter<?, ?> adapter, boolean frameCallback) {
+        mAdapter = adapter;
+        mFrameCallback = frameCallback ? new FrameCallback(this) : null;
+    }
+
+    /**
+     * 请求在下一帧通知一次, 已经请求过时直接忽略, 可以在任意线程调用
+     */
+    void schedule() {
+        synchronized (this) {
+            if (mScheduled)
+                return;
+            mScheduled = true;
+        }
+        if (null == mFrameCallback)
+            AdapterExecutors.postToMainThread(this);
+        else if (AdapterExecutors.isMainThread())
+            mFrameCallback.run();
+        else
+            AdapterExecutors.postToMainThread(mFrameCallback);
+    }
+
+    /**
+     * 分发通知, 先清除标记, 使分发过程中产生的通知合并到之后的一帧
+     */
+    @Override
+    public void run() {
+        synchronized (this) {
+            mScheduled = false;
+        }
+        mAdapter.dispatchDataSetChanged();
+    }
+
+    /**
+     * 单独的内部类, 避免 API 16 以下加载 FrameNotifier 时找不到 Choreographer
+     */
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    static final class FrameCallback implements Choreographer.FrameCallback, Runnable {
+
+        private final FrameNotifier mNotifier;
+
+        FrameCallback(FrameNotifier notifier) {
+            mNotifier = notifier;
+        }
+
+        /**
+         * 在主线程中注册下一帧的回调
+         */
+        @Override
+        public void run() {
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            mNotifier.run();
+        }
+    }
+
+}
@@ -0,0 +1,99 @@
+package commonadapter.library;
+
+import android.view.View;
+
+/**
+ * HolderState
+ * Adapter 为每个 Item 记录的状态, 保存在 convertView 的 Tag 中
+ */
+final class HolderState {
+
+    private static final int[] NO_IDS = {};
+
+    final ViewHolder mHolder;
+    final int mLayoutId;
+    /**
+     * 最近一次为此 Item 调用 getView() 的 Adapter
+     */
+    CommonAdapter<?, ?> mAdapter;
+    /**
+     * 每次调用 convert() 时加一, 推迟的绑定据此判断 Item 是否已经重新绑定
+     */
+    int mBindToken;
+    /**
+     * 最近一次 getView() 的位置, 子视图点击时据此找到对应的 Item
+     */
+    int mPosition;
+    /**
+     * 子视图点击监听, 设置监听的 Adapter 和当时注册的版本, 以及已经设置了监听的子视图ID
+     * 一个 Item 可能先后被多个 Adapter 使用, 版本只在同一个 Adapter 中比较
+     */
+    ChildClickHandler mClickHandler;
+    CommonAdapter<?, ?> mClickAdapter;
+    int mClickGeneration;
+    int[] mClickIds = NO_IDS;
+    int[] mLongClickIds = NO_IDS;
+    /**
+     * 已经被移入 ListView 的回收站, 还没有被 getView() 取回
+     */
+    boolean mScrapped;
+
+    private Object mBoundBy;
+    private int mBoundGeneration;
+    private int mBoundPosition;
+    private long mBoundItemId;
+    private long mBoundVersion;
+
+    HolderState(ViewHolder holder, int layoutId) {
+        mHolder = holder;
+        mLayoutId = layoutId;
+    }
+
+    /**
+     * 判断 Item 当前是否已经由同一个 Adapter 绑定了相同位置上相同版本的数据
+     */
+    boolean isBound(Object adapter, int generation, int position, long itemId, long version) {
+        return mBoundBy == adapter && mBoundGeneration == generation
+                && mBoundPosition == position && mBoundItemId == itemId
+                && mBoundVersion == version && ItemIdProvider.NO_VERSION != version;
+    }
+
+    /**
+     * 判断 Item 最近一次是否由 adapter 绑定了 ID 为 itemId 的数据
+     */
+    boolean isBoundTo(Object adapter, long itemId) {
+        return mBoundBy == adapter && mBoundItemId == itemId;
+    }
+
+    /**
+     * 记录 Item 绑定的数据, adapter 为 null 表示绑定的数据未知
+     */
+    void setBound(Object adapter, int generation, int position, long itemId, long version) {
+        mBoundBy = adapter;
+        mBoundGeneration = generation;
+        mBoundPosition = position;
+        mBoundItemId = itemId;
+        mBoundVersion = version;
+    }
+
+    /**
+     * 获取 Item 对应的 HolderState, 不是 CommonAdapter 生成的 Item 返回 null
+     */
+    static HolderState of(View convertView) {
+        return (HolderState) convertView.getTag(R.id.commonadapter_holder_state);
+    }
+
+    /**
+     * 获取 Item 对应的 HolderState, 没有时创建一个
+     */
+    static HolderState obtain(ViewHolder holder, int layoutId) {
+        View convertView = holder.getConvertView();
+        HolderState state = of(convertView);
+        if (null == state) {
+            state = new HolderState(holder, layoutId);
+            convertView.setTag(R.id.commonadapter_holder_state, state);
+        }
+        return state;
+    }
+
+}
@@ -0,0 +1,94 @@
+package commonadapter.library;
+
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Process;
+import android.util.SparseArray;
+import android.util.SparseIntArray;
+import android.view.LayoutInflater;
+import android.view.ViewGroup;
+
+import java.util.ArrayDeque;
+
+/**
+ * InflatePool
+ * 在后台线程中预先 inflate Item, 供 ListView 第一次需要某种布局的 Item 时直接使用
+ */
+final class InflatePool<H extends ViewHolder> {
+
+    private static Handler sHandler;
+
+    private final CommonAdapter<?, H> mAdapter;
+    private final LayoutInflater mInflater;
+    private final SparseArray<ArrayDeque<H>> mHolders = new SparseArray<>();
+    private final SparseIntArray mCapacities = new SparseIntArray();
+
+    InflatePool(CommonAdapter<?, H> adapter, LayoutInflater inflater) {
+        mAdapter = adapter;
+        mInflater = inflater.cloneInContext(inflater.getContext());
+    }
+
+    /**
+     * 所有 InflatePool 共用的后台线程, 带有 Looper, inflate 时创建 Handler 的 View 也能正常工作
+     */
+    private static synchronized Handler handler() {
+        if (null == sHandler) {
+            HandlerThread thread = new HandlerThread("CommonAdapter-Inflater",
+                    Process.THREAD_PRIORITY_BACKGROUND);
+            thread.start();
+            sHandler = new Handler(thread.getLooper());
+        }
+        return sHandler;
+    }
+
+    /**
+     * 请求在后台为 layoutId 预先 inflate Item, 直到池中有 capacity 个
+     */
+    void request(final ViewGroup parent, final int layoutId, int capacity) {
+        synchronized (this) {
+            mCapacities.put(layoutId, capacity);
+        }
+        handler().post(new Runnable() {
+            @Override
+            public void run() {
+                synchronized (InflatePool.this) {
+                    ArrayDeque<H> holders = mHolders.get(layoutId);
+                    int size = null == holders ? 0 : holders.size();
+                    if (size >= mCapacities.get(layoutId))
+                        return;
+                }
+                H holder = mAdapter.getHolder(mInflater, null, parent, layoutId);
+                synchronized (InflatePool.this) {
+                    ArrayDeque<H> holders = mHolders.get(layoutId);
+                    if (null == holders)
+                        mHolders.put(layoutId, holders = new ArrayDeque<>());
+                    holders.add(holder);
+                }
+                // 每次只 inflate 一个, 让其他布局的请求和 clear() 有机会执行
+                handler().post(this);
+            }
+        });
+    }
+
+    /**
+     * 取出一个预先 inflate 的 Item, 池为空时返回 null
+     */
+    synchronized H obtain(int layoutId) {
+        ArrayDeque<H> holders = mHolders.get(layoutId);
+        if (null == holders)
+            return null;
+        H holder = holders.poll();
+        if (null != holder)
+            mCapacities.put(layoutId, mCapacities.get(layoutId) - 1);
+        return holder;
+    }
+
+    /**
+     * 清空池并停止后台中尚未完成的 inflate
+     */
+    synchronized void clear() {
+        mHolders.clear();
+        mCapacities.clear();
+    }
+
+}
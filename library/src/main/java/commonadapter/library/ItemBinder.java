@@ -0,0 +1,18 @@
+package commonadapter.library;
+
+/**
+ * ItemBinder
+ * 为一种类型的 Item 绑定数据, 通过 {@link CommonAdapter#register(Class, int, ItemBinder)} 注册
+ */
+public interface ItemBinder<T, H extends ViewHolder> {
+
+    /**
+     * 将 item 的数据绑定到 holder 上
+     *
+     * @param holder   与注册的布局对应的 ViewHolder 对象
+     * @param item     当前位置的 Item
+     * @param position 当前要处理视图(数据)的位置
+     */
+    void bind(H holder, T item, int position);
+
+}
@@ -0,0 +1,28 @@
+package commonadapter.library;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * ItemCodec
+ * 将 Item 编码为紧凑的二进制数据, 用于 {@link DataSnapshot} 保存和恢复 Adapter 的数据
+ */
+public interface ItemCodec<T> {
+
+    /**
+     * 编码格式的版本, 修改编码格式后需要修改版本, 恢复版本不同的快照时会失败
+     */
+    int version();
+
+    /**
+     * 将 item 写入 out, 可以在任意线程调用
+     */
+    void encode(T item, DataOutput out) throws IOException;
+
+    /**
+     * 从 in 中读取 encode() 写入的数据并创建 Item, 可以在任意线程调用
+     */
+    T decode(DataInput in) throws IOException;
+
+}
@@ -0,0 +1,25 @@
+package commonadapter.library;
+
+/**
+ * ItemIdProvider
+ * 为 Item 提供稳定的 ID 和内容版本, 用于 {@link CommonAdapter#setItemIdProvider(ItemIdProvider)}
+ */
+public interface ItemIdProvider<T> {
+
+    /**
+     * 不跳过绑定的内容版本
+     */
+    long NO_VERSION = Long.MIN_VALUE;
+
+    /**
+     * 返回 Item 的 ID, 同一个对象在数据改变前后必须返回相同的 ID
+     */
+    long getItemId(T item);
+
+    /**
+     * 返回 Item 内容的版本, 内容改变时返回的值也必须改变
+     * 返回 NO_VERSION 时该 Item 总是重新绑定
+     */
+    long getContentVersion(T item);
+
+}
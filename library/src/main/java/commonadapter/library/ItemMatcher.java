@@ -0,0 +1,14 @@
+package commonadapter.library;
+
+/**
+ * ItemMatcher
+ * 判断 Item 是否使用某个 ItemBinder, 通过 {@link CommonAdapter#register(ItemMatcher, int, ItemBinder)} 注册
+ */
+public interface ItemMatcher<T> {
+
+    /**
+     * 返回 true 表示 item 使用与此 ItemMatcher 一起注册的布局和 ItemBinder
+     */
+    boolean matches(T item);
+
+}
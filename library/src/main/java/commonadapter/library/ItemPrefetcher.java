@@ -0,0 +1,22 @@
+package commonadapter.library;
+
+/**
+ * ItemPrefetcher
+ * 在 Item 显示之前为其准备数据, 通过 {@link CommonAdapter#setItemPrefetcher(ItemPrefetcher, int)} 设置
+ * 两个方法都在主线程空闲时调用, 耗时的准备工作需要自己放到后台线程中执行
+ */
+public interface ItemPrefetcher<T> {
+
+    /**
+     * 为即将显示的 Item 准备数据, 例如解码图片或者格式化文字
+     *
+     * @param position Item 在 Adapter 中的位置
+     */
+    void prefetch(T item, int position);
+
+    /**
+     * 预取过的 Item 还没有显示就离开了预取范围, 可以取消还没有完成的准备工作
+     */
+    void cancel(T item, int position);
+
+}
@@ -0,0 +1,218 @@
+package commonadapter.library;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * ListDiffer
+ * 使用 Myers 差分算法(线性空间的中间蛇形版本)计算新旧数据之间的对应关系
+ */
+final class ListDiffer<T> {
+
+    static final int NO_POSITION = -1;
+
+    private final List<? extends T> mOldList;
+    private final List<? extends T> mNewList;
+    private final DiffCallback<? super T> mCallback;
+    private final int[] mNewToOld;
+    private int[] mForward;
+    private int[] mBackward;
+
+    private int mSnakeStartX;
+    private int mSnakeStartY;
+    private int mSnakeEndX;
+    private int mSnakeEndY;
+    private int mSnakeD;
+
+    private ListDiffer(List<? extends T> oldList, List<? extends T> newList,
+                       DiffCallback<? super T> callback) {
+        mOldList = oldList;
+        mNewList = newList;
+        mCallback = callback;
+        mNewToOld = new int[newList.size()];
+        Arrays.fill(mNewToOld, NO_POSITION);
+    }
+
+    /**
+     * 计算 oldList 到 newList 的差异, 耗时操作, 应在后台线程调用
+     */
+    static <T> Result diff(List<? extends T> oldList, List<? extends T> newList,
+                           DiffCallback<? super T> callback) {
+        ListDiffer<T> differ = new ListDiffer<>(oldList, newList, callback);
+        differ.lcs(0, oldList.size(), 0, newList.size());
+        return differ.result();
+    }
+
+    private boolean same(int oldPosition, int newPosition) {
+        return mCallback.areItemsTheSame(mOldList.get(oldPosition), mNewList.get(newPosition));
+    }
+
+    /**
+     * 递归计算 [oldStart, oldEnd) 与 [newStart, newEnd) 的最长公共子序列
+     */
+    private void lcs(int oldStart, int oldEnd, int newStart, int newEnd) {
+        while (oldStart < oldEnd && newStart < newEnd && same(oldStart, newStart))
+            mNewToOld[newStart++] = oldStart++;
+        while (oldStart < oldEnd && newStart < newEnd && same(oldEnd - 1, newEnd - 1))
+            mNewToOld[--newEnd] = --oldEnd;
+        if (oldStart == oldEnd || newStart == newEnd)
+            return;
+        if (!middleSnake(oldStart, oldEnd, newStart, newEnd) || mSnakeD <= 1) {
+            greedy(oldStart, oldEnd, newStart, newEnd);
+            return;
+        }
+        int startX = oldStart + mSnakeStartX;
+        int startY = newStart + mSnakeStartY;
+        int endX = oldStart + mSnakeEndX;
+        int endY = newStart + mSnakeEndY;
+        lcs(oldStart, startX, newStart, startY);
+        for (int x = startX, y = startY; x < endX; x++, y++)
+            mNewToOld[y] = x;
+        lcs(endX, oldEnd, endY, newEnd);
+    }
+
+    /**
+     * 编辑距离不超过 1 时, 较短的一方一定是另一方的子序列, 直接顺序匹配即可
+     */
+    private void greedy(int oldStart, int oldEnd, int newStart, int newEnd) {
+        int x = oldStart, y = newStart;
+        while (x < oldEnd && y < newEnd) {
+            if (same(x, y))
+                mNewToOld[y++] = x++;
+            else if (oldEnd - x > newEnd - y)
+                x++;
+            else
+                y++;
+        }
+    }
+
+    /**
+     * 查找中间蛇形, 结果保存在 mSnakeXxx 中, 坐标相对于 oldStart 与 newStart
+     */
+    private boolean middleSnake(int oldStart, int oldEnd, int newStart, int newEnd) {
+        final int n = oldEnd - oldStart;
+        final int m = newEnd - newStart;
+        final int delta = n - m;
+        final boolean odd = 0 != (delta & 1);
+        final int max = (n + m + 1) / 2;
+        final int offset = max + 1;
+        if (null == mForward || mForward.length < 2 * max + 3) {
+            mForward = new int[2 * max + 3];
+            mBackward = new int[2 * max + 3];
+        }
+        final int[] f = mForward;
+        final int[] b = mBackward;
+        f[offset + 1] = 0;
+        b[offset + 1] = 0;
+        for (int d = 0; d <= max; d++) {
+            for (int k = -d; k <= d; k += 2) {
+                int x;
+                if (k == -d || (k != d && f[offset + k - 1] < f[offset + k + 1]))
+                    x = f[offset + k + 1];
+                else
+                    x = f[offset + k - 1] + 1;
+                int y = x - k;
+                int startX = x, startY = y;
+                while (x < n && y < m && same(oldStart + x, newStart + y)) {
+                    x++;
+                    y++;
+                }
+                f[offset + k] = x;
+                if (odd && k >= delta - (d - 1) && k <= delta + (d - 1)
+                        && x + b[offset + delta - k] >= n)
+                    return snake(startX, startY, x, y, 2 * d - 1, n, m);
+            }
+            for (int k = -d; k <= d; k += 2) {
+                int x;
+                if (k == -d || (k != d && b[offset + k - 1] < b[offset + k + 1]))
+                    x = b[offset + k + 1];
+                else
+                    x = b[offset + k - 1] + 1;
+                int y = x - k;
+                int startX = x, startY = y;
+                while (x < n && y < m && same(oldEnd - 1 - x, newEnd - 1 - y)) {
+                    x++;
+                    y++;
+                }
+                b[offset + k] = x;
+                if (!odd && k >= delta - d && k <= delta + d
+                        && x + f[offset + delta - k] >= n)
+                    return snake(n - x, m - y, n - startX, m - startY, 2 * d, n, m);
+            }
+        }
+        return false;
+    }
+
+    private boolean snake(int startX, int startY, int endX, int endY, int d, int n, int m) {
+        if (startX < 0 || startY < 0 || endX > n || endY > m || endX - startX != endY - startY)
+            return false;
+        mSnakeStartX = startX;
+        mSnakeStartY = startY;
+        mSnakeEndX = endX;
+        mSnakeEndY = endY;
+        mSnakeD = d;
+        return true;
+    }
+
+    private Result result() {
+        int size = mNewToOld.length;
+        boolean structural = mOldList.size() != size;
+        boolean[] changed = new boolean[size];
+        int changedCount = 0;
+        for (int i = 0; i < size; i++) {
+            int oldPosition = mNewToOld[i];
+            if (oldPosition != i)
+                structural = true;
+            if (NO_POSITION != oldPosition && !mCallback.areContentsTheSame(
+                    mOldList.get(oldPosition), mNewList.get(i))) {
+                changed[i] = true;
+                changedCount++;
+            }
+        }
+        return new Result(mNewToOld, changed, changedCount, structural);
+    }
+
+    /**
+     * 差异计算的结果
+     */
+    static final class Result {
+
+        private final int[] mNewToOld;
+        private final boolean[] mChanged;
+        private final int mChangedCount;
+        private final boolean mStructural;
+
+        Result(int[] newToOld, boolean[] changed, int changedCount, boolean structural) {
+            mNewToOld = newToOld;
+            mChanged = changed;
+            mChangedCount = changedCount;
+            mStructural = structural;
+        }
+
+        /**
+         * 新数据中指定位置的 Item 在旧数据中的位置, 新增的 Item 返回 NO_POSITION
+         */
+        int getOldPosition(int newPosition) {
+            return mNewToOld[newPosition];
+        }
+
+        /**
+         * 新数据中指定位置的 Item 是否是内容发生改变的旧 Item
+         */
+        boolean isChanged(int newPosition) {
+            return mChanged[newPosition];
+        }
+
+        int getChangedCount() {
+            return mChangedCount;
+        }
+
+        /**
+         * 是否有 Item 被添加, 移除或者移动
+         */
+        boolean isStructural() {
+            return mStructural;
+        }
+    }
+
+}
@@ -0,0 +1,128 @@
+package commonadapter.library;
+
+import android.view.View;
+import android.widget.AbsListView;
+import android.widget.AbsListView.OnScrollListener;
+import android.widget.AbsListView.RecyclerListener;
+import android.widget.ListView;
+
+import java.util.ArrayList;
+
+/**
+ * ListViewHooks
+ * CommonAdapter.attachTo() 设置给 ListView 的 OnScrollListener 和 RecyclerListener,
+ * 处理 Item 回收和滚动状态后再转发给通过 Adapter 设置的监听器, 只在主线程中使用
+ */
+final class ListViewHooks implements OnScrollListener, RecyclerListener {
+
+    private OnScrollListener mOnScrollListener;
+    private RecyclerListener mRecyclerListener;
+    private boolean mPauseImagesOnFling = true;
+    private int mScrollState = SCROLL_STATE_IDLE;
+    private PrefetchScheduler mPrefetcher;
+    private final ArrayList<HolderState> mScrapped = new ArrayList<>();
+    private final Runnable mRecycleScrapped = new Runnable() {
+        @Override
+        public void run() {
+            recycleScrapped();
+        }
+    };
+
+    void setOnScrollListener(OnScrollListener listener) {
+        mOnScrollListener = listener;
+    }
+
+    void setRecyclerListener(RecyclerListener listener) {
+        mRecyclerListener = listener;
+    }
+
+    /**
+     * 设置预取调度器, 取消之前的调度器中还没有显示的预取
+     */
+    void setPrefetcher(PrefetchScheduler prefetcher) {
+        if (null != mPrefetcher)
+            mPrefetcher.cancelAll();
+        mPrefetcher = prefetcher;
+    }
+
+    void setPauseImagesOnFling(boolean pause) {
+        mPauseImagesOnFling = pause;
+    }
+
+    /**
+     * 判断当前是否暂停加载图片
+     */
+    boolean isImagesPaused() {
+        return mPauseImagesOnFling && SCROLL_STATE_FLING == mScrollState;
+    }
+
+    /**
+     * Item 被移入回收站时只做标记, 到下一个消息循环仍然没有被 getView() 取回时才回收它的图片请求和推迟的绑定.
+     * notifyDataSetChanged() 之后 ListView 重新布局时会把所有可见的 Item 移入回收站再立即取回,
+     * 取回后显示相同数据的 Item 保留它的图片和推迟的绑定
+     */
+    @Override
+    public void onMovedToScrapHeap(View view) {
+        HolderState state = HolderState.of(view);
+        if (null != state && null != state.mAdapter && !state.mScrapped) {
+            state.mScrapped = true;
+            if (mScrapped.isEmpty())
+                AdapterExecutors.postToMainThread(mRecycleScrapped);
+            mScrapped.add(state);
+        }
+        if (null != mRecyclerListener)
+            mRecyclerListener.onMovedToScrapHeap(view);
+    }
+
+    /**
+     * 回收移入回收站之后没有被 getView() 取回的 Item
+     */
+    void recycleScrapped() {
+        for (int i = 0, size = mScrapped.size(); i < size; i++) {
+            HolderState state = mScrapped.get(i);
+            if (state.mScrapped) {
+                state.mScrapped = false;
+                state.mAdapter.recycleHolder(state);
+            }
+        }
+        mScrapped.clear();
+    }
+
+    /**
+     * 停止快速滑动时, 只为可见的 Item 发出暂停期间的图片请求
+     */
+    @Override
+    public void onScrollStateChanged(AbsListView view, int scrollState) {
+        boolean paused = isImagesPaused();
+        mScrollState = scrollState;
+        if (paused && !isImagesPaused())
+            resumeImages(view);
+        if (SCROLL_STATE_IDLE == scrollState && null != mPrefetcher)
+            mPrefetcher.onScrollIdle();
+        if (null != mOnScrollListener)
+            mOnScrollListener.onScrollStateChanged(view, scrollState);
+    }
+
+    /**
+     * 为可见的 Item 发出暂停期间的图片请求
+     */
+    void resumeImages(AbsListView view) {
+        for (int i = 0, count = view.getChildCount(); i < count; i++) {
+            HolderState state = HolderState.of(view.getChildAt(i));
+            if (null != state && state.mHolder instanceof DefaultViewHolder)
+                ((DefaultViewHolder) state.mHolder).resumeImages();
+        }
+    }
+
+    @Override
+    public void onScroll(AbsListView view, int firstVisibleItem,
+                         int visibleItemCount, int totalItemCount) {
+        if (null != mPrefetcher) {
+            int headerCount = view instanceof ListView ? ((ListView) view).getHeaderViewsCount() : 0;
+            mPrefetcher.onScroll(firstVisibleItem - headerCount, visibleItemCount);
+        }
+        if (null != mOnScrollListener)
+            mOnScrollListener.onScroll(view, firstVisibleItem, visibleItemCount, totalItemCount);
+    }
+
+}
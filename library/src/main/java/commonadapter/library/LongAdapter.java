@@ -0,0 +1,81 @@
+package commonadapter.library;
+
+import android.content.Context;
+import android.support.annotation.LayoutRes;
+import android.support.annotation.NonNull;
+
+/**
+ * LongAdapter
+ * 数据保存在 LongArrayList 中的 CommonAdapter, 不为每个 Item 创建 Long 对象
+ * 实现 convert(H, int, long) 绑定数据, 绑定时不装箱
+ */
+@SuppressWarnings("unused")
+public abstract class LongAdapter<H extends ViewHolder> extends PrimitiveAdapter<Long, H> {
+
+    private final LongArrayList mValues;
+
+    /**
+     * @param context   Context 对象
+     * @param values    数据集合
+     * @param layoutIds 布局ID, 使用分类型 ListView 时传递多个即可, 至少设置一个
+     */
+    public LongAdapter(@NonNull Context context,
+                       @NonNull LongArrayList values,
+                       @LayoutRes int... layoutIds) {
+        super(context, values, layoutIds);
+        mValues = values;
+    }
+
+    /**
+     * 获取数据集合, 直接修改后需要调用 notifyDataSetChanged()
+     */
+    public LongArrayList getValues() {
+        return mValues;
+    }
+
+    /**
+     * 获取指定位置的数据, 不装箱
+     */
+    public long getLong(int position) {
+        return mValues.getLong(position);
+    }
+
+    /**
+     * 在尾部添加一个数据
+     */
+    public void addLong(long value) {
+        mValues.addLong(value);
+        notifyDataSetChanged();
+    }
+
+    /**
+     * 在尾部添加 values 中的所有数据, 只通知一次
+     */
+    public void addAll(@NonNull long[] values) {
+        mValues.addAll(values);
+        notifyDataSetChanged();
+    }
+
+    /**
+     * 替换指定位置的数据
+     */
+    public void setLong(int position, long value) {
+        mValues.setLong(position, value);
+        notifyDataSetChanged();
+    }
+
+    @Override
+    protected final void convert(H holder, int position) {
+        convert(holder, position, mValues.getLong(position));
+    }
+
+    /**
+     * 设置 Item 的数据
+     *
+     * @param holder   ViewHolder 对象
+     * @param position 当前要处理视图(数据)的位置
+     * @param value    当前位置的数据
+     */
+    protected abstract void convert(H holder, int position, long value);
+
+}
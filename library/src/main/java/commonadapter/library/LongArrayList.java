@@ -0,0 +1,156 @@
+package commonadapter.library;
+
+import java.util.Arrays;
+
+/**
+ * LongArrayList
+ * 以 long[] 保存数据的列表, 不为每个元素创建 Long 对象, 每个元素只占用 8 个字节.
+ * 通过 List 接口访问时会装箱, 大量数据时使用 getLong(), addLong() 等方法
+ */
+@SuppressWarnings("unused")
+public final class LongArrayList extends PrimitiveArrayList<Long> {
+
+    private static final long[] EMPTY = {};
+
+    private long[] mValues;
+
+    public LongArrayList() {
+        mValues = EMPTY;
+    }
+
+    /**
+     * @param capacity 初始容量
+     */
+    public LongArrayList(int capacity) {
+        if (0 > capacity)
+            throw new IllegalArgumentException("Illegal capacity: " + capacity);
+        mValues = 0 == capacity ? EMPTY : new long[capacity];
+    }
+
+    /**
+     * 复制 values 中的所有元素
+     */
+    public LongArrayList(long[] values) {
+        mValues = values.clone();
+        mSize = values.length;
+    }
+
+    @Override
+    Object array() {
+        return mValues;
+    }
+
+    @Override
+    int capacity() {
+        return mValues.length;
+    }
+
+    @Override
+    void resize(int capacity) {
+        mValues = 0 == capacity ? EMPTY : Arrays.copyOf(mValues, capacity);
+    }
+
+    /**
+     * 获取指定位置的元素, 不装箱
+     */
+    public long getLong(int index) {
+        checkIndex(index);
+        return mValues[index];
+    }
+
+    /**
+     * 替换指定位置的元素, 返回原来的元素
+     */
+    public long setLong(int index, long value) {
+        checkIndex(index);
+        long old = mValues[index];
+        mValues[index] = value;
+        return old;
+    }
+
+    /**
+     * 在尾部添加一个元素
+     */
+    public void addLong(long value) {
+        ensureCapacity(mSize + 1);
+        mValues[mSize++] = value;
+        modCount++;
+    }
+
+    /**
+     * 在指定位置插入一个元素
+     */
+    public void addLong(int index, long value) {
+        openGap(index);
+        mValues[index] = value;
+    }
+
+    /**
+     * 在尾部添加 values 中的所有元素
+     */
+    public void addAll(long[] values) {
+        addAll(values, 0, values.length);
+    }
+
+    /**
+     * 在尾部添加 values 中从 offset 开始的 count 个元素
+     */
+    public void addAll(long[] values, int offset, int count) {
+        append(values, values.length, offset, count);
+    }
+
+    /**
+     * 移除指定位置的元素, 返回被移除的元素, 不装箱
+     */
+    public long removeAt(int index) {
+        long old = getLong(index);
+        removeRange(index, index + 1);
+        return old;
+    }
+
+    /**
+     * 获取元素第一次出现的位置, 没有时返回 -1
+     */
+    public int indexOfLong(long value) {
+        for (int i = 0; i < mSize; i++)
+            if (mValues[i] == value)
+                return i;
+        return -1;
+    }
+
+    /**
+     * 按升序排序, 不装箱
+     */
+    public void sort() {
+        Arrays.sort(mValues, 0, mSize);
+        modCount++;
+    }
+
+    /**
+     * 复制所有元素到新的数组中
+     */
+    public long[] toLongArray() {
+        return Arrays.copyOf(mValues, mSize);
+    }
+
+    @Override
+    public Long get(int index) {
+        return getLong(index);
+    }
+
+    @Override
+    public Long set(int index, Long value) {
+        return setLong(index, value);
+    }
+
+    @Override
+    public void add(int index, Long value) {
+        addLong(index, value);
+    }
+
+    @Override
+    public Long remove(int index) {
+        return removeAt(index);
+    }
+
+}
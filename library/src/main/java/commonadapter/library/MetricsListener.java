@@ -0,0 +1,45 @@
+package commonadapter.library;
+
+import android.support.annotation.LayoutRes;
+
+/**
+ * MetricsListener
+ * 接收 CommonAdapter 生成和绑定 Item 的统计数据, 通过 {@link CommonAdapter#setMetricsListener(MetricsListener)} 设置
+ * 所有方法都在主线程中调用, 需要尽快返回
+ *
+ * @see MetricsRecorder
+ */
+public interface MetricsListener {
+
+    /**
+     * getHolder() 新生成了一个 Item
+     *
+     * @param nanos inflate 和创建 ViewHolder 使用的时间
+     */
+    void onInflate(@LayoutRes int layoutId, long nanos);
+
+    /**
+     * 重用了一个 Item
+     *
+     * @param fromPool true 表示来自共享池或者预先 inflate 的 Item, false 表示 ListView 传入的 convertView
+     */
+    void onReuse(@LayoutRes int layoutId, boolean fromPool);
+
+    /**
+     * 调用 convert() 或 ItemBinder 绑定了一个 Item
+     *
+     * @param nanos 绑定使用的时间
+     */
+    void onBind(@LayoutRes int layoutId, long nanos);
+
+    /**
+     * Item 已经绑定了相同的数据, 跳过了绑定
+     */
+    void onBindSkipped(@LayoutRes int layoutId);
+
+    /**
+     * 通知了 ListView 数据已改变, 批量修改和按帧合并的多次通知只算一次
+     */
+    void onNotifyDataSetChanged();
+
+}
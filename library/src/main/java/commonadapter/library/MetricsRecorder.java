@@ -0,0 +1,202 @@
+package commonadapter.library;
+
+import android.os.SystemClock;
+import android.util.SparseArray;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * MetricsRecorder
+ * 默认的 MetricsListener 实现, 按布局统计 inflate 次数和耗时, 重用次数, 绑定耗时的分布, 以及通知频率.
+ * 绑定耗时按微秒以 2 的幂分桶, 百分位数取所在桶的上界. 可以在任意线程调用 dump() 和 snapshot()
+ */
+@SuppressWarnings("unused")
+public class MetricsRecorder implements MetricsListener {
+
+    private static final int BUCKETS = 20;
+
+    private final SparseArray<LayoutStats> mStats = new SparseArray<>();
+    private long mStartTime = SystemClock.uptimeMillis();
+    private int mNotifyCount;
+    private long mNotifySecond = -1;
+    private int mNotifyInSecond;
+    private int mMaxNotifyPerSecond;
+
+    private LayoutStats statsOf(int layoutId) {
+        LayoutStats stats = mStats.get(layoutId);
+        if (null == stats)
+            mStats.put(layoutId, stats = new LayoutStats());
+        return stats;
+    }
+
+    @Override
+    public synchronized void onInflate(int layoutId, long nanos) {
+        LayoutStats stats = statsOf(layoutId);
+        stats.mInflateCount++;
+        stats.mInflateNanos += nanos;
+    }
+
+    @Override
+    public synchronized void onReuse(int layoutId, boolean fromPool) {
+        LayoutStats stats = statsOf(layoutId);
+        stats.mReuseCount++;
+        if (fromPool)
+            stats.mPoolCount++;
+    }
+
+    @Override
+    public synchronized void onBind(int layoutId, long nanos) {
+        statsOf(layoutId).recordBind(nanos);
+    }
+
+    @Override
+    public synchronized void onBindSkipped(int layoutId) {
+        statsOf(layoutId).mSkipCount++;
+    }
+
+    @Override
+    public synchronized void onNotifyDataSetChanged() {
+        mNotifyCount++;
+        long second = SystemClock.uptimeMillis() / 1000;
+        if (second != mNotifySecond) {
+            mNotifySecond = second;
+            mNotifyInSecond = 0;
+        }
+        mMaxNotifyPerSecond = Math.max(mMaxNotifyPerSecond, ++mNotifyInSecond);
+    }
+
+    /**
+     * 清空所有统计数据, 重新开始统计
+     */
+    public synchronized void reset() {
+        mStats.clear();
+        mStartTime = SystemClock.uptimeMillis();
+        mNotifyCount = 0;
+        mNotifySecond = -1;
+        mNotifyInSecond = 0;
+        mMaxNotifyPerSecond = 0;
+    }
+
+    /**
+     * 获取重用的 Item 占所有 getView() 的比例
+     */
+    public synchronized float getReuseRatio() {
+        int reuse = 0;
+        int total = 0;
+        for (int i = 0; i < mStats.size(); i++) {
+            LayoutStats stats = mStats.valueAt(i);
+            reuse += stats.mReuseCount;
+            total += stats.mReuseCount + stats.mInflateCount;
+        }
+        return 0 == total ? 0 : (float) reuse / total;
+    }
+
+    /**
+     * 获取从开始统计到现在平均每秒通知 ListView 的次数
+     */
+    public synchronized float getNotifyRate() {
+        long elapsed = SystemClock.uptimeMillis() - mStartTime;
+        return 0 >= elapsed ? 0 : mNotifyCount * 1000f / elapsed;
+    }
+
+    /**
+     * 以键值对的形式导出统计数据, 便于上报. 键的格式为 "layout.<布局ID>.<指标>" 或 "notify.<指标>",
+     * 耗时的单位为微秒
+     */
+    public synchronized Map<String, Number> snapshot() {
+        Map<String, Number> values = new LinkedHashMap<>();
+        for (int i = 0; i < mStats.size(); i++) {
+            String prefix = "layout." + Integer.toHexString(mStats.keyAt(i)) + '.';
+            LayoutStats stats = mStats.valueAt(i);
+            values.put(prefix + "inflate.count", stats.mInflateCount);
+            values.put(prefix + "inflate.avg_us", average(stats.mInflateNanos, stats.mInflateCount));
+            values.put(prefix + "reuse.count", stats.mReuseCount);
+            values.put(prefix + "reuse.pool_count", stats.mPoolCount);
+            values.put(prefix + "bind.count", stats.mBindCount);
+            values.put(prefix + "bind.skipped", stats.mSkipCount);
+            values.put(prefix + "bind.avg_us", average(stats.mBindNanos, stats.mBindCount));
+            values.put(prefix + "bind.p50_us", stats.percentile(0.5f));
+            values.put(prefix + "bind.p90_us", stats.percentile(0.9f));
+            values.put(prefix + "bind.p99_us", stats.percentile(0.99f));
+        }
+        values.put("reuse.ratio", getReuseRatio());
+        values.put("notify.count", mNotifyCount);
+        values.put("notify.per_second", getNotifyRate());
+        values.put("notify.max_per_second", mMaxNotifyPerSecond);
+        return values;
+    }
+
+    /**
+     * 以文本形式导出统计数据, 每个布局一行
+     */
+    public synchronized String dump() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < mStats.size(); i++) {
+            LayoutStats stats = mStats.valueAt(i);
+            builder.append(String.format(Locale.US,
+                    "layout 0x%x: inflate %d (avg %d us), reuse %d (pool %d), "
+                            + "bind %d (avg %d us, p50 < %d us, p90 < %d us, p99 < %d us), skipped %d%n",
+                    mStats.keyAt(i), stats.mInflateCount,
+                    average(stats.mInflateNanos, stats.mInflateCount),
+                    stats.mReuseCount, stats.mPoolCount, stats.mBindCount,
+                    average(stats.mBindNanos, stats.mBindCount),
+                    stats.percentile(0.5f), stats.percentile(0.9f), stats.percentile(0.99f),
+                    stats.mSkipCount));
+        }
+        builder.append(String.format(Locale.US,
+                "reuse ratio %.2f, notify %d (%.2f/s, max %d/s)",
+                getReuseRatio(), mNotifyCount, getNotifyRate(), mMaxNotifyPerSecond));
+        return builder.toString();
+    }
+
+    private static long average(long nanos, int count) {
+        return 0 == count ? 0 : nanos / count / 1000;
+    }
+
+    /**
+     * 一种布局的统计数据
+     */
+    static final class LayoutStats {
+
+        int mInflateCount;
+        long mInflateNanos;
+        int mReuseCount;
+        int mPoolCount;
+        int mBindCount;
+        long mBindNanos;
+        int mSkipCount;
+        final int[] mBindHistogram = new int[BUCKETS];
+
+        void recordBind(long nanos) {
+            mBindCount++;
+            mBindNanos += nanos;
+            mBindHistogram[bucketOf(nanos)]++;
+        }
+
+        /**
+         * 耗时所在的桶: 第 0 个桶为不到 1 微秒, 第 i 个桶为 [2^(i-1), 2^i) 微秒, 最后一个桶包含所有更长的耗时
+         */
+        static int bucketOf(long nanos) {
+            return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(Math.max(0, nanos) / 1000));
+        }
+
+        /**
+         * 获取绑定耗时的百分位数所在桶的上界, 单位为微秒
+         */
+        long percentile(float fraction) {
+            if (0 == mBindCount)
+                return 0;
+            int target = (int) Math.ceil(mBindCount * fraction);
+            int count = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                count += mBindHistogram[i];
+                if (count >= target)
+                    return 1L << i;
+            }
+            return 1L << (BUCKETS - 1);
+        }
+    }
+
+}
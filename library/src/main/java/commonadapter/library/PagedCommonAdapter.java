@@ -0,0 +1,270 @@
+package commonadapter.library;
+
+import android.content.Context;
+import android.database.DataSetObserver;
+import android.support.annotation.LayoutRes;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.WorkerThread;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.Filter;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * PagedCommonAdapter
+ * 按页从 PageSource 加载数据的 CommonAdapter, 只在内存中保存可见位置附近的几页.
+ * getView() 访问到距离未加载的页 prefetchDistance 以内的位置时在后台加载该页,
+ * 未加载的位置 getItem() 返回 null, convert() 中需要为其显示占位内容, 占位 Item 不会传给 ItemIdProvider.
+ * 设置给 ListView 时才开始第一次加载, 因此 setExecutor() 等设置需要在此之前调用.
+ * 数据只能通过 PageSource 和 refresh() 改变, 不支持 add() 等修改方法
+ */
+@SuppressWarnings("unused")
+public abstract class PagedCommonAdapter<T, H extends ViewHolder> extends CommonAdapter<T, H> {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int DEFAULT_MAX_PAGES = 8;
+
+    private final PageSource<T> mSource;
+    private final PagedList<T> mPagedList;
+    private Executor mExecutor = AdapterExecutors.background();
+    private int mPrefetchDistance;
+    private int mMaxPages = DEFAULT_MAX_PAGES;
+    private int mGeneration;
+    private boolean mStarted;
+    private int mLastPosition;
+
+    /**
+     * @param context   Context 对象
+     * @param source    分页数据源
+     * @param layoutIds 布局ID, 使用分类型 ListView 时传递多个即可, 至少设置一个
+     */
+    public PagedCommonAdapter(@NonNull Context context,
+                              @NonNull PageSource<T> source,
+                              @LayoutRes int... layoutIds) {
+        this(context, source, DEFAULT_PAGE_SIZE, layoutIds);
+    }
+
+    /**
+     * @param context   Context 对象
+     * @param source    分页数据源
+     * @param pageSize  每页的 Item 数量
+     * @param layoutIds 布局ID, 使用分类型 ListView 时传递多个即可, 至少设置一个
+     */
+    public PagedCommonAdapter(@NonNull Context context,
+                              @NonNull PageSource<T> source,
+                              int pageSize,
+                              @LayoutRes int... layoutIds) {
+        this(context, source, new PagedList<T>(pageSize), layoutIds);
+    }
+
+    private PagedCommonAdapter(Context context, PageSource<T> source, PagedList<T> pagedList,
+                               int... layoutIds) {
+        super(context, pagedList, layoutIds);
+        mSource = source;
+        mPagedList = pagedList;
+        mPrefetchDistance = pagedList.getPageSize();
+    }
+
+    /**
+     * 设置加载数据使用的线程池, 默认使用 Adapter 内部的后台线程池
+     * 加载结果在主线程中应用, 线程池在主线程中直接执行任务时结果也会被直接应用
+     */
+    public void setExecutor(@NonNull Executor executor) {
+        mExecutor = executor;
+    }
+
+    /**
+     * 设置预加载距离: getView() 访问的位置前后 distance 个 Item 所在的页都会被加载, 默认为一页
+     */
+    public void setPrefetchDistance(int distance) {
+        mPrefetchDistance = Math.max(0, distance);
+    }
+
+    /**
+     * 设置内存中最多保存的页数, 超出时丢弃离最后访问位置最远的页
+     * 需要大于一屏 Item 加上前后预加载距离所占的页数
+     */
+    public void setMaxPages(int maxPages) {
+        mMaxPages = Math.max(1, maxPages);
+        mPagedList.trimPages(mPagedList.pageOf(mLastPosition), mMaxPages);
+    }
+
+    /**
+     * 判断指定位置的数据是否还没有加载, 此时 getItem() 返回 null
+     */
+    public boolean isPlaceholder(int position) {
+        return !mPagedList.isLoaded(mPagedList.pageOf(position));
+    }
+
+    /**
+     * 获取当前保存在内存中的 Item 数量
+     */
+    public int getRetainedItemCount() {
+        return mPagedList.getRetainedCount();
+    }
+
+    /**
+     * 获取创建以来同时保存在内存中的 Item 数量的最大值, 用于确认 setMaxPages() 的设置
+     */
+    public int getPeakRetainedItemCount() {
+        return mPagedList.getPeakRetainedCount();
+    }
+
+    /**
+     * 设置给 ListView 时开始第一次加载
+     */
+    @Override
+    public void registerDataSetObserver(DataSetObserver observer) {
+        super.registerDataSetObserver(observer);
+        if (!mStarted)
+            refresh();
+    }
+
+    /**
+     * 丢弃所有已加载的页, 在后台重新获取总数, 完成后通知 ListView 刷新
+     */
+    public void refresh() {
+        final int generation = ++mGeneration;
+        mStarted = true;
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                final int count = mSource.getCount();
+                AdapterExecutors.runOnMainThread(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (generation != mGeneration)
+                            return;
+                        mPagedList.reset(count);
+                        notifyDataSetChanged();
+                    }
+                });
+            }
+        });
+    }
+
+    @Override
+    public View getView(int position, View convertView, ViewGroup parent) {
+        loadAround(position);
+        return super.getView(position, convertView, parent);
+    }
+
+    /**
+     * 加载指定位置前后预加载距离内还没有加载的页, getView() 时自动调用,
+     * 也可以在跳转到指定位置之前调用
+     */
+    public void loadAround(int position) {
+        int count = mPagedList.size();
+        if (0 > position || position >= count)
+            return;
+        mLastPosition = position;
+        int firstPage = mPagedList.pageOf(Math.max(0, position - mPrefetchDistance));
+        int lastPage = mPagedList.pageOf(Math.min(count - 1, position + mPrefetchDistance));
+        for (int page = firstPage; page <= lastPage; page++)
+            if (!mPagedList.isLoaded(page) && !mPagedList.isLoading(page))
+                loadPage(page);
+    }
+
+    private void loadPage(final int page) {
+        final int generation = mGeneration;
+        final int pageSize = mPagedList.getPageSize();
+        mPagedList.setLoading(page, true);
+        mExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                List<T> items;
+                try {
+                    items = mSource.loadPage(page, pageSize);
+                } catch (Exception e) {
+                    items = null;
+                }
+                final List<T> result = items;
+                AdapterExecutors.runOnMainThread(new Runnable() {
+                    @Override
+                    public void run() {
+                        onPageLoaded(generation, page, result);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * 页加载完成, 加载失败时 items 为 null, 下次访问该页时会重新加载
+     */
+    private void onPageLoaded(int generation, int page, List<T> items) {
+        if (generation != mGeneration)
+            return;
+        mPagedList.setLoading(page, false);
+        if (null == items)
+            return;
+        mPagedList.putPage(page, items, mPagedList.pageOf(mLastPosition), mMaxPages);
+        notifyDataSetChanged();
+    }
+
+    /**
+     * 数据由 PageSource 提供, 不能直接设置
+     */
+    @Override
+    public void setData(List<T> data) {
+        throw new UnsupportedOperationException("PagedCommonAdapter loads data from its PageSource.");
+    }
+
+    /**
+     * 数据由 PageSource 提供, 不能直接设置
+     */
+    @Override
+    public void submitData(@NonNull List<T> data) {
+        throw new UnsupportedOperationException("PagedCommonAdapter loads data from its PageSource.");
+    }
+
+    /**
+     * 分页数据不支持并发模式
+     */
+    @Override
+    public void setConcurrentMode(boolean concurrent) {
+        if (concurrent)
+            throw new UnsupportedOperationException("PagedCommonAdapter is main-thread only.");
+    }
+
+    /**
+     * 未加载的分页无法排序, 需要排序时由 PageSource 提供排序后的数据
+     */
+    @Override
+    public void setSortComparator(@Nullable Comparator<? super T> comparator) {
+        if (null != comparator)
+            throw new UnsupportedOperationException("PagedCommonAdapter cannot sort unloaded pages.");
+    }
+
+    /**
+     * 未加载的分页无法过滤, 需要过滤时由 PageSource 提供过滤后的数据
+     */
+    @Override
+    public Filter getFilter() {
+        throw new UnsupportedOperationException("PagedCommonAdapter cannot filter unloaded pages.");
+    }
+
+    /**
+     * 分页数据源, 方法都在后台线程中调用
+     */
+    public interface PageSource<T> {
+
+        /**
+         * 返回数据的总数
+         */
+        @WorkerThread
+        int getCount();
+
+        /**
+         * 加载指定的页, 返回的数量除最后一页外应等于 pageSize, 抛出异常表示加载失败
+         */
+        @WorkerThread
+        List<T> loadPage(int page, int pageSize) throws Exception;
+
+    }
+
+}
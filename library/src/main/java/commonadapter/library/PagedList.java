@@ -0,0 +1,140 @@
+package commonadapter.library;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * PagedList
+ * PagedCommonAdapter 使用的分页数据, 只保存已加载的页, 未加载的位置返回 null
+ * 只能在主线程访问
+ */
+final class PagedList<T> extends AbstractList<T> implements RandomAccess {
+
+    private final int mPageSize;
+    private List<T>[] mPages = newPages(0);
+    private boolean[] mLoading = new boolean[0];
+    /** 已加载的页号, 按加载顺序排列, 数量不超过 maxPages */
+    private int[] mLoadedPages = new int[8];
+    private int mLoadedCount;
+    private int mCount;
+    private int mRetainedCount;
+    private int mPeakRetainedCount;
+
+    PagedList(int pageSize) {
+        if (0 >= pageSize)
+            throw new IllegalArgumentException("pageSize must be positive.");
+        mPageSize = pageSize;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> List<T>[] newPages(int count) {
+        return (List<T>[]) new List[count];
+    }
+
+    @Override
+    public T get(int index) {
+        if (0 > index || index >= mCount)
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + mCount);
+        List<T> page = mPages[index / mPageSize];
+        int offset = index % mPageSize;
+        return null == page || offset >= page.size() ? null : page.get(offset);
+    }
+
+    @Override
+    public int size() {
+        return mCount;
+    }
+
+    int getPageSize() {
+        return mPageSize;
+    }
+
+    int pageOf(int index) {
+        return index / mPageSize;
+    }
+
+    /**
+     * 重置总数并丢弃所有已加载的页
+     */
+    void reset(int count) {
+        int pageCount = (count + mPageSize - 1) / mPageSize;
+        mCount = count;
+        mPages = newPages(pageCount);
+        mLoading = new boolean[pageCount];
+        mLoadedCount = 0;
+        mRetainedCount = 0;
+        modCount++;
+    }
+
+    boolean isLoaded(int page) {
+        return 0 <= page && page < mPages.length && null != mPages[page];
+    }
+
+    boolean isLoading(int page) {
+        return 0 <= page && page < mLoading.length && mLoading[page];
+    }
+
+    void setLoading(int page, boolean loading) {
+        if (0 <= page && page < mLoading.length)
+            mLoading[page] = loading;
+    }
+
+    /**
+     * 保存加载完成的页, 然后丢弃离 centerPage 最远的页, 直到已加载的页不超过 maxPages
+     */
+    void putPage(int page, List<T> items, int centerPage, int maxPages) {
+        if (0 > page || page >= mPages.length)
+            return;
+        List<T> old = mPages[page];
+        if (null != old)
+            mRetainedCount -= old.size();
+        else {
+            if (mLoadedCount == mLoadedPages.length)
+                mLoadedPages = Arrays.copyOf(mLoadedPages, mLoadedCount * 2);
+            mLoadedPages[mLoadedCount++] = page;
+        }
+        mPages[page] = items;
+        mRetainedCount += items.size();
+        trimPages(centerPage, maxPages);
+        mPeakRetainedCount = Math.max(mPeakRetainedCount, mRetainedCount);
+    }
+
+    /**
+     * 丢弃离 centerPage 最远的页, 直到已加载的页不超过 maxPages
+     */
+    void trimPages(int centerPage, int maxPages) {
+        while (mLoadedCount > maxPages) {
+            int farthest = 0;
+            for (int i = 1; i < mLoadedCount; i++)
+                if (Math.abs(mLoadedPages[i] - centerPage)
+                        > Math.abs(mLoadedPages[farthest] - centerPage))
+                    farthest = i;
+            int page = mLoadedPages[farthest];
+            mRetainedCount -= mPages[page].size();
+            mPages[page] = null;
+            System.arraycopy(mLoadedPages, farthest + 1, mLoadedPages, farthest,
+                    --mLoadedCount - farthest);
+        }
+    }
+
+    int getLoadedPageCount() {
+        return mLoadedCount;
+    }
+
+    /**
+     * 当前保存在内存中的 Item 数量
+     */
+    int getRetainedCount() {
+        return mRetainedCount;
+    }
+
+    /**
+     * 创建以来同时保存在内存中的 Item 数量的最大值, reset() 不会清除
+     */
+    int getPeakRetainedCount() {
+        return mPeakRetainedCount;
+    }
+
+}
@@ -0,0 +1,216 @@
+package commonadapter.library;
+
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Typeface;
+import android.support.annotation.ColorInt;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.text.Layout;
+import android.text.StaticLayout;
+import android.text.TextPaint;
+import android.util.AttributeSet;
+import android.util.TypedValue;
+import android.view.View;
+
+/**
+ * PrecomputedTextView
+ * 只负责绘制一段文字的轻量 View, 可以直接使用 TextPrecomputer 在后台线程中创建好的 Layout,
+ * 绑定时不需要在主线程中测量文字. 支持 android:text, android:textSize 和 android:textColor,
+ * 文字按 ALIGN_NORMAL 对齐, 不支持行距, 省略, 选择和编辑等 TextView 的其他功能.
+ * 在 DefaultViewHolder 中通过 setText(int, CharSequence) 设置文字.
+ * 预先计算的布局按测量时父布局给出的可用宽度创建, 宽度为 wrap_content 时 View 的宽度就是这个可用宽度,
+ * 不再按每段文字收缩, 这样测量时不需要重新计算文字宽度
+ */
+@SuppressWarnings("unused")
+public class PrecomputedTextView extends View {
+
+    /**
+     * 按属性 ID 升序排列, obtainStyledAttributes() 要求如此
+     */
+    private static final int[] ATTRS = {
+            android.R.attr.textSize,
+            android.R.attr.textColor,
+            android.R.attr.text,
+    };
+    private static final int DEFAULT_TEXT_SIZE_SP = 14;
+    /**
+     * 布局由 setLayout() 设置, 不是测量时创建的
+     */
+    private static final int PRECOMPUTED = -1;
+
+    private final TextPaint mPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+    private CharSequence mText = "";
+    private Layout mLayout;
+    private int mLayoutBound;
+    private int mAvailableWidth;
+
+    public PrecomputedTextView(Context context) {
+        this(context, null);
+    }
+
+    public PrecomputedTextView(Context context, AttributeSet attrs) {
+        this(context, attrs, 0);
+    }
+
+    public PrecomputedTextView(Context context, AttributeSet attrs, int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+        mPaint.density = getResources().getDisplayMetrics().density;
+        TypedArray a = context.obtainStyledAttributes(attrs, ATTRS, defStyleAttr, 0);
+        mPaint.setTextSize(a.getDimension(0, TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP,
+                DEFAULT_TEXT_SIZE_SP, getResources().getDisplayMetrics())));
+        mPaint.setColor(a.getColor(1, Color.BLACK));
+        CharSequence text = a.getText(2);
+        a.recycle();
+        if (null != text)
+            mText = text;
+    }
+
+    /**
+     * 按 PrecomputedTextView 的方式创建文字布局, TextPrecomputer 在后台线程中使用同样的参数
+     */
+    static Layout buildLayout(CharSequence text, TextPaint paint, int width) {
+        return new StaticLayout(text, paint, width, Layout.Alignment.ALIGN_NORMAL, 1f, 0f, true);
+    }
+
+    /**
+     * 绘制文字使用的 Paint, 修改后需要重新设置文字
+     */
+    public TextPaint getPaint() {
+        return mPaint;
+    }
+
+    /**
+     * 设置文字大小, 单位为 sp
+     */
+    public void setTextSize(float size) {
+        setTextSize(TypedValue.COMPLEX_UNIT_SP, size);
+    }
+
+    /**
+     * 按指定单位设置文字大小
+     */
+    public void setTextSize(int unit, float size) {
+        float px = TypedValue.applyDimension(unit, size, getResources().getDisplayMetrics());
+        if (px != mPaint.getTextSize()) {
+            mPaint.setTextSize(px);
+            invalidateLayout();
+        }
+    }
+
+    public void setTextColor(@ColorInt int color) {
+        if (color != mPaint.getColor()) {
+            mPaint.setColor(color);
+            invalidateLayout();
+        }
+    }
+
+    public void setTypeface(@Nullable Typeface typeface) {
+        if (typeface != mPaint.getTypeface()) {
+            mPaint.setTypeface(typeface);
+            invalidateLayout();
+        }
+    }
+
+    public CharSequence getText() {
+        return mText;
+    }
+
+    /**
+     * 设置文字, 在下一次测量时创建布局
+     */
+    public void setText(@Nullable CharSequence text) {
+        mText = null == text ? "" : text;
+        invalidateLayout();
+    }
+
+    /**
+     * 直接使用已经创建好的布局, 宽度超出可用宽度, 或者宽度固定且与布局宽度不同时在测量时重新创建
+     * 大小不变时只重绘, 不重新布局
+     */
+    public void setLayout(@NonNull Layout layout) {
+        boolean sameSize = null != mLayout && mLayout.getWidth() == layout.getWidth()
+                && mLayout.getHeight() == layout.getHeight();
+        mText = layout.getText();
+        mLayout = layout;
+        mLayoutBound = PRECOMPUTED;
+        if (!sameSize)
+            requestLayout();
+        invalidate();
+    }
+
+    /**
+     * 获取当前的文字布局, 还没有测量时可能为 null
+     */
+    @Nullable
+    public Layout getLayout() {
+        return mLayout;
+    }
+
+    /**
+     * 获取文字可用的宽度, 即最近一次测量时父布局给出的宽度减去内边距.
+     * 还没有测量或者宽度不受限制时返回 0
+     */
+    public int getContentWidth() {
+        return mAvailableWidth;
+    }
+
+    private void invalidateLayout() {
+        mLayout = null;
+        requestLayout();
+        invalidate();
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        int horizontalPadding = getPaddingLeft() + getPaddingRight();
+        int mode = MeasureSpec.getMode(widthMeasureSpec);
+        int size = MeasureSpec.getSize(widthMeasureSpec);
+        int bound = MeasureSpec.UNSPECIFIED == mode ? Integer.MAX_VALUE : Math.max(0, size - horizontalPadding);
+        mAvailableWidth = MeasureSpec.UNSPECIFIED == mode ? 0 : bound;
+        if (!canReuseLayout(mode, bound)) {
+            int contentWidth = bound;
+            if (MeasureSpec.EXACTLY != mode)
+                contentWidth = Math.min((int) Math.ceil(Layout.getDesiredWidth(mText, mPaint)), bound);
+            mLayout = buildLayout(mText, mPaint, contentWidth);
+            mLayoutBound = bound;
+        }
+        int width = size;
+        if (MeasureSpec.EXACTLY != mode) {
+            width = Math.max(mLayout.getWidth() + horizontalPadding, getSuggestedMinimumWidth());
+            if (MeasureSpec.AT_MOST == mode)
+                width = Math.min(width, size);
+        }
+        int height = Math.max(mLayout.getHeight() + getPaddingTop() + getPaddingBottom(),
+                getSuggestedMinimumHeight());
+        setMeasuredDimension(width, resolveSize(height, heightMeasureSpec));
+    }
+
+    /**
+     * 宽度固定时布局宽度必须相同; 否则预先计算的布局只要不超出可用宽度就直接使用,
+     * 测量时创建的布局在可用宽度不变时使用
+     */
+    private boolean canReuseLayout(int mode, int bound) {
+        if (null == mLayout)
+            return false;
+        if (MeasureSpec.EXACTLY == mode)
+            return mLayout.getWidth() == bound;
+        if (PRECOMPUTED == mLayoutBound)
+            return mLayout.getWidth() <= bound;
+        return mLayoutBound == bound;
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        if (null == mLayout)
+            return;
+        canvas.save();
+        canvas.translate(getPaddingLeft(), getPaddingTop());
+        mLayout.draw(canvas);
+        canvas.restore();
+    }
+
+}
@@ -0,0 +1,148 @@
+package commonadapter.library;
+
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.os.SystemClock;
+import android.util.SparseArray;
+
+/**
+ * PrefetchScheduler
+ * 根据滚动方向和速度计算可见区域前方的预取范围, 在主线程空闲时调用 ItemPrefetcher,
+ * 离开预取范围并且没有显示过的 Item 会被取消. 只在主线程中使用
+ */
+final class PrefetchScheduler implements MessageQueue.IdleHandler {
+
+    /**
+     * 每次空闲时最多使用的时间
+     */
+    private static final long IDLE_BUDGET_MS = 4;
+
+    /**
+     * 按当前速度向前预取这段时间内将要显示的 Item
+     */
+    private static final float LOOKAHEAD_SECONDS = 0.25f;
+
+    private final CommonAdapter<?, ?> mAdapter;
+    private final ItemPrefetcher<Object> mPrefetcher;
+    private final int mMaxDistance;
+    private final SparseArray<Object> mFetched = new SparseArray<>();
+
+    private int mLastFirst = -1;
+    private long mLastTime;
+    private float mVelocity;
+    private boolean mForward = true;
+
+    private int mVisibleStart;
+    private int mVisibleEnd;
+    private int mRangeStart;
+    private int mRangeEnd;
+    private int mNext;
+    private boolean mIdleQueued;
+
+    @SuppressWarnings("unchecked")
+    PrefetchScheduler(CommonAdapter<?, ?> adapter, ItemPrefetcher<?> prefetcher, int maxDistance) {
+        mAdapter = adapter;
+        mPrefetcher = (ItemPrefetcher<Object>) prefetcher;
+        mMaxDistance = Math.max(1, maxDistance);
+    }
+
+    /**
+     * 可见区域改变时更新速度, 方向和预取范围
+     *
+     * @param first 第一个可见 Item 在 Adapter 中的位置
+     * @param count 可见 Item 的数量
+     */
+    void onScroll(int first, int count) {
+        long now = SystemClock.uptimeMillis();
+        if (first != mLastFirst) {
+            if (0 <= mLastFirst && now > mLastTime) {
+                float velocity = Math.abs(first - mLastFirst) * 1000f / (now - mLastTime);
+                mVelocity = (mVelocity + velocity) / 2;
+                mForward = first > mLastFirst;
+            }
+            mLastFirst = first;
+            mLastTime = now;
+        }
+        int total = mAdapter.getCount();
+        int distance = Math.min(mMaxDistance,
+                mMaxDistance / 2 + Math.round(mVelocity * LOOKAHEAD_SECONDS));
+        mVisibleStart = Math.max(0, first);
+        mVisibleEnd = Math.min(total, first + count);
+        if (mForward) {
+            mRangeStart = mVisibleEnd;
+            mRangeEnd = Math.min(total, mVisibleEnd + Math.max(1, distance));
+        } else {
+            mRangeStart = Math.max(0, mVisibleStart - Math.max(1, distance));
+            mRangeEnd = mVisibleStart;
+        }
+        mNext = mForward ? mRangeStart : mRangeEnd - 1;
+        cancelOutOfRange();
+        if (mRangeStart < mRangeEnd && !mIdleQueued) {
+            mIdleQueued = true;
+            Looper.myQueue().addIdleHandler(this);
+        }
+    }
+
+    /**
+     * 停止滚动后速度归零, 预取范围缩小到最小
+     */
+    void onScrollIdle() {
+        mVelocity = 0;
+    }
+
+    /**
+     * 取消离开预取范围的 Item, 已经显示的 Item 不需要取消
+     */
+    private void cancelOutOfRange() {
+        for (int i = mFetched.size() - 1; i >= 0; i--) {
+            int position = mFetched.keyAt(i);
+            if (position >= mRangeStart && position < mRangeEnd)
+                continue;
+            Object item = mFetched.valueAt(i);
+            mFetched.removeAt(i);
+            if (position < mVisibleStart || position >= mVisibleEnd)
+                mPrefetcher.cancel(item, position);
+        }
+    }
+
+    /**
+     * 取消所有还没有显示的预取
+     */
+    void cancelAll() {
+        if (mIdleQueued) {
+            mIdleQueued = false;
+            Looper.myQueue().removeIdleHandler(this);
+        }
+        for (int i = 0, size = mFetched.size(); i < size; i++)
+            mPrefetcher.cancel(mFetched.valueAt(i), mFetched.keyAt(i));
+        mFetched.clear();
+    }
+
+    /**
+     * 主线程空闲时从离可见区域最近的位置开始预取, 超出时间预算后等待下一次空闲
+     */
+    @Override
+    public boolean queueIdle() {
+        long deadline = SystemClock.uptimeMillis() + IDLE_BUDGET_MS;
+        int total = mAdapter.getCount();
+        while (mNext >= mRangeStart && mNext < mRangeEnd) {
+            int position = mNext;
+            mNext += mForward ? 1 : -1;
+            if (position >= total)
+                continue;
+            Object item = mAdapter.getItem(position);
+            Object fetched = mFetched.get(position);
+            if (null == item || item == fetched)
+                continue;
+            if (null != fetched)
+                mPrefetcher.cancel(fetched, position);
+            mFetched.put(position, item);
+            mPrefetcher.prefetch(item, position);
+            if (SystemClock.uptimeMillis() >= deadline)
+                break;
+        }
+        mIdleQueued = mNext >= mRangeStart && mNext < mRangeEnd;
+        return mIdleQueued;
+    }
+
+}
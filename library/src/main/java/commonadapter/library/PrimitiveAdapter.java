@@ -0,0 +1,69 @@
+package commonadapter.library;
+
+import android.content.Context;
+import android.support.annotation.LayoutRes;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.widget.Filter;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * PrimitiveAdapter
+ * 数据保存在基本类型数组中的 CommonAdapter 的基类, 见 IntAdapter, LongAdapter, DoubleAdapter 和 ColumnAdapter.
+ * 数据列表在构造时确定, 不能替换; 会复制数据或逐个装箱的功能(并发模式, 排序模式, 差分和过滤)都不支持.
+ * 只能在主线程修改数据, 直接修改数据后需要调用 notifyDataSetChanged()
+ */
+@SuppressWarnings("unused")
+public abstract class PrimitiveAdapter<T, H extends ViewHolder> extends CommonAdapter<T, H> {
+
+    PrimitiveAdapter(@NonNull Context context,
+                     @NonNull List<T> data,
+                     @LayoutRes int... layoutIds) {
+        super(context, data, layoutIds);
+    }
+
+    /**
+     * 数据列表不能替换, 修改构造时传入的列表后调用 notifyDataSetChanged()
+     */
+    @Override
+    public void setData(List<T> data) {
+        throw new UnsupportedOperationException("PrimitiveAdapter cannot replace its backing list.");
+    }
+
+    /**
+     * 差分需要逐个装箱比较, 不支持
+     */
+    @Override
+    public void submitData(@NonNull List<T> data) {
+        throw new UnsupportedOperationException("PrimitiveAdapter cannot replace its backing list.");
+    }
+
+    /**
+     * 并发模式需要复制数据, 不支持
+     */
+    @Override
+    public void setConcurrentMode(boolean concurrent) {
+        if (concurrent)
+            throw new UnsupportedOperationException("PrimitiveAdapter is main-thread only.");
+    }
+
+    /**
+     * 排序模式需要复制并装箱数据, 不支持, 需要时使用数据列表自带的 sort()
+     */
+    @Override
+    public void setSortComparator(@Nullable Comparator<? super T> comparator) {
+        if (null != comparator)
+            throw new UnsupportedOperationException("PrimitiveAdapter cannot keep boxed data sorted.");
+    }
+
+    /**
+     * 过滤需要复制并装箱数据, 不支持
+     */
+    @Override
+    public Filter getFilter() {
+        throw new UnsupportedOperationException("PrimitiveAdapter cannot filter its data.");
+    }
+
+}
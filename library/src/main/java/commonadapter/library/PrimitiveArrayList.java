@@ -0,0 +1,102 @@
+package commonadapter.library;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * PrimitiveArrayList
+ * IntArrayList, LongArrayList, DoubleArrayList 的公共部分, 负责下标检查, 扩容和移动元素.
+ * 子类只持有对应类型的数组, 读写元素时不装箱
+ */
+abstract class PrimitiveArrayList<E> extends AbstractList<E> implements RandomAccess {
+
+    int mSize;
+
+    /**
+     * 子类持有的数组
+     */
+    abstract Object array();
+
+    /**
+     * 数组的长度
+     */
+    abstract int capacity();
+
+    /**
+     * 将数组复制为长度为 capacity 的新数组, capacity 为 0 时使用共享的空数组
+     */
+    abstract void resize(int capacity);
+
+    final void checkIndex(int index) {
+        if (index >= mSize || 0 > index)
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + mSize);
+    }
+
+    final void checkPositionIndex(int index) {
+        if (index > mSize || 0 > index)
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + mSize);
+    }
+
+    /**
+     * 确保至少可以保存 capacity 个元素, 之后添加元素时不需要扩容
+     */
+    public void ensureCapacity(int capacity) {
+        int length = capacity();
+        if (capacity > length)
+            resize(Math.max(capacity, length + (length >> 1)));
+    }
+
+    /**
+     * 将容量缩小到当前的元素数量
+     */
+    public void trimToSize() {
+        if (mSize < capacity())
+            resize(mSize);
+    }
+
+    /**
+     * 在 index 处空出一个位置, 由子类写入新元素
+     */
+    final void openGap(int index) {
+        checkPositionIndex(index);
+        ensureCapacity(mSize + 1);
+        Object values = array();
+        System.arraycopy(values, index, values, index + 1, mSize - index);
+        mSize++;
+        modCount++;
+    }
+
+    /**
+     * 在尾部添加 values 中从 offset 开始的 count 个元素, length 为 values 的长度
+     */
+    final void append(Object values, int length, int offset, int count) {
+        if (0 > offset || 0 > count || offset > length - count)
+            throw new IndexOutOfBoundsException("Offset: " + offset + ", Count: " + count);
+        ensureCapacity(mSize + count);
+        System.arraycopy(values, offset, array(), mSize, count);
+        mSize += count;
+        modCount++;
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        if (0 > fromIndex || fromIndex > toIndex || toIndex > mSize)
+            throw new IndexOutOfBoundsException("From: " + fromIndex + ", To: " + toIndex + ", Size: " + mSize);
+        Object values = array();
+        System.arraycopy(values, toIndex, values, fromIndex, mSize - toIndex);
+        mSize -= toIndex - fromIndex;
+        modCount++;
+    }
+
+    @Override
+    public void clear() {
+        mSize = 0;
+        modCount++;
+    }
+
+    @Override
+    public int size() {
+        return mSize;
+    }
+
+}
@@ -0,0 +1,89 @@
+package commonadapter.library;
+
+import android.content.ComponentCallbacks2;
+import android.support.annotation.LayoutRes;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.util.SparseArray;
+import android.util.SparseIntArray;
+
+import java.util.ArrayDeque;
+
+/**
+ * RecycledHolderPool
+ * 可以在多个 CommonAdapter 之间共享的 ViewHolder 池, 按布局 ID 分类保存
+ * 共享同一个池的 Adapter 对相同的布局必须使用相同类型的 ViewHolder,
+ * 池中的 Item 持有创建它的 Context, 不要在不同的 Activity 之间共享
+ */
+@SuppressWarnings("unused")
+public class RecycledHolderPool {
+
+    public static final int DEFAULT_MAX_RECYCLED = 5;
+
+    private final SparseArray<ArrayDeque<ViewHolder>> mHolders = new SparseArray<>();
+    private final SparseIntArray mMaxRecycled = new SparseIntArray();
+
+    /**
+     * 设置指定布局最多保存的 ViewHolder 数量, 默认为 DEFAULT_MAX_RECYCLED
+     */
+    public synchronized void setMaxRecycled(@LayoutRes int layoutId, int max) {
+        mMaxRecycled.put(layoutId, max);
+        ArrayDeque<ViewHolder> holders = mHolders.get(layoutId);
+        while (null != holders && holders.size() > max)
+            holders.poll();
+    }
+
+    /**
+     * 放入一个 ViewHolder, 该布局的数量已达到上限时丢弃并返回 false
+     */
+    public synchronized boolean put(@LayoutRes int layoutId, @NonNull ViewHolder holder) {
+        ArrayDeque<ViewHolder> holders = mHolders.get(layoutId);
+        if (null == holders)
+            mHolders.put(layoutId, holders = new ArrayDeque<>());
+        if (holders.size() >= mMaxRecycled.get(layoutId, DEFAULT_MAX_RECYCLED))
+            return false;
+        holders.push(holder);
+        return true;
+    }
+
+    /**
+     * 取出一个指定布局的 ViewHolder, 没有时返回 null
+     */
+    @Nullable
+    public synchronized ViewHolder get(@LayoutRes int layoutId) {
+        ArrayDeque<ViewHolder> holders = mHolders.get(layoutId);
+        return null == holders ? null : holders.poll();
+    }
+
+    /**
+     * 获取指定布局当前保存的 ViewHolder 数量
+     */
+    public synchronized int size(@LayoutRes int layoutId) {
+        ArrayDeque<ViewHolder> holders = mHolders.get(layoutId);
+        return null == holders ? 0 : holders.size();
+    }
+
+    /**
+     * 清空池中所有的 ViewHolder
+     */
+    public synchronized void clear() {
+        mHolders.clear();
+    }
+
+    /**
+     * 根据内存紧张程度释放 ViewHolder, 在 Application 或 Activity 的 onTrimMemory() 中调用
+     */
+    public synchronized void trimMemory(int level) {
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_BACKGROUND
+                || level == ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL) {
+            clear();
+        } else if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+            for (int i = 0; i < mHolders.size(); i++) {
+                ArrayDeque<ViewHolder> holders = mHolders.valueAt(i);
+                for (int n = holders.size() / 2; n > 0; n--)
+                    holders.poll();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,50 @@
+package commonadapter.library;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * RefCounter
+ * 按对象本身记录引用计数, 最后一个引用释放时通知调用者. 不是线程安全的
+ */
+final class RefCounter<T> {
+
+    private final Map<T, int[]> mCounts = new IdentityHashMap<>();
+
+    /**
+     * 增加一个引用
+     */
+    void retain(T item) {
+        int[] count = mCounts.get(item);
+        if (null == count)
+            mCounts.put(item, count = new int[1]);
+        count[0]++;
+    }
+
+    /**
+     * 释放一个引用, 释放的是最后一个引用时返回 true. 没有引用的对象返回 false
+     */
+    boolean release(T item) {
+        int[] count = mCounts.get(item);
+        if (null == count || 0 != --count[0])
+            return false;
+        mCounts.remove(item);
+        return true;
+    }
+
+    /**
+     * 获取对象当前的引用数
+     */
+    int count(T item) {
+        int[] count = mCounts.get(item);
+        return null == count ? 0 : count[0];
+    }
+
+    /**
+     * 获取有引用的对象数量
+     */
+    int size() {
+        return mCounts.size();
+    }
+
+}
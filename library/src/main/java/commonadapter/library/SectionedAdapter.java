@@ -0,0 +1,299 @@
+package commonadapter.library;
+
+import android.content.Context;
+import android.support.annotation.LayoutRes;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.widget.Filter;
+import android.widget.SectionIndexer;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * SectionedAdapter
+ * 按分组显示数据的 CommonAdapter, 每个分组显示为一个 Header 和该组的所有 Item.
+ * 分组分别保存, 不需要在数据中插入 Header 对象; 位置和分组之间的转换以及分组大小的改变都是 O(log n).
+ * 实现了 SectionIndexer, ListView 开启 FastScroll 时可以显示分组. 只能在主线程修改数据,
+ * 不支持 add() 等修改方法, 使用 addToSection() 等代替
+ *
+ * @param <S> 分组的类型, FastScroll 显示其 toString()
+ * @param <T> Item 的类型
+ */
+@SuppressWarnings("unused")
+public abstract class SectionedAdapter<S, T, H extends ViewHolder> extends CommonAdapter<Object, H>
+        implements SectionIndexer {
+
+    public static final int VIEW_TYPE_HEADER = 0;
+    public static final int VIEW_TYPE_ITEM = 1;
+
+    private final SectionedList<S, T> mSections;
+    private Object[] mSectionArray;
+
+    /**
+     * @param context        Context 对象
+     * @param headerLayoutId 分组 Header 的布局ID
+     * @param itemLayoutId   Item 的布局ID
+     */
+    public SectionedAdapter(@NonNull Context context,
+                            @LayoutRes int headerLayoutId,
+                            @LayoutRes int itemLayoutId) {
+        this(context, new SectionedList<S, T>(), headerLayoutId, itemLayoutId);
+    }
+
+    private SectionedAdapter(Context context, SectionedList<S, T> sections,
+                             int headerLayoutId, int itemLayoutId) {
+        super(context, sections, headerLayoutId, itemLayoutId);
+        mSections = sections;
+    }
+
+    /**
+     * 在最后添加一个分组, 之后修改 items 需要调用 notifySectionChanged()
+     */
+    public void addSection(S section, @NonNull List<T> items) {
+        mSections.addSection(section, items);
+        mSectionArray = null;
+        notifyDataSetChanged();
+    }
+
+    /**
+     * 移除指定的分组
+     */
+    public void removeSection(int section) {
+        mSections.removeSection(section);
+        mSectionArray = null;
+        notifyDataSetChanged();
+    }
+
+    /**
+     * 移除所有分组
+     */
+    public void clearSections() {
+        mSections.clearSections();
+        mSectionArray = null;
+        notifyDataSetChanged();
+    }
+
+    /**
+     * 向指定分组的尾部添加一个 Item
+     */
+    public void addToSection(int section, T item) {
+        mSections.getItems(section).add(item);
+        notifySectionChanged(section);
+    }
+
+    /**
+     * 在指定分组的指定位置插入一个 Item
+     */
+    public void insertToSection(int section, int offset, T item) {
+        mSections.getItems(section).add(offset, item);
+        notifySectionChanged(section);
+    }
+
+    /**
+     * 移除指定分组中指定位置的 Item
+     */
+    public T removeFromSection(int section, int offset) {
+        T item = mSections.getItems(section).remove(offset);
+        notifySectionChanged(section);
+        return item;
+    }
+
+    /**
+     * 直接修改了分组的 Item 列表后调用, 更新分组的大小并通知 ListView
+     */
+    public void notifySectionChanged(int section) {
+        mSections.updateSection(section);
+        notifyDataSetChanged();
+    }
+
+    /**
+     * 获取分组的数量
+     */
+    public int getSectionCount() {
+        return mSections.getSectionCount();
+    }
+
+    /**
+     * 获取指定的分组
+     */
+    public S getSection(int section) {
+        return mSections.getSection(section);
+    }
+
+    /**
+     * 获取指定分组的 Item 列表
+     */
+    public List<T> getSectionItems(int section) {
+        return mSections.getItems(section);
+    }
+
+    /**
+     * 获取指定分组中指定位置的 Item
+     */
+    public T getItemInSection(int section, int offset) {
+        return mSections.getItems(section).get(offset);
+    }
+
+    /**
+     * 判断指定位置是否是分组的 Header
+     */
+    public boolean isHeader(int position) {
+        return 0 == mSections.offsetOf(position);
+    }
+
+    /**
+     * 获取指定位置的 Item 在所在分组中的位置, Header 返回 -1
+     */
+    public int getOffsetInSection(int position) {
+        return mSections.offsetOf(position) - 1;
+    }
+
+    /**
+     * 返回所有分组, 供 FastScroll 显示
+     */
+    @Override
+    public Object[] getSections() {
+        if (null == mSectionArray) {
+            int count = mSections.getSectionCount();
+            mSectionArray = new Object[count];
+            for (int i = 0; i < count; i++)
+                mSectionArray[i] = mSections.getSection(i);
+        }
+        return mSectionArray;
+    }
+
+    /**
+     * 获取分组 Header 的位置, O(log n)
+     */
+    @Override
+    public int getPositionForSection(int section) {
+        int count = mSections.getSectionCount();
+        if (0 == count)
+            return 0;
+        return mSections.positionOf(Math.max(0, Math.min(section, count - 1)));
+    }
+
+    /**
+     * 获取指定位置所在的分组, O(log n)
+     */
+    @Override
+    public int getSectionForPosition(int position) {
+        if (0 == getCount())
+            return 0;
+        return mSections.sectionOf(Math.max(0, Math.min(position, getCount() - 1)));
+    }
+
+    @Override
+    public int getViewTypeCount() {
+        return 2;
+    }
+
+    @Override
+    public int getItemViewType(int position) {
+        return isHeader(position) ? VIEW_TYPE_HEADER : VIEW_TYPE_ITEM;
+    }
+
+    /**
+     * Header 不能被点击
+     */
+    @Override
+    public boolean areAllItemsEnabled() {
+        return false;
+    }
+
+    @Override
+    public boolean isEnabled(int position) {
+        return !isHeader(position);
+    }
+
+    @Override
+    protected final void convert(H holder, int position) {
+        int section = mSections.sectionOf(position);
+        int offset = mSections.offsetOf(position);
+        if (0 == offset)
+            convertHeader(holder, section);
+        else
+            convertItem(holder, section, offset - 1);
+    }
+
+    /**
+     * 设置分组 Header 的数据
+     *
+     * @param holder  Header 布局的 ViewHolder 对象
+     * @param section 分组的位置
+     */
+    protected abstract void convertHeader(H holder, int section);
+
+    /**
+     * 设置 Item 的数据
+     *
+     * @param holder  Item 布局的 ViewHolder 对象
+     * @param section 分组的位置
+     * @param offset  Item 在分组中的位置
+     */
+    protected abstract void convertItem(H holder, int section, int offset);
+
+    /**
+     * 数据按分组保存, 不能直接设置
+     */
+    @Override
+    public void setData(List<Object> data) {
+        throw new UnsupportedOperationException("SectionedAdapter keeps its data in sections.");
+    }
+
+    /**
+     * 数据按分组保存, 不能直接设置
+     */
+    @Override
+    public void submitData(@NonNull List<Object> data) {
+        throw new UnsupportedOperationException("SectionedAdapter keeps its data in sections.");
+    }
+
+    /**
+     * 分组数据不支持并发模式
+     */
+    @Override
+    public void setConcurrentMode(boolean concurrent) {
+        if (concurrent)
+            throw new UnsupportedOperationException("SectionedAdapter is main-thread only.");
+    }
+
+    /**
+     * 分组数据不支持排序模式, 需要时对每个分组的 Item 列表排序后调用 notifySectionChanged()
+     */
+    @Override
+    public void setSortComparator(@Nullable Comparator<? super Object> comparator) {
+        if (null != comparator)
+            throw new UnsupportedOperationException("SectionedAdapter cannot sort across sections.");
+    }
+
+    /**
+     * Header 和 Item 各使用一种布局, getViewTypeCount() 固定为 2, 不能再注册其他布局
+     */
+    @Override
+    public <E> void register(@NonNull Class<E> clazz,
+                             @LayoutRes int layoutId,
+                             @NonNull ItemBinder<? super E, ? super H> binder) {
+        throw new UnsupportedOperationException("SectionedAdapter uses a header and an item layout only.");
+    }
+
+    /**
+     * Header 和 Item 各使用一种布局, getViewTypeCount() 固定为 2, 不能再注册其他布局
+     */
+    @Override
+    public void register(@NonNull ItemMatcher<? super Object> matcher,
+                         @LayoutRes int layoutId,
+                         @NonNull ItemBinder<? super Object, ? super H> binder) {
+        throw new UnsupportedOperationException("SectionedAdapter uses a header and an item layout only.");
+    }
+
+    /**
+     * 分组数据不支持过滤
+     */
+    @Override
+    public Filter getFilter() {
+        throw new UnsupportedOperationException("SectionedAdapter cannot filter sections.");
+    }
+
+}
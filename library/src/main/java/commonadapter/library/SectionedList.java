@@ -0,0 +1,134 @@
+package commonadapter.library;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * SectionedList
+ * SectionedAdapter 使用的分组数据, 每个分组依次展开为一个 Header 和该组的所有 Item
+ * 用树状数组保存每组展开后的大小, 位置和分组之间的转换都是 O(log n), 只能在主线程访问
+ */
+final class SectionedList<S, T> extends AbstractList<Object> implements RandomAccess {
+
+    private final List<S> mSections = new ArrayList<>();
+    private final List<List<T>> mItems = new ArrayList<>();
+    private int[] mSizes = new int[16];
+    private final FenwickTree mTree = new FenwickTree();
+
+    private int mLastSection = -1;
+    private int mLastStart;
+
+    @Override
+    public Object get(int index) {
+        int section = sectionOf(index);
+        int offset = index - mLastStart;
+        return 0 == offset ? mSections.get(section) : mItems.get(section).get(offset - 1);
+    }
+
+    @Override
+    public int size() {
+        return mTree.prefixSum(mTree.size());
+    }
+
+    /**
+     * 获取分组的数量
+     */
+    int getSectionCount() {
+        return mSections.size();
+    }
+
+    /**
+     * 获取指定的分组
+     */
+    S getSection(int section) {
+        return mSections.get(section);
+    }
+
+    /**
+     * 获取指定分组的 Item 列表
+     */
+    List<T> getItems(int section) {
+        return mItems.get(section);
+    }
+
+    /**
+     * 获取 index 所在的分组, 同时记录该组 Header 的位置
+     */
+    int sectionOf(int index) {
+        if (0 > index)
+            throw new IndexOutOfBoundsException("Index: " + index);
+        if (-1 != mLastSection && index >= mLastStart && index < mLastStart + mSizes[mLastSection])
+            return mLastSection;
+        int section = mTree.find(index);
+        if (section >= mSections.size())
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        mLastSection = section;
+        mLastStart = mTree.prefixSum(section);
+        return section;
+    }
+
+    /**
+     * 获取 index 在所在分组中的偏移, 0 表示 Header, 之后依次是该组的 Item
+     */
+    int offsetOf(int index) {
+        sectionOf(index);
+        return index - mLastStart;
+    }
+
+    /**
+     * 获取分组 Header 的位置
+     */
+    int positionOf(int section) {
+        return mTree.prefixSum(section);
+    }
+
+    void addSection(S section, List<T> items) {
+        int index = mSections.size();
+        mSections.add(section);
+        mItems.add(items);
+        if (index == mSizes.length) {
+            int[] sizes = new int[index * 2];
+            System.arraycopy(mSizes, 0, sizes, 0, index);
+            mSizes = sizes;
+        }
+        mSizes[index] = 1 + items.size();
+        mTree.append(mSizes[index]);
+        changed();
+    }
+
+    void removeSection(int section) {
+        mSections.remove(section);
+        mItems.remove(section);
+        int count = mSections.size();
+        System.arraycopy(mSizes, section + 1, mSizes, section, count - section);
+        mTree.build(mSizes, count);
+        changed();
+    }
+
+    /**
+     * 分组中的 Item 数量改变后更新树状数组
+     */
+    void updateSection(int section) {
+        int size = 1 + mItems.get(section).size();
+        if (size == mSizes[section])
+            return;
+        mTree.add(section, size - mSizes[section]);
+        mSizes[section] = size;
+        changed();
+    }
+
+    void clearSections() {
+        mSections.clear();
+        mItems.clear();
+        mTree.build(mSizes, 0);
+        changed();
+    }
+
+    private void changed() {
+        mLastSection = -1;
+        modCount++;
+    }
+
+}
@@ -0,0 +1,128 @@
+package commonadapter.library;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * SizedLruCache
+ * 按 sizeOf() 计算的总大小限制容量的 LRU 缓存, 与 android.util.LruCache 的行为相同.
+ * 不依赖 Android 的类型, 可以直接在 JVM 上测试. 不是线程安全的, DefaultImageBinder 只在主线程中访问
+ */
+abstract class SizedLruCache<K, V> {
+
+    private final LinkedHashMap<K, V> mMap = new LinkedHashMap<>(0, 0.75f, true);
+    private final int mMaxSize;
+    private int mSize;
+    private int mHitCount;
+    private int mMissCount;
+    private int mEvictionCount;
+
+    SizedLruCache(int maxSize) {
+        if (0 >= maxSize)
+            throw new IllegalArgumentException("maxSize <= 0");
+        mMaxSize = maxSize;
+    }
+
+    /**
+     * 一个条目的大小, 放入后不能改变
+     */
+    abstract int sizeOf(K key, V value);
+
+    /**
+     * 条目被移除或替换时调用, evicted 表示是否因为超出容量而移除, newValue 为替换它的值
+     */
+    void entryRemoved(boolean evicted, K key, V oldValue, V newValue) {
+    }
+
+    private int safeSizeOf(K key, V value) {
+        int size = sizeOf(key, value);
+        if (0 > size)
+            throw new IllegalStateException("Negative size: " + key + "=" + value);
+        return size;
+    }
+
+    /**
+     * 获取 key 对应的值并移到最近使用的位置, 没有时返回 null
+     */
+    final V get(K key) {
+        V value = mMap.get(key);
+        if (null == value)
+            mMissCount++;
+        else
+            mHitCount++;
+        return value;
+    }
+
+    /**
+     * 放入一个条目, 返回被替换的值, 之后移除最久没有使用的条目直到不超出容量
+     */
+    final V put(K key, V value) {
+        mSize += safeSizeOf(key, value);
+        V previous = mMap.put(key, value);
+        if (null != previous) {
+            mSize -= safeSizeOf(key, previous);
+            entryRemoved(false, key, previous, value);
+        }
+        trimToSize(mMaxSize);
+        return previous;
+    }
+
+    /**
+     * 移除 key 对应的条目, 返回被移除的值
+     */
+    final V remove(K key) {
+        V previous = mMap.remove(key);
+        if (null != previous) {
+            mSize -= safeSizeOf(key, previous);
+            entryRemoved(false, key, previous, null);
+        }
+        return previous;
+    }
+
+    /**
+     * 移除最久没有使用的条目, 直到总大小不超过 maxSize
+     */
+    final void trimToSize(int maxSize) {
+        while (mSize > maxSize && !mMap.isEmpty()) {
+            Iterator<Map.Entry<K, V>> iterator = mMap.entrySet().iterator();
+            Map.Entry<K, V> eldest = iterator.next();
+            iterator.remove();
+            mSize -= safeSizeOf(eldest.getKey(), eldest.getValue());
+            mEvictionCount++;
+            entryRemoved(true, eldest.getKey(), eldest.getValue(), null);
+        }
+    }
+
+    /**
+     * 移除所有条目
+     */
+    final void evictAll() {
+        trimToSize(-1);
+    }
+
+    final int size() {
+        return mSize;
+    }
+
+    final int maxSize() {
+        return mMaxSize;
+    }
+
+    final int count() {
+        return mMap.size();
+    }
+
+    final int hitCount() {
+        return mHitCount;
+    }
+
+    final int missCount() {
+        return mMissCount;
+    }
+
+    final int evictionCount() {
+        return mEvictionCount;
+    }
+
+}
@@ -0,0 +1,86 @@
+package commonadapter.library;
+
+import java.util.Iterator;
+import java.util.LinkedList;
+
+/**
+ * SizedPool
+ * 按 sizeOf() 计算的总大小限制容量的重用池, 超出时丢弃最早放入的对象, 取出时优先使用最近放入的.
+ * 不依赖 Android 的类型, 可以直接在 JVM 上测试. 可以在任意线程访问
+ *
+ * @param <T> 重用的对象
+ * @param <R> 描述需要什么样的对象的请求
+ */
+abstract class SizedPool<T, R> {
+
+    private final LinkedList<T> mItems = new LinkedList<>();
+    private final int mMaxSize;
+    private int mSize;
+    private int mReuseCount;
+
+    SizedPool(int maxSize) {
+        mMaxSize = maxSize;
+    }
+
+    /**
+     * 对象的大小, 放入后不能改变
+     */
+    abstract int sizeOf(T item);
+
+    /**
+     * 判断 item 是否可以满足 request
+     */
+    abstract boolean canReuse(T item, R request);
+
+    /**
+     * 放入一个不再使用的对象, 单个对象超出上限时直接丢弃
+     */
+    synchronized void put(T item) {
+        int size = sizeOf(item);
+        if (size > mMaxSize)
+            return;
+        mItems.addFirst(item);
+        mSize += size;
+        while (mSize > mMaxSize)
+            mSize -= sizeOf(mItems.removeLast());
+    }
+
+    /**
+     * 取出一个可以满足 request 的对象, 没有时返回 null
+     */
+    synchronized T get(R request) {
+        for (Iterator<T> iterator = mItems.iterator(); iterator.hasNext(); ) {
+            T item = iterator.next();
+            if (canReuse(item, request)) {
+                iterator.remove();
+                mSize -= sizeOf(item);
+                mReuseCount++;
+                return item;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 获取 get() 成功取出对象的次数
+     */
+    synchronized int getReuseCount() {
+        return mReuseCount;
+    }
+
+    /**
+     * 获取池中对象的总大小
+     */
+    synchronized int size() {
+        return mSize;
+    }
+
+    /**
+     * 丢弃所有的对象
+     */
+    synchronized void clear() {
+        mItems.clear();
+        mSize = 0;
+    }
+
+}
@@ -0,0 +1,246 @@
+package commonadapter.library;
+
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * SnapshotList
+ * DataSnapshot.restore() 返回的列表, 在 get() 时从映射的文件中解码 Item, 最近解码的 Item 会被缓存.
+ * 可以直接作为 Adapter 的数据; 第一次被修改时解码全部 Item 并改为普通列表. 可以在任意线程访问
+ */
+@SuppressWarnings("unused")
+public final class SnapshotList<T> extends AbstractList<T> implements RandomAccess {
+
+    /**
+     * 缓存最近解码的 Item, 一次 getView() 会多次调用 getItem()
+     */
+    private static final int CACHE_SIZE = 256;
+
+    private ByteBuffer mBuffer;
+    private final int mCount;
+    private final int mIndexOffset;
+    private final ItemCodec<T> mCodec;
+    private Object[] mCache = new Object[CACHE_SIZE];
+    private int[] mCachePositions = new int[CACHE_SIZE];
+    private List<T> mItems;
+
+    SnapshotList(ByteBuffer buffer, int count, int indexOffset, ItemCodec<T> codec) {
+        mBuffer = buffer;
+        mCount = count;
+        mIndexOffset = indexOffset;
+        mCodec = codec;
+        Arrays.fill(mCachePositions, -1);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public synchronized T get(int index) {
+        if (null != mItems)
+            return mItems.get(index);
+        if (index >= mCount || 0 > index)
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + mCount);
+        int slot = index & (CACHE_SIZE - 1);
+        if (mCachePositions[slot] == index)
+            return (T) mCache[slot];
+        T item = decode(index);
+        mCachePositions[slot] = index;
+        mCache[slot] = item;
+        return item;
+    }
+
+    private T decode(int index) {
+        int start = mBuffer.getInt(mIndexOffset + 4 * index);
+        int end = mBuffer.getInt(mIndexOffset + 4 * index + 4);
+        if (start < DataSnapshot.HEADER_SIZE || end < start || end > mIndexOffset)
+            throw new IllegalStateException("Corrupted snapshot index at " + index);
+        try {
+            return mCodec.decode(new BufferInput(mBuffer, start, end));
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot decode snapshot item " + index, e);
+        }
+    }
+
+    @Override
+    public synchronized int size() {
+        return null == mItems ? mCount : mItems.size();
+    }
+
+    /**
+     * 判断是否已经解码全部 Item 并改为普通列表
+     */
+    public synchronized boolean isMaterialized() {
+        return null != mItems;
+    }
+
+    /**
+     * 解码全部 Item, 之后不再使用文件
+     */
+    private List<T> materialize() {
+        if (null == mItems) {
+            List<T> items = new ArrayList<>(mCount);
+            for (int i = 0; i < mCount; i++)
+                items.add(get(i));
+            mItems = items;
+            mBuffer = null;
+            mCache = null;
+            mCachePositions = null;
+        }
+        return mItems;
+    }
+
+    @Override
+    public synchronized T set(int index, T element) {
+        return materialize().set(index, element);
+    }
+
+    @Override
+    public synchronized void add(int index, T element) {
+        materialize().add(index, element);
+        modCount++;
+    }
+
+    @Override
+    public synchronized T remove(int index) {
+        T item = materialize().remove(index);
+        modCount++;
+        return item;
+    }
+
+    @Override
+    public synchronized void clear() {
+        mItems = new ArrayList<>();
+        mBuffer = null;
+        mCache = null;
+        mCachePositions = null;
+        modCount++;
+    }
+
+    /**
+     * 读取映射文件中一个 Item 的数据, 只使用绝对位置读取, 不修改共享的 ByteBuffer
+     */
+    private static final class BufferInput implements DataInput {
+
+        private final ByteBuffer mBuffer;
+        private int mPosition;
+        private final int mEnd;
+
+        BufferInput(ByteBuffer buffer, int start, int end) {
+            mBuffer = buffer;
+            mPosition = start;
+            mEnd = end;
+        }
+
+        private int advance(int count) throws EOFException {
+            if (mEnd - mPosition < count)
+                throw new EOFException();
+            int position = mPosition;
+            mPosition += count;
+            return position;
+        }
+
+        @Override
+        public void readFully(byte[] b) throws IOException {
+            readFully(b, 0, b.length);
+        }
+
+        @Override
+        public void readFully(byte[] b, int off, int len) throws IOException {
+            ByteBuffer buffer = mBuffer.duplicate();
+            buffer.position(advance(len));
+            buffer.get(b, off, len);
+        }
+
+        @Override
+        public int skipBytes(int n) {
+            int skipped = Math.max(0, Math.min(n, mEnd - mPosition));
+            mPosition += skipped;
+            return skipped;
+        }
+
+        @Override
+        public boolean readBoolean() throws IOException {
+            return 0 != mBuffer.get(advance(1));
+        }
+
+        @Override
+        public byte readByte() throws IOException {
+            return mBuffer.get(advance(1));
+        }
+
+        @Override
+        public int readUnsignedByte() throws IOException {
+            return mBuffer.get(advance(1)) & 0xFF;
+        }
+
+        @Override
+        public short readShort() throws IOException {
+            return mBuffer.getShort(advance(2));
+        }
+
+        @Override
+        public int readUnsignedShort() throws IOException {
+            return mBuffer.getShort(advance(2)) & 0xFFFF;
+        }
+
+        @Override
+        public char readChar() throws IOException {
+            return mBuffer.getChar(advance(2));
+        }
+
+        @Override
+        public int readInt() throws IOException {
+            return mBuffer.getInt(advance(4));
+        }
+
+        @Override
+        public long readLong() throws IOException {
+            return mBuffer.getLong(advance(8));
+        }
+
+        @Override
+        public float readFloat() throws IOException {
+            return mBuffer.getFloat(advance(4));
+        }
+
+        @Override
+        public double readDouble() throws IOException {
+            return mBuffer.getDouble(advance(8));
+        }
+
+        /**
+         * 按 ISO-8859-1 读取一行, 与 DataInputStream 相同
+         */
+        @Override
+        public String readLine() throws IOException {
+            if (mPosition >= mEnd)
+                return null;
+            StringBuilder builder = new StringBuilder();
+            while (mPosition < mEnd) {
+                char c = (char) (mBuffer.get(mPosition++) & 0xFF);
+                if ('\n' == c)
+                    break;
+                if ('\r' == c) {
+                    if (mPosition < mEnd && '\n' == mBuffer.get(mPosition))
+                        mPosition++;
+                    break;
+                }
+                builder.append(c);
+            }
+            return builder.toString();
+        }
+
+        @Override
+        public String readUTF() throws IOException {
+            return DataInputStream.readUTF(this);
+        }
+    }
+
+}
@@ -0,0 +1,75 @@
+package commonadapter.library;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * SortedLists
+ * 在有序列表中插入元素的工具方法, 列表需要支持快速随机访问
+ */
+final class SortedLists {
+
+    private SortedLists() {
+    }
+
+    /**
+     * 二分查找 item 在有序列表中的插入位置, 相等的元素插入到已有元素之后, 保持插入顺序
+     */
+    static <T> int insertionIndex(List<T> list, T item, Comparator<? super T> comparator) {
+        int low = 0;
+        int high = list.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (comparator.compare(list.get(mid), item) <= 0)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+
+    /**
+     * 将 item 插入到有序列表中, 插入后列表仍然有序
+     */
+    static <T> void insert(List<T> list, T item, Comparator<? super T> comparator) {
+        list.add(insertionIndex(list, item, comparator), item);
+    }
+
+    /**
+     * 将 collection 中的元素合并到有序列表中, 插入后列表仍然有序
+     * 先对 k 个新元素排序, 再和列表中第一个新元素插入位置之后的部分归并, 复杂度为 O(n + k log k)
+     */
+    static <T> void merge(List<T> list, Collection<? extends T> collection,
+                          Comparator<? super T> comparator) {
+        if (collection.isEmpty())
+            return;
+        List<T> batch = new ArrayList<>(collection);
+        if (1 == batch.size()) {
+            insert(list, batch.get(0), comparator);
+            return;
+        }
+        Collections.sort(batch, comparator);
+        int start = insertionIndex(list, batch.get(0), comparator);
+        List<T> range = list.subList(start, list.size());
+        List<T> tail = new ArrayList<>(range);
+        range.clear();
+        int i = 0;
+        int j = 0;
+        int tailSize = tail.size();
+        int batchSize = batch.size();
+        while (i < tailSize && j < batchSize) {
+            if (comparator.compare(batch.get(j), tail.get(i)) < 0)
+                list.add(batch.get(j++));
+            else
+                list.add(tail.get(i++));
+        }
+        if (i < tailSize)
+            list.addAll(tail.subList(i, tailSize));
+        if (j < batchSize)
+            list.addAll(batch.subList(j, batchSize));
+    }
+
+}
@@ -0,0 +1,226 @@
+package commonadapter.library;
+
+import android.annotation.TargetApi;
+import android.graphics.Typeface;
+import android.os.Build;
+import android.support.annotation.IdRes;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.WorkerThread;
+import android.text.Layout;
+import android.text.Spanned;
+import android.text.TextPaint;
+import android.text.TextUtils;
+import android.util.LruCache;
+import android.util.SparseArray;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * TextPrecomputer
+ * 在后台线程中为即将显示在 PrecomputedTextView 中的文字预先创建 StaticLayout, 结果保存在按条目数限制大小的 LRU 缓存中.
+ * 绑定时命中的 Layout 直接交给 PrecomputedTextView 绘制, 主线程中不再测量文字,
+ * 在没有 PrecomputedText 的系统上得到相近的效果. 普通的 TextView 不使用预先计算的结果.
+ * PrecomputedTextView 的字体, 字号, 宽度等参数在绑定时按 viewId 记录, 因此只能预计算已经绑定过的 viewId 的文字.
+ * 除后台创建 StaticLayout 以外都在主线程中进行, 通过 {@link DefaultAdapter#setTextPrecomputer} 使用
+ */
+@SuppressWarnings("unused")
+public class TextPrecomputer {
+
+    private static final int DEFAULT_MAX_ENTRIES = 256;
+
+    private final SparseArray<Params> mParams = new SparseArray<>();
+    private final LruCache<Key, Layout> mCache;
+    private final Set<Key> mPending = new HashSet<>();
+    private final Key mProbe = new Key();
+    private int mHitCount;
+    private int mMissCount;
+    private int mPrecomputeCount;
+
+    public TextPrecomputer() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * @param maxEntries 最多缓存的 StaticLayout 数量
+     */
+    public TextPrecomputer(int maxEntries) {
+        mCache = new LruCache<>(maxEntries);
+    }
+
+    /**
+     * 在后台线程中为 viewId 对应的 PrecomputedTextView 预先计算文字布局, 通常在 ItemPrefetcher.prefetch() 中调用
+     * 带样式的文字按对象本身匹配, 之后 setText() 需要传入同一个对象才能命中; 普通文字按内容匹配
+     */
+    public void precompute(@IdRes int viewId, @Nullable CharSequence text) {
+        Params params = mParams.get(viewId);
+        if (null == params || TextUtils.isEmpty(text))
+            return;
+        final Key key = new Key().set(params, text);
+        if (mPending.contains(key) || null != mCache.get(key))
+            return;
+        mPending.add(key);
+        AdapterExecutors.background().execute(new Runnable() {
+            @Override
+            public void run() {
+                final Layout layout = key.mParams.build(key.mText);
+                AdapterExecutors.postToMainThread(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (mPending.remove(key)) {
+                            mPrecomputeCount++;
+                            mCache.put(key, layout);
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * 获取已经预先计算好的文字布局, 没有时返回 null
+     * 其他自定义 View 也可以直接绘制返回的 Layout, 不需要再次测量
+     */
+    @Nullable
+    public Layout getLayout(@IdRes int viewId, @Nullable CharSequence text) {
+        Params params = mParams.get(viewId);
+        if (null == params || TextUtils.isEmpty(text))
+            return null;
+        Layout layout = mCache.get(mProbe.set(params, text));
+        mProbe.clear();
+        return layout;
+    }
+
+    /**
+     * 为 PrecomputedTextView 设置文字, 已经预先计算时直接使用创建好的 Layout,
+     * 同时记录 View 当前的参数并统计是否命中预先计算的结果
+     */
+    void setText(@NonNull PrecomputedTextView view, int viewId, CharSequence text) {
+        Params params = mParams.get(viewId);
+        int width = view.getContentWidth();
+        if (0 < width && (null == params || !params.matches(view.getPaint(), width)))
+            mParams.put(viewId, params = new Params(view.getPaint(), width));
+        Layout layout = null;
+        if (null != params && !TextUtils.isEmpty(text)) {
+            layout = mCache.get(mProbe.set(params, text));
+            mProbe.clear();
+            if (null != layout)
+                mHitCount++;
+            else
+                mMissCount++;
+        }
+        if (null == layout)
+            view.setText(text);
+        else
+            view.setLayout(layout);
+    }
+
+    /**
+     * 获取 setText() 时已经预先计算好的次数
+     */
+    public int getHitCount() {
+        return mHitCount;
+    }
+
+    /**
+     * 获取 setText() 时没有预先计算的次数
+     */
+    public int getMissCount() {
+        return mMissCount;
+    }
+
+    /**
+     * 获取在后台完成预先计算的次数
+     */
+    public int getPrecomputeCount() {
+        return mPrecomputeCount;
+    }
+
+    /**
+     * 清空缓存的文字布局和记录的 PrecomputedTextView 参数, 正在进行的预先计算的结果会被丢弃
+     */
+    public void clear() {
+        mCache.evictAll();
+        mPending.clear();
+        mParams.clear();
+    }
+
+    /**
+     * 创建 StaticLayout 需要的 PrecomputedTextView 参数, 创建后不再修改, 可以在后台线程中使用
+     */
+    private static final class Params {
+
+        final TextPaint mPaint;
+        final int mWidth;
+
+        Params(TextPaint paint, int width) {
+            mPaint = new TextPaint();
+            mPaint.set(paint);
+            mWidth = width;
+        }
+
+        /**
+         * 判断 View 当前的参数是否和记录的一致, 颜色也会被 Layout 使用, 需要一致
+         */
+        boolean matches(TextPaint paint, int width) {
+            Typeface typeface = paint.getTypeface();
+            return mWidth == width && mPaint.getTextSize() == paint.getTextSize()
+                    && mPaint.getColor() == paint.getColor()
+                    && mPaint.getTextScaleX() == paint.getTextScaleX()
+                    && mPaint.getFlags() == paint.getFlags()
+                    && (null == typeface ? null == mPaint.getTypeface() : typeface.equals(mPaint.getTypeface()))
+                    && (Build.VERSION.SDK_INT < Build.VERSION_CODES.LOLLIPOP
+                    || letterSpacing(mPaint) == letterSpacing(paint));
+        }
+
+        @WorkerThread
+        Layout build(CharSequence text) {
+            // TextPaint 不是线程安全的, 同一组参数的多个任务依次使用
+            synchronized (mPaint) {
+                return PrecomputedTextView.buildLayout(text, mPaint, mWidth);
+            }
+        }
+
+        @TargetApi(Build.VERSION_CODES.LOLLIPOP)
+        private static float letterSpacing(TextPaint paint) {
+            return paint.getLetterSpacing();
+        }
+    }
+
+    /**
+     * 缓存的键, 由 PrecomputedTextView 参数和文字组成. 带样式的文字按对象本身比较, 其他文字按内容比较
+     */
+    private static final class Key {
+
+        Params mParams;
+        CharSequence mText;
+
+        Key set(Params params, CharSequence text) {
+            mParams = params;
+            mText = text instanceof Spanned ? text : text.toString();
+            return this;
+        }
+
+        void clear() {
+            mParams = null;
+            mText = null;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key))
+                return false;
+            Key key = (Key) o;
+            return mParams == key.mParams
+                    && (mText instanceof Spanned ? mText == key.mText : mText.equals(key.mText));
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = mText instanceof Spanned ? System.identityHashCode(mText) : mText.hashCode();
+            return 31 * System.identityHashCode(mParams) + hash;
+        }
+    }
+
+}
@@ -0,0 +1,165 @@
+package commonadapter.library;
+
+/**
+ * ViewCache
+ * viewId 到 View 的开放寻址哈希表, 每个 findView 对应一个, 查找时不分配内存
+ * 不依赖 Android 的类型, View 以 Object 保存, 由 DefaultViewHolder 负责转换, 可以直接在 JVM 上测试和基准测试
+ */
+final class ViewCache {
+
+    private static final int MIN_CAPACITY = 8;
+
+    static final int SHADOW_TEXT_RES = 0;
+    static final int SHADOW_IMAGE_RES = 1;
+    static final int SHADOW_BACKGROUND_RES = 2;
+    private static final int SHADOW_COUNT = 3;
+
+    private int[] mKeys;
+    private Object[] mViews;
+    private int mMask;
+    private int mSize;
+
+    // 每个 View 最后一次写入的属性值, mShadowFlags 的第 n 位表示第 n 个属性是否有记录
+    private int[] mShadowValues;
+    private int[] mShadowFlags;
+
+    ViewCache() {
+        this(MIN_CAPACITY / 2);
+    }
+
+    ViewCache(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < expectedSize * 2)
+            capacity <<= 1;
+        mKeys = new int[capacity];
+        mViews = new Object[capacity];
+        mMask = capacity - 1;
+    }
+
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * 获取缓存的 View, 没有缓存时返回 null
+     */
+    Object get(int viewId) {
+        final int[] keys = mKeys;
+        final Object[] views = mViews;
+        final int mask = mMask;
+        int i = hash(viewId) & mask;
+        Object view;
+        while (null != (view = views[i])) {
+            if (keys[i] == viewId)
+                return view;
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * 获取 viewId 所在的位置, 没有缓存时返回 -1
+     */
+    private int indexOf(int viewId) {
+        int i = hash(viewId) & mMask;
+        while (null != mViews[i]) {
+            if (mKeys[i] == viewId)
+                return i;
+            i = (i + 1) & mMask;
+        }
+        return -1;
+    }
+
+    /**
+     * 缓存一个 View, view 不能为 null
+     */
+    void put(int viewId, Object view) {
+        int i = hash(viewId) & mMask;
+        while (null != mViews[i]) {
+            if (mKeys[i] == viewId) {
+                mViews[i] = view;
+                return;
+            }
+            i = (i + 1) & mMask;
+        }
+        mKeys[i] = viewId;
+        mViews[i] = view;
+        if (++mSize * 2 > mKeys.length)
+            resize(mKeys.length * 2);
+    }
+
+    /**
+     * 判断已缓存的 View 最后一次写入的属性值是否等于 value
+     */
+    boolean hasShadow(int viewId, int property, int value) {
+        if (null == mShadowFlags)
+            return false;
+        int i = indexOf(viewId);
+        return -1 != i && 0 != (mShadowFlags[i] & (1 << property))
+                && mShadowValues[i * SHADOW_COUNT + property] == value;
+    }
+
+    /**
+     * 记录已缓存的 View 最后一次写入的属性值
+     */
+    void setShadow(int viewId, int property, int value) {
+        int i = indexOf(viewId);
+        if (-1 == i)
+            return;
+        if (null == mShadowFlags) {
+            mShadowFlags = new int[mKeys.length];
+            mShadowValues = new int[mKeys.length * SHADOW_COUNT];
+        }
+        mShadowFlags[i] |= 1 << property;
+        mShadowValues[i * SHADOW_COUNT + property] = value;
+    }
+
+    /**
+     * 清除已缓存的 View 某个属性的记录, 该属性被其他方式修改时调用
+     */
+    void clearShadow(int viewId, int property) {
+        if (null == mShadowFlags)
+            return;
+        int i = indexOf(viewId);
+        if (-1 != i)
+            mShadowFlags[i] &= ~(1 << property);
+    }
+
+    /**
+     * 清除所有属性的记录
+     */
+    void clearShadows() {
+        mShadowFlags = null;
+        mShadowValues = null;
+    }
+
+    private void resize(int capacity) {
+        int[] oldKeys = mKeys;
+        Object[] oldViews = mViews;
+        int[] oldFlags = mShadowFlags;
+        int[] oldValues = mShadowValues;
+        mKeys = new int[capacity];
+        mViews = new Object[capacity];
+        mMask = capacity - 1;
+        if (null != oldFlags) {
+            mShadowFlags = new int[capacity];
+            mShadowValues = new int[capacity * SHADOW_COUNT];
+        }
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (null == oldViews[i])
+                continue;
+            int j = hash(oldKeys[i]) & mMask;
+            while (null != mViews[j])
+                j = (j + 1) & mMask;
+            mKeys[j] = oldKeys[i];
+            mViews[j] = oldViews[i];
+            if (null != oldFlags) {
+                mShadowFlags[j] = oldFlags[i];
+                System.arraycopy(oldValues, i * SHADOW_COUNT,
+                        mShadowValues, j * SHADOW_COUNT, SHADOW_COUNT);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,169 @@
+package commonadapter.library;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 批量修改和按帧合并时通知 ListView 的次数
+ * 单元测试中没有 Looper 和 Choreographer, 按帧合并时由 MainTasks 执行发送到主线程的任务,
+ * API 16 以上的帧回调直接调用 doFrame() 代替下一帧
+ */
+public class BatchNotifyTest {
+
+    private StringAdapter mAdapter;
+    private CountingMetricsListener mCounter;
+    private final MainTasks mMainTasks = new MainTasks();
+
+    @Before
+    public void setUp() {
+        mAdapter = new StringAdapter();
+        mCounter = new CountingMetricsListener();
+        mAdapter.setMetricsListener(mCounter);
+    }
+
+    @After
+    public void tearDown() {
+        AdapterExecutors.setMainThread(null, null);
+    }
+
+    @Test
+    public void notifiesOncePerEdit() {
+        mAdapter.add("a");
+        mAdapter.add("b");
+        mAdapter.remove(0);
+        assertEquals(3, mCounter.mNotifies);
+    }
+
+    @Test
+    public void batchNotifiesOnceAtEnd() {
+        mAdapter.beginBatch();
+        mAdapter.add("a");
+        mAdapter.addAll(Arrays.asList("b", "c"));
+        mAdapter.remove(0);
+        mAdapter.notifyDataSetChanged();
+        assertEquals(0, mCounter.mNotifies);
+        mAdapter.endBatch();
+        assertEquals(1, mCounter.mNotifies);
+        assertEquals(Arrays.asList("b", "c"), mAdapter.getData());
+    }
+
+    @Test
+    public void nestedBatchNotifiesOnceAtOutermostEnd() {
+        mAdapter.beginBatch();
+        mAdapter.add("a");
+        mAdapter.beginBatch();
+        mAdapter.add("b");
+        mAdapter.endBatch();
+        assertEquals(0, mCounter.mNotifies);
+        mAdapter.add("c");
+        mAdapter.endBatch();
+        assertEquals(1, mCounter.mNotifies);
+    }
+
+    @Test
+    public void emptyBatchDoesNotNotify() {
+        mAdapter.beginBatch();
+        mAdapter.endBatch();
+        assertEquals(0, mCounter.mNotifies);
+    }
+
+    @Test
+    public void batchRunnableNotifiesOnce() {
+        mAdapter.batch(new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < 100; i++)
+                    mAdapter.add(String.valueOf(i));
+            }
+        });
+        assertEquals(1, mCounter.mNotifies);
+        assertEquals(100, mAdapter.getCount());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void unbalancedEndBatchThrows() {
+        mAdapter.endBatch();
+    }
+
+    @Test
+    public void notifyOnFrameDispatchesOnceWhenPostedTaskRuns() {
+        AdapterExecutors.setMainThread(Thread.currentThread(), mMainTasks);
+        mAdapter.setNotifyOnFrame(true);
+        mAdapter.add("a");
+        mAdapter.add("b");
+        assertEquals(0, mCounter.mNotifies);
+        assertEquals(1, mMainTasks.size());
+        mMainTasks.runAll();
+        assertEquals(1, mCounter.mNotifies);
+
+        mAdapter.setNotifyOnFrame(false);
+        mAdapter.add("c");
+        assertEquals(2, mCounter.mNotifies);
+        assertEquals(0, mMainTasks.size());
+    }
+
+    @Test
+    public void frameNotifierCoalescesUntilFrame() {
+        FrameNotifier notifier = new FrameNotifier(mAdapter);
+        notifier.schedule();
+        notifier.schedule();
+        notifier.schedule();
+        assertEquals(0, mCounter.mNotifies);
+        notifier.run();
+        assertEquals(1, mCounter.mNotifies);
+        notifier.schedule();
+        notifier.run();
+        assertEquals(2, mCounter.mNotifies);
+    }
+
+    /**
+     * API 16 以上的行为: 非主线程的请求发送到主线程注册帧回调, 在 doFrame() 时分发.
+     * 单元测试中没有 Choreographer, 直接调用 doFrame() 代替下一帧
+     */
+    @Test
+    public void frameCallbackDispatchesOnDoFrame() {
+        AdapterExecutors.setMainThread(new Thread(), mMainTasks);
+        FrameNotifier notifier = new FrameNotifier(mAdapter, true);
+        notifier.schedule();
+        notifier.schedule();
+        assertEquals(1, mMainTasks.size());
+        FrameNotifier.FrameCallback callback = (FrameNotifier.FrameCallback) mMainTasks.mTasks.get(0);
+        assertEquals(0, mCounter.mNotifies);
+        callback.doFrame(0);
+        assertEquals(1, mCounter.mNotifies);
+
+        // 分发后新的请求重新注册
+        mMainTasks.mTasks.clear();
+        notifier.schedule();
+        assertEquals(1, mMainTasks.size());
+        callback.doFrame(0);
+        assertEquals(2, mCounter.mNotifies);
+    }
+
+    static final class StringAdapter extends CommonAdapter<String, ViewHolder> {
+
+        StringAdapter() {
+            super(null, new ArrayList<String>(), 1);
+        }
+
+        @Override
+        protected ViewHolder getHolder(LayoutInflater inflater, View convertView, ViewGroup parent, int layoutId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        protected void convert(ViewHolder holder, int position) {
+        }
+    }
+
+}
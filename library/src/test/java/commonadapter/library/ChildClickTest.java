@@ -0,0 +1,247 @@
+package commonadapter.library;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 子视图点击监听的设置和移除: 修改注册, 取消注册, Item 在不同 Adapter 之间切换时不残留旧的监听
+ */
+public class ChildClickTest {
+
+    private static final int TITLE = 1;
+    private static final int ICON = 2;
+
+    private final List<String> mClicks = new ArrayList<>();
+    private final CommonAdapter.OnItemChildClickListener<String, TestHolder> mClickListener =
+            new CommonAdapter.OnItemChildClickListener<String, TestHolder>() {
+                @Override
+                public void onItemChildClick(TestHolder holder, int viewId, int position, String item) {
+                    mClicks.add(viewId + ":" + position + ":" + item);
+                }
+            };
+    private final CommonAdapter.OnItemChildLongClickListener<String, TestHolder> mLongClickListener =
+            new CommonAdapter.OnItemChildLongClickListener<String, TestHolder>() {
+                @Override
+                public boolean onItemChildLongClick(TestHolder holder, int viewId, int position, String item) {
+                    mClicks.add("long " + viewId + ":" + position + ":" + item);
+                    return true;
+                }
+            };
+    private ClickAdapter mAdapter;
+
+    @Before
+    public void setUp() {
+        mAdapter = new ClickAdapter("a", "b", "c");
+    }
+
+    @Test
+    public void clickDispatchesCurrentPosition() {
+        mAdapter.setOnItemChildClickListener(mClickListener, TITLE);
+        View item = mAdapter.getView(0, null, null);
+        ClickView title = mAdapter.child(item, TITLE);
+        assertTrue(title.isClickable());
+        title.performClick();
+        mAdapter.getView(2, item, null);
+        title.performClick();
+        assertEquals(Arrays.asList("1:0:a", "1:2:c"), mClicks);
+        assertNull(mAdapter.child(item, ICON).mClickListener);
+    }
+
+    @Test
+    public void listenerIsSharedAcrossRebinds() {
+        mAdapter.setOnItemChildClickListener(mClickListener, TITLE);
+        View item = mAdapter.getView(0, null, null);
+        View.OnClickListener listener = mAdapter.child(item, TITLE).mClickListener;
+        mAdapter.getView(1, item, null);
+        assertSame(listener, mAdapter.child(item, TITLE).mClickListener);
+        assertEquals(1, mAdapter.child(item, TITLE).mSetCount);
+    }
+
+    @Test
+    public void unregisterRemovesInstalledListeners() {
+        mAdapter.setOnItemChildClickListener(mClickListener, TITLE);
+        mAdapter.setOnItemChildLongClickListener(mLongClickListener, ICON);
+        View item = mAdapter.getView(0, null, null);
+        mAdapter.setOnItemChildClickListener(null);
+        mAdapter.setOnItemChildLongClickListener(null);
+        mAdapter.getView(0, item, null);
+        ClickView title = mAdapter.child(item, TITLE);
+        ClickView icon = mAdapter.child(item, ICON);
+        assertNull(title.mClickListener);
+        assertFalse(title.isClickable());
+        assertNull(icon.mLongClickListener);
+        assertFalse(icon.isLongClickable());
+    }
+
+    @Test
+    public void changedIdsRemoveOnlyStaleListeners() {
+        mAdapter.setOnItemChildClickListener(mClickListener, TITLE, ICON);
+        View item = mAdapter.getView(0, null, null);
+        mAdapter.setOnItemChildClickListener(mClickListener, ICON);
+        mAdapter.getView(0, item, null);
+        assertNull(mAdapter.child(item, TITLE).mClickListener);
+        assertFalse(mAdapter.child(item, TITLE).isClickable());
+        assertTrue(mAdapter.child(item, ICON).isClickable());
+        mAdapter.child(item, ICON).performClick();
+        assertEquals(Arrays.asList("2:0:a"), mClicks);
+    }
+
+    @Test
+    public void itemMovedToOtherAdapterDropsListeners() {
+        ClickAdapter other = new ClickAdapter("x", "y");
+        mAdapter.setOnItemChildClickListener(mClickListener, TITLE);
+        // 两个 Adapter 的注册版本相同, 只能通过设置监听的 Adapter 区分
+        other.setOnItemChildLongClickListener(mLongClickListener, ICON);
+        View item = mAdapter.getView(0, null, null);
+        other.mChildren.put(item, mAdapter.mChildren.get(item));
+
+        other.getView(1, item, null);
+        ClickView title = mAdapter.child(item, TITLE);
+        ClickView icon = mAdapter.child(item, ICON);
+        assertNull(title.mClickListener);
+        assertFalse(title.isClickable());
+        assertTrue(icon.performLongClick());
+
+        mAdapter.getView(2, item, null);
+        assertNull(icon.mLongClickListener);
+        assertFalse(icon.isLongClickable());
+        title.performClick();
+        assertEquals(Arrays.asList("long 2:1:y", "1:2:c"), mClicks);
+    }
+
+    @Test
+    public void staleDispatchIsIgnored() {
+        mAdapter.setOnItemChildClickListener(mClickListener, TITLE, ICON);
+        View item = mAdapter.getView(2, null, null);
+        HolderState state = HolderState.of(item);
+        mAdapter.remove(2);
+        mAdapter.dispatchChildClick(state, TITLE);
+        mAdapter.getView(1, item, null);
+        mAdapter.setOnItemChildClickListener(mClickListener, ICON);
+        // 注册已经修改, 还没有重新绑定的 Item 中旧的子视图不再分发
+        mAdapter.dispatchChildClick(state, TITLE);
+        mAdapter.dispatchChildClick(state, ICON);
+        assertEquals(Arrays.asList("2:1:b"), mClicks);
+    }
+
+    private static final class ClickAdapter extends CommonAdapter<String, TestHolder> {
+
+        final Map<View, Map<Integer, ClickView>> mChildren = new HashMap<>();
+
+        ClickAdapter(String... items) {
+            super(null, new ArrayList<>(Arrays.asList(items)), 1);
+        }
+
+        ClickView child(View convertView, int viewId) {
+            Map<Integer, ClickView> children = mChildren.get(convertView);
+            if (null == children)
+                mChildren.put(convertView, children = new HashMap<>());
+            ClickView view = children.get(viewId);
+            if (null == view)
+                children.put(viewId, view = new ClickView(viewId));
+            return view;
+        }
+
+        @Override
+        View findChildView(View convertView, int viewId) {
+            return child(convertView, viewId);
+        }
+
+        @Override
+        protected TestHolder getHolder(LayoutInflater inflater, View convertView, ViewGroup parent, int layoutId) {
+            return null == convertView ? new TestHolder() : (TestHolder) HolderState.of(convertView).mHolder;
+        }
+
+        @Override
+        protected void convert(TestHolder holder, int position) {
+        }
+    }
+
+    /**
+     * 记录监听和可点击状态的子视图, 与 View 一样设置监听时变为可点击
+     */
+    private static final class ClickView extends View {
+
+        private final int mId;
+        OnClickListener mClickListener;
+        OnLongClickListener mLongClickListener;
+        boolean mClickable;
+        boolean mLongClickable;
+        int mSetCount;
+
+        ClickView(int id) {
+            super(null);
+            mId = id;
+        }
+
+        @Override
+        public int getId() {
+            return mId;
+        }
+
+        @Override
+        public void setOnClickListener(OnClickListener l) {
+            mSetCount++;
+            mClickListener = l;
+            if (null != l)
+                mClickable = true;
+        }
+
+        @Override
+        public void setOnLongClickListener(OnLongClickListener l) {
+            mLongClickListener = l;
+            if (null != l)
+                mLongClickable = true;
+        }
+
+        @Override
+        public void setClickable(boolean clickable) {
+            mClickable = clickable;
+        }
+
+        @Override
+        public void setLongClickable(boolean longClickable) {
+            mLongClickable = longClickable;
+        }
+
+        @Override
+        public boolean isClickable() {
+            return mClickable;
+        }
+
+        @Override
+        public boolean isLongClickable() {
+            return mLongClickable;
+        }
+
+        @Override
+        public boolean performClick() {
+            if (null == mClickListener)
+                return false;
+            mClickListener.onClick(this);
+            return true;
+        }
+
+        @Override
+        public boolean performLongClick() {
+            return null != mLongClickListener && mLongClickListener.onLongClick(this);
+        }
+    }
+
+}
@@ -0,0 +1,115 @@
+package commonadapter.library;
+
+import android.database.DataSetObserver;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * ConcatAdapter 的位置映射, ViewType 区间和观察子 Adapter 的时机
+ */
+public class ConcatAdapterTest {
+
+    private TextAdapter mFirst;
+    private TextAdapter mEmpty;
+    private TextAdapter mLast;
+    private ConcatAdapter mAdapter;
+
+    @Before
+    public void setUp() {
+        mFirst = new TextAdapter(Arrays.asList("a", "b"), 1);
+        mEmpty = new TextAdapter(new ArrayList<String>(), 2);
+        mLast = new TextAdapter(Arrays.asList("c", "d", "e"), 3, 4);
+        mAdapter = new ConcatAdapter(mFirst, mEmpty, mLast);
+    }
+
+    @Test
+    public void positionsMapToChildren() {
+        assertEquals(5, mAdapter.getCount());
+        assertEquals(0, mAdapter.getAdapterIndex(1));
+        assertEquals(2, mAdapter.getAdapterIndex(2));
+        assertEquals(0, mAdapter.getLocalPosition(2));
+        assertEquals(2, mAdapter.getLocalPosition(4));
+        assertEquals("e", mAdapter.getItem(4));
+        assertEquals(2, mAdapter.getAdapterStart(1));
+        assertEquals(2, mAdapter.getAdapterStart(2));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void positionPastEndThrows() {
+        mAdapter.getAdapterIndex(5);
+    }
+
+    @Test
+    public void viewTypesAreOffsetPerChild() {
+        assertEquals(4, mAdapter.getViewTypeCount());
+        assertEquals(0, mAdapter.getItemViewType(0));
+        assertEquals(2, mAdapter.getItemViewType(2));
+    }
+
+    @Test
+    public void childrenCanRegisterUntilObserved() {
+        mLast.register(Integer.class, 5, new ItemBinder<Integer, ViewHolder>() {
+            @Override
+            public void bind(ViewHolder holder, Integer item, int position) {
+            }
+        });
+        mAdapter.registerDataSetObserver(new DataSetObserver() {
+        });
+        assertEquals(5, mAdapter.getViewTypeCount());
+        try {
+            mLast.register(Long.class, 6, new ItemBinder<Long, ViewHolder>() {
+                @Override
+                public void bind(ViewHolder holder, Long item, int position) {
+                }
+            });
+            throw new AssertionError("register() after observed");
+        } catch (IllegalStateException expected) {
+            // 设置给 ListView 之后不能再增加布局
+        }
+    }
+
+    @Test
+    public void countsAreReloadedWhenObserved() {
+        TextAdapter growing = new TextAdapter(new ArrayList<String>(), 1);
+        ConcatAdapter adapter = new ConcatAdapter(mFirst, growing);
+        assertEquals(2, adapter.getCount());
+        // 没有观察子 Adapter 时的修改在第一个观察者注册后生效
+        growing.getData().add("x");
+        adapter.registerDataSetObserver(new DataSetObserver() {
+        });
+        assertEquals(3, adapter.getCount());
+        assertEquals("x", adapter.getItem(2));
+    }
+
+    private static final class TextAdapter extends CommonAdapter<Object, ViewHolder> {
+
+        TextAdapter(List<? extends Object> data, int... layoutIds) {
+            super(null, new ArrayList<Object>(data), layoutIds);
+        }
+
+        @Override
+        public int getItemViewType(int position) {
+            return position % getViewTypeCount();
+        }
+
+        @Override
+        protected ViewHolder getHolder(LayoutInflater inflater, View convertView, ViewGroup parent, int layoutId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        protected void convert(ViewHolder holder, int position) {
+        }
+    }
+
+}
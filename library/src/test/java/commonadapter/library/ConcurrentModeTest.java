@@ -0,0 +1,105 @@
+package commonadapter.library;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * 并发模式下在后台线程修改数据: 测试线程作为主线程, 发送到主线程的任务放入队列, 由测试决定何时执行
+ */
+public class ConcurrentModeTest {
+
+    private final MainTasks mMainTasks = new MainTasks();
+    private BatchNotifyTest.StringAdapter mAdapter;
+    private CountingMetricsListener mCounter;
+
+    @Before
+    public void setUp() {
+        AdapterExecutors.setMainThread(Thread.currentThread(), mMainTasks);
+        mAdapter = new BatchNotifyTest.StringAdapter();
+        mCounter = new CountingMetricsListener();
+        mAdapter.setMetricsListener(mCounter);
+        mAdapter.setConcurrentMode(true);
+    }
+
+    @After
+    public void tearDown() {
+        AdapterExecutors.setMainThread(null, null);
+    }
+
+    private void runInBackground(Runnable action) throws InterruptedException {
+        Thread thread = new Thread(action);
+        thread.start();
+        thread.join();
+    }
+
+    private void addInBackground(final String... items) throws InterruptedException {
+        runInBackground(new Runnable() {
+            @Override
+            public void run() {
+                for (String item : items)
+                    mAdapter.add(item);
+            }
+        });
+    }
+
+    @Test
+    public void backgroundAddIsInvisibleUntilPublished() throws InterruptedException {
+        List<String> shown = mAdapter.getData();
+        addInBackground("a", "b");
+        assertSame(shown, mAdapter.getData());
+        assertEquals(0, mAdapter.getCount());
+        assertEquals(0, mCounter.mNotifies);
+        // 多次修改只发送一次发布
+        assertEquals(1, mMainTasks.size());
+
+        mMainTasks.runAll();
+        assertEquals(Arrays.asList("a", "b"), mAdapter.getData());
+        assertEquals(Collections.<String>emptyList(), shown);
+        assertEquals(1, mCounter.mNotifies);
+    }
+
+    @Test
+    public void publishDuringBatchWaitsForEndBatch() throws InterruptedException {
+        mAdapter.beginBatch();
+        addInBackground("a");
+        mMainTasks.runAll();
+        assertEquals(0, mAdapter.getCount());
+        assertEquals(0, mCounter.mNotifies);
+
+        mAdapter.endBatch();
+        assertEquals(Arrays.asList("a"), mAdapter.getData());
+        assertEquals(1, mCounter.mNotifies);
+    }
+
+    @Test
+    public void disablingConcurrentModePublishesPendingEdits() throws InterruptedException {
+        addInBackground("a");
+        mAdapter.setConcurrentMode(false);
+        assertEquals(Arrays.asList("a"), mAdapter.getData());
+        assertEquals(1, mCounter.mNotifies);
+
+        // 已经发送的发布没有需要发布的数据
+        mMainTasks.runAll();
+        assertEquals(1, mCounter.mNotifies);
+        mAdapter.add("b");
+        assertEquals(Arrays.asList("a", "b"), mAdapter.getData());
+        assertEquals(2, mCounter.mNotifies);
+    }
+
+    @Test
+    public void mainThreadEditPublishesImmediately() {
+        mAdapter.add("a");
+        assertEquals(Arrays.asList("a"), mAdapter.getData());
+        assertEquals(1, mCounter.mNotifies);
+        assertEquals(0, mMainTasks.size());
+    }
+
+}
@@ -0,0 +1,40 @@
+package commonadapter.library;
+
+/**
+ * 单元测试使用的 MetricsListener, 只统计每种事件的次数.
+ * 单元测试中 BaseAdapter 的 DataSetObservable 是空实现, 通过 mNotifies 统计实际分发的通知
+ */
+final class CountingMetricsListener implements MetricsListener {
+
+    int mInflates;
+    int mReuses;
+    int mBinds;
+    int mSkips;
+    int mNotifies;
+
+    @Override
+    public void onInflate(int layoutId, long nanos) {
+        mInflates++;
+    }
+
+    @Override
+    public void onReuse(int layoutId, boolean fromPool) {
+        mReuses++;
+    }
+
+    @Override
+    public void onBind(int layoutId, long nanos) {
+        mBinds++;
+    }
+
+    @Override
+    public void onBindSkipped(int layoutId) {
+        mSkips++;
+    }
+
+    @Override
+    public void onNotifyDataSetChanged() {
+        mNotifies++;
+    }
+
+}
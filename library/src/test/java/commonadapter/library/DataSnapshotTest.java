@@ -0,0 +1,323 @@
+package commonadapter.library;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * DataSnapshot 保存和恢复的正确性: 大量数据往返, 版本不同, 文件截断或损坏, 第一次修改时解码全部 Item
+ */
+public class DataSnapshotTest {
+
+    private static final ItemCodec<Row> CODEC = new RowCodec(1);
+
+    private File mFile;
+
+    @Before
+    public void setUp() throws IOException {
+        mFile = File.createTempFile("snapshot", ".bin");
+    }
+
+    @After
+    public void tearDown() {
+        if (!mFile.delete())
+            mFile.deleteOnExit();
+    }
+
+    @Test
+    public void millionRowsRoundTrip() throws IOException {
+        final int size = 1000000;
+        // 按位置生成 Item, 不需要在内存中保存全部原始数据
+        List<Row> rows = new AbstractList<Row>() {
+            @Override
+            public Row get(int index) {
+                return row(index);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+        DataSnapshot.save(rows, mFile, CODEC);
+        SnapshotList<Row> restored = DataSnapshot.restore(mFile, CODEC);
+        assertEquals(size, restored.size());
+        for (int i = 0; i < size; i++)
+            assertEquals(row(i), restored.get(i));
+        // 倒序访问不会命中缓存, 需要重新解码
+        for (int i = size - 1; i >= 0; i -= 997)
+            assertEquals(row(i), restored.get(i));
+        assertFalse(restored.isMaterialized());
+    }
+
+    @Test
+    public void emptyListRoundTrip() throws IOException {
+        DataSnapshot.save(new ArrayList<Row>(), mFile, CODEC);
+        assertEquals(0, DataSnapshot.restore(mFile, CODEC).size());
+    }
+
+    @Test
+    public void getChecksBounds() throws IOException {
+        DataSnapshot.save(rows(3), mFile, CODEC);
+        SnapshotList<Row> restored = DataSnapshot.restore(mFile, CODEC);
+        for (int index : new int[]{-1, 3}) {
+            try {
+                restored.get(index);
+                fail("get(" + index + ")");
+            } catch (IndexOutOfBoundsException ignored) {
+            }
+        }
+    }
+
+    @Test
+    public void versionMismatchFails() throws IOException {
+        DataSnapshot.save(rows(10), mFile, CODEC);
+        assertRestoreFails(new RowCodec(2));
+    }
+
+    @Test
+    public void wrongMagicFails() throws IOException {
+        DataSnapshot.save(rows(10), mFile, CODEC);
+        writeInt(0, 0x12345678);
+        assertRestoreFails(CODEC);
+    }
+
+    @Test
+    public void wrongFormatVersionFails() throws IOException {
+        DataSnapshot.save(rows(10), mFile, CODEC);
+        writeInt(4, DataSnapshot.FORMAT_VERSION + 1);
+        assertRestoreFails(CODEC);
+    }
+
+    @Test
+    public void truncatedFileFails() throws IOException {
+        DataSnapshot.save(rows(100), mFile, CODEC);
+        long length = mFile.length();
+        for (long truncated : new long[]{length - 1, length - 4, length / 2, DataSnapshot.HEADER_SIZE + 3, 0}) {
+            DataSnapshot.save(rows(100), mFile, CODEC);
+            RandomAccessFile file = new RandomAccessFile(mFile, "rw");
+            try {
+                file.setLength(truncated);
+            } finally {
+                file.close();
+            }
+            assertRestoreFails(CODEC);
+        }
+    }
+
+    @Test
+    public void corruptedCountFails() throws IOException {
+        for (int count : new int[]{-1, 11, Integer.MAX_VALUE}) {
+            DataSnapshot.save(rows(10), mFile, CODEC);
+            writeInt(12, count);
+            assertRestoreFails(CODEC);
+        }
+    }
+
+    @Test
+    public void corruptedIndexFailsOnGet() throws IOException {
+        DataSnapshot.save(rows(10), mFile, CODEC);
+        long indexOffset = mFile.length() - 4 * 11;
+        // 第 3 个 Item 的起始位置, 也就是第 2 个 Item 的结束位置指向文件头
+        writeInt(indexOffset + 4 * 3, 0);
+        SnapshotList<Row> restored = DataSnapshot.restore(mFile, CODEC);
+        assertEquals(row(1), restored.get(1));
+        for (int index : new int[]{2, 3}) {
+            try {
+                restored.get(index);
+                fail("get(" + index + ")");
+            } catch (IllegalStateException ignored) {
+            }
+        }
+        assertEquals(row(4), restored.get(4));
+    }
+
+    @Test
+    public void corruptedItemFailsOnGet() throws IOException {
+        DataSnapshot.save(rows(10), mFile, CODEC);
+        long indexOffset = mFile.length() - 4 * 11;
+        RandomAccessFile file = new RandomAccessFile(mFile, "rw");
+        int start;
+        try {
+            file.seek(indexOffset + 4 * 5);
+            start = file.readInt();
+        } finally {
+            file.close();
+        }
+        // 字符串长度超出 Item 的范围, 解码时读到下一个 Item 之前停止
+        writeShort(start + 16, 0x7FFF);
+        SnapshotList<Row> restored = DataSnapshot.restore(mFile, CODEC);
+        try {
+            restored.get(5);
+            fail();
+        } catch (IllegalStateException ignored) {
+        }
+        assertEquals(row(6), restored.get(6));
+    }
+
+    @Test
+    public void failedSaveKeepsPreviousSnapshot() throws IOException {
+        DataSnapshot.save(rows(5), mFile, CODEC);
+        List<Row> rows = rows(5);
+        rows.add(null);
+        try {
+            DataSnapshot.save(rows, mFile, CODEC);
+            fail();
+        } catch (NullPointerException ignored) {
+        }
+        assertEquals(rows(5), new ArrayList<>(DataSnapshot.restore(mFile, CODEC)));
+        assertFalse(new File(mFile.getPath() + ".tmp").exists());
+    }
+
+    @Test
+    public void firstMutationMaterializes() throws IOException {
+        DataSnapshot.save(rows(1000), mFile, CODEC);
+        SnapshotList<Row> restored = DataSnapshot.restore(mFile, CODEC);
+        assertEquals(row(10), restored.get(10));
+        assertFalse(restored.isMaterialized());
+        restored.add(row(-1));
+        assertTrue(restored.isMaterialized());
+        // 解码全部 Item 后不再读取文件, 覆盖文件不影响列表
+        DataSnapshot.save(rows(1), mFile, new RowCodec(1));
+        List<Row> expected = rows(1000);
+        expected.add(row(-1));
+        assertEquals(expected, restored);
+        restored.remove(0);
+        expected.remove(0);
+        restored.set(0, row(-2));
+        expected.set(0, row(-2));
+        assertEquals(expected, restored);
+    }
+
+    @Test
+    public void setMaterializes() throws IOException {
+        DataSnapshot.save(rows(3), mFile, CODEC);
+        SnapshotList<Row> restored = DataSnapshot.restore(mFile, CODEC);
+        assertEquals(row(1), restored.set(1, row(9)));
+        assertTrue(restored.isMaterialized());
+        assertEquals(Arrays.asList(row(0), row(9), row(2)), restored);
+    }
+
+    @Test
+    public void clearDropsSnapshot() throws IOException {
+        DataSnapshot.save(rows(3), mFile, CODEC);
+        SnapshotList<Row> restored = DataSnapshot.restore(mFile, CODEC);
+        restored.clear();
+        assertTrue(restored.isMaterialized());
+        assertEquals(0, restored.size());
+        restored.add(row(7));
+        assertEquals(Arrays.asList(row(7)), restored);
+    }
+
+    private void assertRestoreFails(ItemCodec<Row> codec) {
+        try {
+            DataSnapshot.restore(mFile, codec);
+            fail("restore() should fail");
+        } catch (IOException ignored) {
+        }
+    }
+
+    private void writeInt(long position, int value) throws IOException {
+        RandomAccessFile file = new RandomAccessFile(mFile, "rw");
+        try {
+            file.seek(position);
+            file.writeInt(value);
+        } finally {
+            file.close();
+        }
+    }
+
+    private void writeShort(long position, int value) throws IOException {
+        RandomAccessFile file = new RandomAccessFile(mFile, "rw");
+        try {
+            file.seek(position);
+            file.writeShort(value);
+        } finally {
+            file.close();
+        }
+    }
+
+    private static Row row(int index) {
+        return new Row(1000003L * index, index * 0.25, "Item #" + index);
+    }
+
+    private static List<Row> rows(int count) {
+        List<Row> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++)
+            rows.add(row(i));
+        return rows;
+    }
+
+    private static final class RowCodec implements ItemCodec<Row> {
+
+        private final int mVersion;
+
+        RowCodec(int version) {
+            mVersion = version;
+        }
+
+        @Override
+        public int version() {
+            return mVersion;
+        }
+
+        @Override
+        public void encode(Row item, DataOutput out) throws IOException {
+            out.writeLong(item.mId);
+            out.writeDouble(item.mValue);
+            out.writeUTF(item.mTitle);
+        }
+
+        @Override
+        public Row decode(DataInput in) throws IOException {
+            return new Row(in.readLong(), in.readDouble(), in.readUTF());
+        }
+    }
+
+    private static final class Row {
+
+        final long mId;
+        final double mValue;
+        final String mTitle;
+
+        Row(long id, double value, String title) {
+            mId = id;
+            mValue = value;
+            mTitle = title;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Row))
+                return false;
+            Row row = (Row) o;
+            return mId == row.mId && 0 == Double.compare(mValue, row.mValue) && mTitle.equals(row.mTitle);
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) (mId ^ (mId >>> 32));
+        }
+
+        @Override
+        public String toString() {
+            return mId + "/" + mValue + "/" + mTitle;
+        }
+    }
+
+}
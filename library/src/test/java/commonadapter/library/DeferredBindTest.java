@@ -0,0 +1,113 @@
+package commonadapter.library;
+
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 推迟的绑定在 Item 重新绑定, 回收以及 notifyDataSetChanged() 重新布局时的取消情况
+ */
+public class DeferredBindTest {
+
+    private DeferringAdapter mAdapter;
+    private ListViewHooks mHooks;
+
+    @Before
+    public void setUp() {
+        mAdapter = new DeferringAdapter();
+        mHooks = new ListViewHooks();
+    }
+
+    private void runFrame() {
+        mAdapter.getDeferredBindQueue().run();
+    }
+
+    @Test
+    public void deferredBindRunsAfterFrame() {
+        mAdapter.getView(0, null, null);
+        mAdapter.getView(1, null, null);
+        assertEquals(0, mAdapter.mDeferred.size());
+        runFrame();
+        assertEquals(Arrays.asList(0, 1), mAdapter.mDeferred);
+    }
+
+    @Test
+    public void rebindCancelsPendingBind() {
+        View view = mAdapter.getView(0, null, null);
+        mAdapter.getView(2, view, null);
+        runFrame();
+        assertEquals(Arrays.asList(2), mAdapter.mDeferred);
+    }
+
+    @Test
+    public void notifyWithStableIdsKeepsPendingBind() {
+        View view = mAdapter.getView(0, null, null);
+        mAdapter.add(100);
+        mHooks.onMovedToScrapHeap(view);
+        mAdapter.getView(0, view, null);
+        mHooks.recycleScrapped();
+        assertEquals(1, mAdapter.mConvertCount);
+        runFrame();
+        assertEquals(Arrays.asList(0), mAdapter.mDeferred);
+    }
+
+    @Test
+    public void recycledItemCancelsPendingBindAndRebinds() {
+        View view = mAdapter.getView(0, null, null);
+        mHooks.onMovedToScrapHeap(view);
+        mHooks.recycleScrapped();
+        runFrame();
+        assertEquals(0, mAdapter.mDeferred.size());
+
+        mAdapter.getView(0, view, null);
+        assertEquals(2, mAdapter.mConvertCount);
+        runFrame();
+        assertEquals(Arrays.asList(0), mAdapter.mDeferred);
+    }
+
+    @Test
+    public void budgetSpreadsBindsOverFrames() {
+        mAdapter.setDeferredBindBudget(1);
+        mAdapter.mSlow = true;
+        mAdapter.getView(0, null, null);
+        mAdapter.getView(1, null, null);
+        mAdapter.getView(2, null, null);
+        runFrame();
+        assertEquals(1, mAdapter.mDeferred.size());
+        runFrame();
+        runFrame();
+        assertEquals(Arrays.asList(0, 1, 2), mAdapter.mDeferred);
+    }
+
+    private static final class DeferringAdapter extends NumberAdapter {
+
+        final List<Integer> mDeferred = new ArrayList<>();
+        boolean mSlow;
+
+        private final DeferredBinder<TestHolder> mBinder = new DeferredBinder<TestHolder>() {
+            @Override
+            public void bind(TestHolder holder, int position) {
+                mDeferred.add(position);
+                if (mSlow) {
+                    long end = System.nanoTime() + 2000000;
+                    while (System.nanoTime() < end)
+                        Thread.yield();
+                }
+            }
+        };
+
+        @Override
+        protected void convert(TestHolder holder, int position) {
+            super.convert(holder, position);
+            deferBind(holder, position, mBinder);
+        }
+    }
+
+}
@@ -0,0 +1,158 @@
+package commonadapter.library;
+
+import android.database.DataSetObserver;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * 按类型和 ItemMatcher 查找 ItemBinder 的优先级, 以及查找结果缓存的失效
+ */
+public class DelegateRegistryTest {
+
+    private static final int LAYOUT_DEFAULT = 1;
+    private static final int LAYOUT_NUMBER = 2;
+    private static final int LAYOUT_INTEGER = 3;
+    private static final int LAYOUT_CHARS = 4;
+    private static final int LAYOUT_MATCHED = 5;
+
+    private DelegateRegistry mRegistry;
+    private final List<Object> mMatched = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        mRegistry = new DelegateRegistry(new int[]{LAYOUT_DEFAULT});
+    }
+
+    private static ItemBinder<Object, ViewHolder> binder() {
+        return new ItemBinder<Object, ViewHolder>() {
+            @Override
+            public void bind(ViewHolder holder, Object item, int position) {
+            }
+        };
+    }
+
+    /**
+     * 匹配 value 的 ItemMatcher, 调用时记录检查过的 Item
+     */
+    private ItemMatcher<Object> matcher(final Object value) {
+        return new ItemMatcher<Object>() {
+            @Override
+            public boolean matches(Object item) {
+                mMatched.add(value);
+                return value.equals(item);
+            }
+        };
+    }
+
+    @Test
+    public void exactRegistrationBeatsSupertype() {
+        ItemBinder<Object, ViewHolder> number = binder();
+        ItemBinder<Object, ViewHolder> integer = binder();
+        mRegistry.register(Number.class, LAYOUT_NUMBER, number);
+        mRegistry.register(Integer.class, LAYOUT_INTEGER, integer);
+        assertSame(integer, mRegistry.getBinder(1));
+        assertSame(number, mRegistry.getBinder(1L));
+        assertEquals(LAYOUT_INTEGER, mRegistry.getLayoutId(mRegistry.getViewType(1)));
+        assertEquals(LAYOUT_NUMBER, mRegistry.getLayoutId(mRegistry.getViewType(1L)));
+    }
+
+    @Test
+    public void exactRegistrationBeatsInterface() {
+        ItemBinder<Object, ViewHolder> chars = binder();
+        ItemBinder<Object, ViewHolder> string = binder();
+        mRegistry.register(CharSequence.class, LAYOUT_CHARS, chars);
+        mRegistry.register(String.class, LAYOUT_DEFAULT, string);
+        assertSame(string, mRegistry.getBinder("a"));
+        assertSame(chars, mRegistry.getBinder(new StringBuilder("a")));
+        assertEquals(0, mRegistry.getViewType("a"));
+    }
+
+    @Test
+    public void firstAssignableRegistrationWins() {
+        ItemBinder<Object, ViewHolder> object = binder();
+        ItemBinder<Object, ViewHolder> number = binder();
+        mRegistry.register(Object.class, LAYOUT_DEFAULT, object);
+        mRegistry.register(Number.class, LAYOUT_NUMBER, number);
+        assertSame(object, mRegistry.getBinder(1));
+    }
+
+    @Test
+    public void matchersRunInOrderBeforeClassLookup() {
+        ItemBinder<Object, ViewHolder> integer = binder();
+        ItemBinder<Object, ViewHolder> first = binder();
+        ItemBinder<Object, ViewHolder> second = binder();
+        mRegistry.register(Integer.class, LAYOUT_INTEGER, integer);
+        mRegistry.register(matcher(2), LAYOUT_MATCHED, first);
+        mRegistry.register(matcher(1), LAYOUT_MATCHED, second);
+        assertSame(second, mRegistry.getBinder(1));
+        assertEquals(2, mMatched.size());
+        assertEquals(2, mMatched.get(0));
+        assertEquals(1, mMatched.get(1));
+
+        mMatched.clear();
+        assertSame(integer, mRegistry.getBinder(3));
+        assertEquals(2, mMatched.size());
+        // 同一个布局只占用一个 ViewType
+        assertEquals(3, mRegistry.getViewTypeCount());
+    }
+
+    @Test
+    public void matcherAddedLaterBeatsCachedClassLookup() {
+        ItemBinder<Object, ViewHolder> integer = binder();
+        ItemBinder<Object, ViewHolder> matched = binder();
+        mRegistry.register(Integer.class, LAYOUT_INTEGER, integer);
+        assertSame(integer, mRegistry.getBinder(1));
+        mRegistry.register(matcher(1), LAYOUT_MATCHED, matched);
+        assertSame(matched, mRegistry.getBinder(1));
+        assertSame(integer, mRegistry.getBinder(2));
+    }
+
+    @Test
+    public void lastClassShortcutFollowsItemClass() {
+        ItemBinder<Object, ViewHolder> integer = binder();
+        ItemBinder<Object, ViewHolder> chars = binder();
+        mRegistry.register(Integer.class, LAYOUT_INTEGER, integer);
+        mRegistry.register(CharSequence.class, LAYOUT_CHARS, chars);
+        assertSame(integer, mRegistry.getBinder(1));
+        assertSame(chars, mRegistry.getBinder("a"));
+        assertSame(integer, mRegistry.getBinder(2));
+        assertNull(mRegistry.getBinder(1L));
+        assertEquals(-1, mRegistry.getViewType(1L));
+        assertSame(chars, mRegistry.getBinder("b"));
+    }
+
+    @Test
+    public void registrationInvalidatesCachedLookup() {
+        ItemBinder<Object, ViewHolder> number = binder();
+        ItemBinder<Object, ViewHolder> integer = binder();
+        mRegistry.register(Number.class, LAYOUT_NUMBER, number);
+        assertSame(number, mRegistry.getBinder(1));
+        mRegistry.register(Integer.class, LAYOUT_INTEGER, integer);
+        assertSame(integer, mRegistry.getBinder(1));
+    }
+
+    @Test
+    public void nullItemHasNoBinder() {
+        mRegistry.register(Object.class, LAYOUT_DEFAULT, binder());
+        assertNull(mRegistry.getBinder(null));
+        assertEquals(-1, mRegistry.getViewType(null));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void registerThrowsAfterObserverAttached() {
+        BatchNotifyTest.StringAdapter adapter = new BatchNotifyTest.StringAdapter();
+        adapter.register(String.class, LAYOUT_CHARS, binder());
+        adapter.registerDataSetObserver(new DataSetObserver() {
+        });
+        adapter.register(matcher("a"), LAYOUT_MATCHED, binder());
+    }
+
+}
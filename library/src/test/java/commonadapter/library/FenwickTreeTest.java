@@ -0,0 +1,90 @@
+package commonadapter.library;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * FenwickTree 的前缀和与查找, 与直接累加的朴素实现比较
+ */
+public class FenwickTreeTest {
+
+    @Test
+    public void emptyTree() {
+        FenwickTree tree = new FenwickTree();
+        assertEquals(0, tree.size());
+        assertEquals(0, tree.prefixSum(0));
+        assertEquals(0, tree.find(0));
+    }
+
+    @Test
+    public void findSkipsZeroValues() {
+        FenwickTree tree = new FenwickTree();
+        tree.append(0);
+        tree.append(2);
+        tree.append(0);
+        tree.append(1);
+        assertEquals(1, tree.find(0));
+        assertEquals(1, tree.find(1));
+        assertEquals(3, tree.find(2));
+        assertEquals(4, tree.find(3));
+    }
+
+    @Test
+    public void randomOperationsMatchNaiveModel() {
+        Random random = new Random(3);
+        FenwickTree tree = new FenwickTree();
+        List<Integer> values = new ArrayList<>();
+        for (int step = 0; step < 5000; step++) {
+            int op = random.nextInt(10);
+            if (op < 5 || values.isEmpty()) {
+                int value = random.nextInt(6);
+                tree.append(value);
+                values.add(value);
+            } else if (op < 9) {
+                int index = random.nextInt(values.size());
+                int delta = random.nextInt(5) - Math.min(2, values.get(index));
+                tree.add(index, delta);
+                values.set(index, values.get(index) + delta);
+            } else {
+                int count = random.nextInt(values.size() + 1);
+                int[] array = new int[count + 3];
+                for (int i = 0; i < count; i++)
+                    array[i] = values.get(i);
+                tree.build(array, count);
+                values = new ArrayList<>(values.subList(0, count));
+            }
+            assertMatches(values, tree);
+        }
+    }
+
+    private static void assertMatches(List<Integer> values, FenwickTree tree) {
+        assertEquals(values.size(), tree.size());
+        int sum = 0;
+        for (int i = 0; i < values.size(); i++) {
+            assertEquals(sum, tree.prefixSum(i));
+            sum += values.get(i);
+        }
+        assertEquals(sum, tree.prefixSum(values.size()));
+        for (int position = 0; position <= sum; position++)
+            assertEquals(naiveFind(values, position), tree.find(position));
+    }
+
+    /**
+     * 前缀和大于 position 的第一个下标
+     */
+    private static int naiveFind(List<Integer> values, int position) {
+        int sum = 0;
+        for (int i = 0; i < values.size(); i++) {
+            sum += values.get(i);
+            if (sum > position)
+                return i;
+        }
+        return values.size();
+    }
+
+}
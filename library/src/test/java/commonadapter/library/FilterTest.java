@@ -0,0 +1,138 @@
+package commonadapter.library;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 在测试线程中依次调用 performFiltering() 和 publishResults(), 代替 Filter 的后台线程和主线程
+ */
+public class FilterTest {
+
+    private FilteringAdapter mAdapter;
+    private CommonAdapter<Integer, TestHolder>.ItemFilter mFilter;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        List<Integer> data = new ArrayList<>();
+        for (int i = 0; i < 100; i++)
+            data.add(i);
+        mAdapter = new FilteringAdapter(data);
+        mFilter = (CommonAdapter<Integer, TestHolder>.ItemFilter) mAdapter.getFilter();
+    }
+
+    /**
+     * 与 CommonAdapter.filter() 相同先增加请求序号, 然后在当前线程中执行过滤并发布结果
+     */
+    private void filter(String constraint) {
+        mAdapter.filter(constraint);
+        mFilter.publishResults(constraint, mFilter.performFiltering(constraint));
+    }
+
+    @Test
+    public void filterShowsMatchingItems() {
+        filter("1");
+        assertTrue(mAdapter.isFiltered());
+        assertEquals(Arrays.asList(1, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19), mAdapter.getData());
+        assertEquals(100, mAdapter.getOriginalData().size());
+    }
+
+    @Test
+    public void supersededRequestIsDropped() {
+        mAdapter.filter("1");
+        CommonAdapter<Integer, TestHolder>.ItemFilter.ItemFilterResults stale = mFilter.performFiltering("1");
+        filter("2");
+        List<Integer> shown = mAdapter.getData();
+        mFilter.publishResults("1", stale);
+        assertSame(shown, mAdapter.getData());
+        assertEquals(2, (int) mAdapter.getData().get(0));
+    }
+
+    @Test
+    public void requestSupersededWhileFilteringIsDropped() {
+        mAdapter.filter("1");
+        CommonAdapter<Integer, TestHolder>.ItemFilter.ItemFilterResults stale = mFilter.performFiltering("1");
+        mAdapter.filter("1");
+        mFilter.publishResults("1", stale);
+        assertFalse(mAdapter.getData().size() < 100);
+    }
+
+    @Test
+    public void narrowingQueryScansPreviousResults() {
+        filter("1");
+        mAdapter.mFilterCount = 0;
+        filter("12");
+        assertEquals(11, mAdapter.mFilterCount);
+        assertEquals(Arrays.asList(12), mAdapter.getData());
+
+        // 不是上一次条件的延长时在全部原始数据中过滤
+        mAdapter.mFilterCount = 0;
+        filter("2");
+        assertEquals(100, mAdapter.mFilterCount);
+    }
+
+    @Test
+    public void narrowingQueryScansAllWhenNotIncremental() {
+        mAdapter.setIncrementalFilter(false);
+        filter("1");
+        mAdapter.mFilterCount = 0;
+        filter("12");
+        assertEquals(100, mAdapter.mFilterCount);
+    }
+
+    @Test
+    public void addWhileFilteredTriggersRefilter() {
+        filter("1");
+        mAdapter.filter("1");
+        CommonAdapter<Integer, TestHolder>.ItemFilter.ItemFilterResults stale = mFilter.performFiltering("1");
+        mAdapter.add(100);
+        assertEquals(101, mAdapter.getOriginalData().size());
+        // add() 发出的重新过滤请求使之前的结果失效
+        mFilter.publishResults("1", stale);
+        assertFalse(mAdapter.getData().contains(100));
+        // 执行 add() 发出的请求, 原始数据改变后不能使用上一次的结果
+        mAdapter.mFilterCount = 0;
+        mFilter.publishResults("1", mFilter.performFiltering("1"));
+        assertEquals(101, mAdapter.mFilterCount);
+        assertEquals(12, mAdapter.getData().size());
+        assertTrue(mAdapter.getData().contains(100));
+    }
+
+    @Test
+    public void emptyQueryRestoresOriginalData() {
+        List<Integer> original = mAdapter.getOriginalData();
+        filter("1");
+        filter("");
+        assertFalse(mAdapter.isFiltered());
+        assertSame(original, mAdapter.getData());
+        assertSame(original, mAdapter.getOriginalData());
+        // 恢复后的修改直接作用在显示的数据上
+        mAdapter.add(100);
+        assertEquals(101, mAdapter.getData().size());
+    }
+
+    private static final class FilteringAdapter extends NumberAdapter {
+
+        int mFilterCount;
+
+        FilteringAdapter(List<Integer> data) {
+            super(data);
+        }
+
+        @Override
+        protected boolean onFilterItem(Integer item, String constraint) {
+            mFilterCount++;
+            return super.onFilterItem(item, constraint);
+        }
+    }
+
+}
@@ -0,0 +1,133 @@
+package commonadapter.library;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * 按当前线程分配的字节数计算每行数据的内存占用, 容器预先分配容量, 分配量就是数据本身的大小.
+ * 上限按不压缩指针时的对象布局给出, 压缩指针时实际占用更小
+ */
+public class FootprintTest {
+
+    private static final int ROWS = 200000;
+    private static final String SENSOR = "sensor";
+
+    private com.sun.management.ThreadMXBean mThreadBean;
+
+    @Before
+    public void setUp() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        mThreadBean = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(mThreadBean.isThreadAllocatedMemorySupported());
+        mThreadBean.setThreadAllocatedMemoryEnabled(true);
+        // 先各运行一次, 类加载等一次性的分配不计入结果
+        boxedLongs(16);
+        primitiveLongs(16);
+        readings(16);
+        columnStore(16);
+    }
+
+    @Test
+    public void longArrayListStoresEightBytesPerRow() {
+        long allocated = allocatedBytes();
+        Object kept = primitiveLongs(ROWS);
+        double primitive = bytesPerRow(allocated, kept);
+
+        allocated = allocatedBytes();
+        kept = boxedLongs(ROWS);
+        double boxed = bytesPerRow(allocated, kept);
+
+        assertTrue("LongArrayList " + primitive + " bytes/row", primitive <= 8.5);
+        assertTrue("LongArrayList " + primitive + " vs ArrayList<Long> " + boxed, primitive * 2 < boxed);
+    }
+
+    @Test
+    public void columnStoreIsSmallerThanPrimitiveBean() {
+        long allocated = allocatedBytes();
+        Object kept = columnStore(ROWS);
+        double columns = bytesPerRow(allocated, kept);
+
+        allocated = allocatedBytes();
+        kept = readings(ROWS);
+        double rows = bytesPerRow(allocated, kept);
+
+        // long + double + int + String 引用, 不压缩指针时为 28 字节
+        assertTrue("ColumnStore " + columns + " bytes/row", columns <= 28.5);
+        // 每行对象至少多出对象头和列表中的引用
+        assertTrue("ColumnStore " + columns + " vs Reading " + rows, columns * 1.4 < rows);
+    }
+
+    private long allocatedBytes() {
+        return mThreadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * kept 只用于保证测量结束前数据仍然可达
+     */
+    private double bytesPerRow(long allocatedBefore, Object kept) {
+        long bytes = allocatedBytes() - allocatedBefore;
+        assertTrue(null != kept);
+        return (double) bytes / ROWS;
+    }
+
+    private static List<Long> boxedLongs(int size) {
+        List<Long> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++)
+            list.add(1000003L * i);
+        return list;
+    }
+
+    private static LongArrayList primitiveLongs(int size) {
+        LongArrayList list = new LongArrayList(size);
+        for (int i = 0; i < size; i++)
+            list.addLong(1000003L * i);
+        return list;
+    }
+
+    private static List<Reading> readings(int size) {
+        List<Reading> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++)
+            list.add(new Reading(1000003L * i, i * 0.5, i & 0xFF, SENSOR));
+        return list;
+    }
+
+    private static ColumnStore columnStore(int size) {
+        ColumnStore store = new ColumnStore(ColumnStore.TYPE_LONG, ColumnStore.TYPE_DOUBLE,
+                ColumnStore.TYPE_INT, ColumnStore.TYPE_STRING);
+        store.ensureCapacity(size);
+        for (int i = 0; i < size; i++) {
+            int row = store.addRow();
+            store.setLong(row, 0, 1000003L * i);
+            store.setDouble(row, 1, i * 0.5);
+            store.setInt(row, 2, i & 0xFF);
+            store.setString(row, 3, SENSOR);
+        }
+        return store;
+    }
+
+    /**
+     * 与 ColumnStore 的四列相同, 字段都是基本类型
+     */
+    private static final class Reading {
+        final long mTime;
+        final double mValue;
+        final int mFlags;
+        final String mSensor;
+
+        Reading(long time, double value, int flags, String sensor) {
+            mTime = time;
+            mValue = value;
+            mFlags = flags;
+            mSensor = sensor;
+        }
+    }
+
+}
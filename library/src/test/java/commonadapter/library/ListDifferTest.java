@@ -0,0 +1,193 @@
+package commonadapter.library;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * ListDiffer 的对应关系和内容改变标记, 与动态规划求出的最长公共子序列长度比较
+ */
+public class ListDifferTest {
+
+    /**
+     * 按 id 判断是否是同一个 Item, 按 version 判断内容是否相同
+     */
+    private static final DiffCallback<Item> CALLBACK = new DiffCallback<Item>() {
+        @Override
+        public boolean areItemsTheSame(Item oldItem, Item newItem) {
+            return oldItem.mId == newItem.mId;
+        }
+
+        @Override
+        public boolean areContentsTheSame(Item oldItem, Item newItem) {
+            return oldItem.mVersion == newItem.mVersion;
+        }
+    };
+
+    @Test
+    public void identicalListsAreNotStructural() {
+        List<Item> items = items(1, 2, 3, 4);
+        ListDiffer.Result result = ListDiffer.diff(items, items(1, 2, 3, 4), CALLBACK);
+        assertFalse(result.isStructural());
+        assertEquals(0, result.getChangedCount());
+        for (int i = 0; i < 4; i++)
+            assertEquals(i, result.getOldPosition(i));
+    }
+
+    @Test
+    public void contentChangeIsNotStructural() {
+        List<Item> newItems = items(1, 2, 3);
+        newItems.set(1, new Item(2, 1));
+        ListDiffer.Result result = ListDiffer.diff(items(1, 2, 3), newItems, CALLBACK);
+        assertFalse(result.isStructural());
+        assertEquals(1, result.getChangedCount());
+        assertFalse(result.isChanged(0));
+        assertTrue(result.isChanged(1));
+        assertFalse(result.isChanged(2));
+    }
+
+    @Test
+    public void insertionAndRemoval() {
+        ListDiffer.Result result = ListDiffer.diff(items(1, 2, 3, 4), items(1, 3, 5, 4), CALLBACK);
+        assertTrue(result.isStructural());
+        assertEquals(0, result.getOldPosition(0));
+        assertEquals(2, result.getOldPosition(1));
+        assertEquals(ListDiffer.NO_POSITION, result.getOldPosition(2));
+        assertEquals(3, result.getOldPosition(3));
+    }
+
+    @Test
+    public void moveIsStructural() {
+        ListDiffer.Result result = ListDiffer.diff(items(1, 2, 3), items(3, 1, 2), CALLBACK);
+        assertTrue(result.isStructural());
+        assertEquals(2, matched(result, 3));
+    }
+
+    @Test
+    public void emptyLists() {
+        assertFalse(ListDiffer.diff(items(), items(), CALLBACK).isStructural());
+        ListDiffer.Result result = ListDiffer.diff(items(), items(1, 2), CALLBACK);
+        assertTrue(result.isStructural());
+        assertEquals(ListDiffer.NO_POSITION, result.getOldPosition(0));
+        assertEquals(ListDiffer.NO_POSITION, result.getOldPosition(1));
+        assertTrue(ListDiffer.diff(items(1, 2), items(), CALLBACK).isStructural());
+    }
+
+    @Test
+    public void randomEditsMatchLongestCommonSubsequence() {
+        Random random = new Random(42);
+        for (int round = 0; round < 300; round++) {
+            List<Item> oldItems = randomItems(random, random.nextInt(60));
+            List<Item> newItems = edit(random, oldItems);
+            ListDiffer.Result result = ListDiffer.diff(oldItems, newItems, CALLBACK);
+            assertValidMapping(oldItems, newItems, result);
+            assertEquals("round " + round, lcsLength(oldItems, newItems), matched(result, newItems.size()));
+            boolean structural = oldItems.size() != newItems.size();
+            for (int i = 0; i < newItems.size(); i++) {
+                int oldPosition = result.getOldPosition(i);
+                structural |= oldPosition != i;
+                boolean changed = ListDiffer.NO_POSITION != oldPosition
+                        && oldItems.get(oldPosition).mVersion != newItems.get(i).mVersion;
+                assertEquals(changed, result.isChanged(i));
+            }
+            assertEquals(structural, result.isStructural());
+        }
+    }
+
+    /**
+     * 对应关系必须严格递增, 并且对应的 Item 是同一个
+     */
+    private static void assertValidMapping(List<Item> oldItems, List<Item> newItems, ListDiffer.Result result) {
+        int last = -1;
+        for (int i = 0; i < newItems.size(); i++) {
+            int oldPosition = result.getOldPosition(i);
+            if (ListDiffer.NO_POSITION == oldPosition)
+                continue;
+            assertTrue(oldPosition > last);
+            assertEquals(oldItems.get(oldPosition).mId, newItems.get(i).mId);
+            last = oldPosition;
+        }
+    }
+
+    private static int matched(ListDiffer.Result result, int size) {
+        int count = 0;
+        for (int i = 0; i < size; i++)
+            if (ListDiffer.NO_POSITION != result.getOldPosition(i))
+                count++;
+        return count;
+    }
+
+    private static int lcsLength(List<Item> a, List<Item> b) {
+        int[][] table = new int[a.size() + 1][b.size() + 1];
+        for (int i = a.size() - 1; i >= 0; i--)
+            for (int j = b.size() - 1; j >= 0; j--)
+                table[i][j] = a.get(i).mId == b.get(j).mId ? table[i + 1][j + 1] + 1
+                        : Math.max(table[i + 1][j], table[i][j + 1]);
+        return table[0][0];
+    }
+
+    private static List<Item> randomItems(Random random, int size) {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < size; i++)
+            ids.add(i);
+        Collections.shuffle(ids, random);
+        List<Item> items = new ArrayList<>();
+        for (int id : ids)
+            items.add(new Item(id, 0));
+        return items;
+    }
+
+    /**
+     * 随机删除, 插入, 移动和修改内容
+     */
+    private static List<Item> edit(Random random, List<Item> items) {
+        List<Item> result = new ArrayList<>(items);
+        int nextId = 1000;
+        for (int i = random.nextInt(8); i > 0; i--) {
+            int op = random.nextInt(4);
+            if (op == 0 && !result.isEmpty())
+                result.remove(random.nextInt(result.size()));
+            else if (op == 1)
+                result.add(random.nextInt(result.size() + 1), new Item(nextId++, 0));
+            else if (op == 2 && !result.isEmpty())
+                result.add(random.nextInt(result.size()), result.remove(random.nextInt(result.size())));
+            else if (!result.isEmpty()) {
+                int index = random.nextInt(result.size());
+                Item item = result.get(index);
+                result.set(index, new Item(item.mId, item.mVersion + 1));
+            }
+        }
+        return result;
+    }
+
+    private static List<Item> items(int... ids) {
+        List<Item> items = new ArrayList<>();
+        for (int id : ids)
+            items.add(new Item(id, 0));
+        return items;
+    }
+
+    private static final class Item {
+
+        final int mId;
+        final int mVersion;
+
+        Item(int id, int version) {
+            mId = id;
+            mVersion = version;
+        }
+
+        @Override
+        public String toString() {
+            return mId + "@" + mVersion;
+        }
+    }
+
+}
@@ -0,0 +1,37 @@
+package commonadapter.library;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * 单元测试中代替主线程的消息队列, 通过 AdapterExecutors.setMainThread() 接收发送到主线程的任务,
+ * 由测试决定何时执行
+ */
+final class MainTasks implements Executor {
+
+    final List<Runnable> mTasks = new ArrayList<>();
+
+    @Override
+    public synchronized void execute(Runnable command) {
+        mTasks.add(command);
+    }
+
+    synchronized int size() {
+        return mTasks.size();
+    }
+
+    /**
+     * 按发送顺序执行目前所有的任务, 执行中发送的任务留到下一次
+     */
+    void runAll() {
+        List<Runnable> tasks;
+        synchronized (this) {
+            tasks = new ArrayList<>(mTasks);
+            mTasks.clear();
+        }
+        for (Runnable task : tasks)
+            task.run();
+    }
+
+}
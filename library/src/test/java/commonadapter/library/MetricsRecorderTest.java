@@ -0,0 +1,78 @@
+package commonadapter.library;
+
+import android.view.View;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * MetricsRecorder 的绑定耗时分桶和百分位数, 以及 getView() 向 MetricsListener 报告的事件
+ */
+public class MetricsRecorderTest {
+
+    private static final long MICROS = 1000;
+
+    @Test
+    public void bucketsArePowersOfTwoMicros() {
+        assertEquals(0, MetricsRecorder.LayoutStats.bucketOf(-5));
+        assertEquals(0, MetricsRecorder.LayoutStats.bucketOf(0));
+        assertEquals(0, MetricsRecorder.LayoutStats.bucketOf(MICROS - 1));
+        assertEquals(1, MetricsRecorder.LayoutStats.bucketOf(MICROS));
+        assertEquals(1, MetricsRecorder.LayoutStats.bucketOf(2 * MICROS - 1));
+        assertEquals(2, MetricsRecorder.LayoutStats.bucketOf(2 * MICROS));
+        assertEquals(2, MetricsRecorder.LayoutStats.bucketOf(4 * MICROS - 1));
+        assertEquals(3, MetricsRecorder.LayoutStats.bucketOf(4 * MICROS));
+        assertEquals(11, MetricsRecorder.LayoutStats.bucketOf(1024 * MICROS));
+        assertEquals(19, MetricsRecorder.LayoutStats.bucketOf(1000000 * MICROS));
+        assertEquals(19, MetricsRecorder.LayoutStats.bucketOf(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void percentileIsBucketUpperBound() {
+        MetricsRecorder.LayoutStats stats = new MetricsRecorder.LayoutStats();
+        assertEquals(0, stats.percentile(0.5f));
+        for (int i = 0; i < 90; i++)
+            stats.recordBind(1500);
+        for (int i = 0; i < 9; i++)
+            stats.recordBind(100 * MICROS);
+        stats.recordBind(5000 * MICROS);
+        assertEquals(100, stats.mBindCount);
+        assertEquals(90, stats.mBindHistogram[1]);
+        assertEquals(9, stats.mBindHistogram[7]);
+        assertEquals(1, stats.mBindHistogram[13]);
+        assertEquals(2, stats.percentile(0.5f));
+        assertEquals(2, stats.percentile(0.9f));
+        assertEquals(128, stats.percentile(0.99f));
+        assertEquals(8192, stats.percentile(1f));
+    }
+
+    @Test
+    public void getViewReportsInflateReuseBindAndSkip() {
+        CountingMetricsListener listener = new CountingMetricsListener();
+        NumberAdapter adapter = new NumberAdapter(Arrays.asList(1, 2, 3));
+        adapter.setMetricsListener(listener);
+
+        View first = adapter.getView(0, null, null);
+        assertEquals(1, listener.mInflates);
+        assertEquals(1, listener.mBinds);
+
+        adapter.getView(1, first, null);
+        assertEquals(1, listener.mReuses);
+        assertEquals(2, listener.mBinds);
+
+        adapter.getView(1, first, null);
+        assertEquals(2, listener.mReuses);
+        assertEquals(2, listener.mBinds);
+        assertEquals(1, listener.mSkips);
+        assertEquals(2, adapter.mConvertCount);
+
+        adapter.setMetricsListener(null);
+        adapter.getView(2, first, null);
+        assertEquals(3, adapter.mConvertCount);
+        assertEquals(2, listener.mBinds);
+    }
+
+}
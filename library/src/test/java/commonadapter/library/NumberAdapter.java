@@ -0,0 +1,48 @@
+package commonadapter.library;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 单元测试使用的 Adapter, Item 是整数并以自身作为稳定 ID, 内容版本始终为 0.
+ * 使用 TestHolder, 复用时从 convertView 的 HolderState 中取回 ViewHolder
+ */
+class NumberAdapter extends CommonAdapter<Integer, TestHolder> {
+
+    int mConvertCount;
+
+    NumberAdapter() {
+        this(Arrays.asList(0, 1, 2, 3));
+    }
+
+    NumberAdapter(List<Integer> data) {
+        super(null, new ArrayList<>(data), 1);
+        setItemIdProvider(new ItemIdProvider<Integer>() {
+            @Override
+            public long getItemId(Integer item) {
+                return item;
+            }
+
+            @Override
+            public long getContentVersion(Integer item) {
+                return 0;
+            }
+        });
+    }
+
+    @Override
+    protected TestHolder getHolder(LayoutInflater inflater, View convertView, ViewGroup parent, int layoutId) {
+        return null == convertView ? new TestHolder() : (TestHolder) HolderState.of(convertView).mHolder;
+    }
+
+    @Override
+    protected void convert(TestHolder holder, int position) {
+        mConvertCount++;
+    }
+
+}
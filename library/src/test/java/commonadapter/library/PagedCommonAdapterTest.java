@@ -0,0 +1,218 @@
+package commonadapter.library;
+
+import android.database.DataSetObserver;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.AdapterView;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * PagedCommonAdapter 的加载时机, 占位 Item 和内存中保存的 Item 数量
+ * 加载任务由测试手动执行, 单元测试环境中当前线程被视为主线程, 结果会被直接应用
+ */
+public class PagedCommonAdapterTest {
+
+    private static final int COUNT = 10000;
+    private static final int PAGE_SIZE = 20;
+
+    private FakeSource mSource;
+    private QueueExecutor mExecutor;
+    private NumberAdapter mAdapter;
+
+    @Before
+    public void setUp() {
+        mSource = new FakeSource(COUNT);
+        mExecutor = new QueueExecutor();
+        mAdapter = new NumberAdapter(mSource);
+        mAdapter.setExecutor(mExecutor);
+    }
+
+    @Test
+    public void firstLoadStartsWhenObserved() {
+        assertEquals(0, mExecutor.size());
+        assertEquals(0, mAdapter.getCount());
+        mAdapter.registerDataSetObserver(new DataSetObserver() {
+        });
+        assertEquals(1, mExecutor.size());
+        mExecutor.runAll();
+        assertEquals(1, mSource.mCountCalls);
+        assertEquals(COUNT, mAdapter.getCount());
+        mAdapter.registerDataSetObserver(new DataSetObserver() {
+        });
+        assertEquals(0, mExecutor.size());
+    }
+
+    @Test
+    public void placeholdersSkipIdProvider() {
+        mAdapter.refresh();
+        mExecutor.runAll();
+        assertTrue(mAdapter.isPlaceholder(0));
+        assertNull(mAdapter.getItem(0));
+        assertEquals(AdapterView.INVALID_ROW_ID, mAdapter.getItemId(0));
+
+        View view = mAdapter.getView(0, null, null);
+        assertEquals(1, mAdapter.mConvertCount);
+        assertNull(mAdapter.mLastItem);
+
+        mExecutor.runAll();
+        assertFalse(mAdapter.isPlaceholder(0));
+        assertEquals(0L, mAdapter.getItemId(0));
+        mAdapter.getView(0, view, null);
+        assertEquals(2, mAdapter.mConvertCount);
+        assertEquals(Integer.valueOf(0), mAdapter.mLastItem);
+        mAdapter.getView(0, view, null);
+        assertEquals(2, mAdapter.mConvertCount);
+    }
+
+    @Test
+    public void scrollingKeepsRetainedItemsBounded() {
+        int maxPages = 6;
+        mAdapter.setMaxPages(maxPages);
+        mAdapter.setPrefetchDistance(PAGE_SIZE);
+        mAdapter.refresh();
+        mExecutor.runAll();
+        for (int position = 0; position < COUNT; position++) {
+            mAdapter.loadAround(position);
+            mExecutor.runAll();
+            assertEquals(Integer.valueOf(position), mAdapter.getItem(position));
+        }
+        for (int position = COUNT - 1; position >= 0; position -= 7) {
+            mAdapter.loadAround(position);
+            mExecutor.runAll();
+            assertEquals(Integer.valueOf(position), mAdapter.getItem(position));
+        }
+        assertTrue(mAdapter.getRetainedItemCount() <= maxPages * PAGE_SIZE);
+        assertTrue(mAdapter.getPeakRetainedItemCount() <= maxPages * PAGE_SIZE);
+        assertTrue(mAdapter.getPeakRetainedItemCount() >= 3 * PAGE_SIZE);
+        assertTrue(mSource.mPageLoads >= COUNT / PAGE_SIZE);
+    }
+
+    @Test
+    public void failedPageIsReloaded() {
+        mAdapter.refresh();
+        mExecutor.runAll();
+        mSource.mFail = true;
+        mAdapter.loadAround(0);
+        mExecutor.runAll();
+        assertTrue(mAdapter.isPlaceholder(0));
+        mSource.mFail = false;
+        mAdapter.loadAround(0);
+        mExecutor.runAll();
+        assertFalse(mAdapter.isPlaceholder(0));
+    }
+
+    @Test
+    public void refreshDropsStaleResults() {
+        mAdapter.refresh();
+        mExecutor.runAll();
+        mAdapter.loadAround(0);
+        mAdapter.refresh();
+        mExecutor.runAll();
+        assertTrue(mAdapter.isPlaceholder(0));
+        assertEquals(0, mAdapter.getRetainedItemCount());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void setDataIsUnsupported() {
+        mAdapter.setData(new ArrayList<Integer>());
+    }
+
+    /**
+     * 第 i 个位置的 Item 为 i
+     */
+    private static final class FakeSource implements PagedCommonAdapter.PageSource<Integer> {
+
+        final int mCount;
+        int mCountCalls;
+        int mPageLoads;
+        boolean mFail;
+
+        FakeSource(int count) {
+            mCount = count;
+        }
+
+        @Override
+        public int getCount() {
+            mCountCalls++;
+            return mCount;
+        }
+
+        @Override
+        public List<Integer> loadPage(int page, int pageSize) throws Exception {
+            if (mFail)
+                throw new Exception("load failed");
+            mPageLoads++;
+            List<Integer> items = new ArrayList<>();
+            for (int i = page * pageSize, end = Math.min(mCount, i + pageSize); i < end; i++)
+                items.add(i);
+            return items;
+        }
+    }
+
+    /**
+     * 只保存任务, 由测试调用 runAll() 执行
+     */
+    private static final class QueueExecutor implements Executor {
+
+        private final List<Runnable> mTasks = new ArrayList<>();
+
+        @Override
+        public void execute(Runnable command) {
+            mTasks.add(command);
+        }
+
+        int size() {
+            return mTasks.size();
+        }
+
+        void runAll() {
+            while (!mTasks.isEmpty())
+                mTasks.remove(0).run();
+        }
+    }
+
+    private static final class NumberAdapter extends PagedCommonAdapter<Integer, TestHolder> {
+
+        int mConvertCount;
+        Integer mLastItem;
+
+        NumberAdapter(PageSource<Integer> source) {
+            super(null, source, PAGE_SIZE, new int[]{1});
+            setItemIdProvider(new ItemIdProvider<Integer>() {
+                @Override
+                public long getItemId(Integer item) {
+                    return item.longValue();
+                }
+
+                @Override
+                public long getContentVersion(Integer item) {
+                    return 0;
+                }
+            });
+        }
+
+        @Override
+        protected TestHolder getHolder(LayoutInflater inflater, View convertView, ViewGroup parent, int layoutId) {
+            return null == convertView ? new TestHolder() : (TestHolder) HolderState.of(convertView).mHolder;
+        }
+
+        @Override
+        protected void convert(TestHolder holder, int position) {
+            mConvertCount++;
+            mLastItem = getItem(position);
+        }
+    }
+
+}
@@ -0,0 +1,229 @@
+package commonadapter.library;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * IntArrayList, LongArrayList, DoubleArrayList 的 List 语义, 与 ArrayList 的行为比较
+ */
+public class PrimitiveArrayListTest {
+
+    @Test
+    public void addAndInsert() {
+        IntArrayList list = new IntArrayList();
+        list.addInt(1);
+        list.addInt(3);
+        list.addInt(1, 2);
+        list.addInt(0, 0);
+        list.addInt(4, 4);
+        assertArrayEquals(new int[]{0, 1, 2, 3, 4}, list.toIntArray());
+        list.addAll(new int[]{9, 5, 6, 9}, 1, 2);
+        assertArrayEquals(new int[]{0, 1, 2, 3, 4, 5, 6}, list.toIntArray());
+        assertEquals(Arrays.asList(0, 1, 2, 3, 4, 5, 6), list);
+    }
+
+    @Test
+    public void setReturnsOldValue() {
+        LongArrayList list = new LongArrayList(new long[]{1, 2, 3});
+        assertEquals(2L, list.setLong(1, 20));
+        assertEquals(Long.valueOf(3), list.set(2, 30L));
+        assertArrayEquals(new long[]{1, 20, 30}, list.toLongArray());
+    }
+
+    @Test
+    public void removeAtShiftsTail() {
+        DoubleArrayList list = new DoubleArrayList(new double[]{1, 2, 3, 4});
+        assertEquals(1, list.removeAt(0), 0);
+        assertEquals(4, list.removeAt(2), 0);
+        assertEquals(Double.valueOf(2), list.remove(0));
+        assertArrayEquals(new double[]{3}, list.toDoubleArray(), 0);
+        list.removeAt(0);
+        assertEquals(0, list.size());
+    }
+
+    @Test
+    public void removeRangeThroughSubList() {
+        IntArrayList list = new IntArrayList(new int[]{0, 1, 2, 3, 4, 5});
+        list.subList(1, 3).clear();
+        assertArrayEquals(new int[]{0, 3, 4, 5}, list.toIntArray());
+        list.subList(2, 4).clear();
+        assertArrayEquals(new int[]{0, 3}, list.toIntArray());
+        list.subList(1, 1).clear();
+        assertArrayEquals(new int[]{0, 3}, list.toIntArray());
+        list.subList(0, 2).clear();
+        assertEquals(0, list.size());
+    }
+
+    @Test
+    public void removeRangeChecksBounds() {
+        IntArrayList list = new IntArrayList(new int[]{0, 1, 2});
+        assertThrows(list, -1, 1);
+        assertThrows(list, 2, 1);
+        assertThrows(list, 0, 4);
+        assertArrayEquals(new int[]{0, 1, 2}, list.toIntArray());
+        list.removeRange(3, 3);
+        list.removeRange(0, 0);
+        assertEquals(3, list.size());
+    }
+
+    @Test
+    public void boundaryIndicesThrow() {
+        final IntArrayList list = new IntArrayList(new int[]{7, 8});
+        assertThrows(new Runnable() {
+            @Override
+            public void run() {
+                list.getInt(2);
+            }
+        });
+        assertThrows(new Runnable() {
+            @Override
+            public void run() {
+                list.getInt(-1);
+            }
+        });
+        assertThrows(new Runnable() {
+            @Override
+            public void run() {
+                list.setInt(2, 0);
+            }
+        });
+        assertThrows(new Runnable() {
+            @Override
+            public void run() {
+                list.removeAt(2);
+            }
+        });
+        assertThrows(new Runnable() {
+            @Override
+            public void run() {
+                list.addInt(3, 0);
+            }
+        });
+        assertThrows(new Runnable() {
+            @Override
+            public void run() {
+                list.addInt(-1, 0);
+            }
+        });
+        assertThrows(new Runnable() {
+            @Override
+            public void run() {
+                list.addAll(new int[]{1, 2}, 1, 2);
+            }
+        });
+        assertArrayEquals(new int[]{7, 8}, list.toIntArray());
+        // 容量不足时先扩容, 之后超出 size 的位置仍然不可访问
+        list.ensureCapacity(100);
+        assertThrows(new Runnable() {
+            @Override
+            public void run() {
+                list.getInt(2);
+            }
+        });
+    }
+
+    @Test
+    public void trimToSizeKeepsValues() {
+        LongArrayList list = new LongArrayList(16);
+        list.addLong(5);
+        list.trimToSize();
+        list.addLong(6);
+        list.clear();
+        list.trimToSize();
+        list.addLong(7);
+        assertArrayEquals(new long[]{7}, list.toLongArray());
+    }
+
+    @Test
+    public void doubleIndexOfMatchesEquals() {
+        DoubleArrayList list = new DoubleArrayList(new double[]{0.0, Double.NaN, -0.0});
+        assertEquals(1, list.indexOfDouble(Double.NaN));
+        assertEquals(2, list.indexOfDouble(-0.0));
+        assertEquals(list.indexOf(Double.NaN), list.indexOfDouble(Double.NaN));
+    }
+
+    @Test
+    public void randomOperationsMatchArrayList() {
+        Random random = new Random(7);
+        IntArrayList ints = new IntArrayList();
+        LongArrayList longs = new LongArrayList();
+        DoubleArrayList doubles = new DoubleArrayList();
+        List<Integer> expected = new ArrayList<>();
+        for (int round = 0; round < 5000; round++) {
+            int size = expected.size();
+            int value = random.nextInt(1000);
+            int op = random.nextInt(6);
+            if (op == 0 || 0 == size) {
+                int index = random.nextInt(size + 1);
+                expected.add(index, value);
+                ints.addInt(index, value);
+                longs.addLong(index, value);
+                doubles.addDouble(index, value);
+            } else if (op == 1) {
+                expected.add(value);
+                ints.addInt(value);
+                longs.addLong(value);
+                doubles.addDouble(value);
+            } else if (op == 2) {
+                int index = random.nextInt(size);
+                int old = expected.remove(index);
+                assertEquals(old, ints.removeAt(index));
+                assertEquals(old, longs.removeAt(index));
+                assertEquals(old, doubles.removeAt(index), 0);
+            } else if (op == 3) {
+                int index = random.nextInt(size);
+                int old = expected.set(index, value);
+                assertEquals(old, ints.setInt(index, value));
+                assertEquals(old, longs.setLong(index, value));
+                assertEquals(old, doubles.setDouble(index, value), 0);
+            } else if (op == 4) {
+                int from = random.nextInt(size + 1);
+                int to = from + random.nextInt(Math.min(4, size - from) + 1);
+                expected.subList(from, to).clear();
+                ints.subList(from, to).clear();
+                longs.subList(from, to).clear();
+                doubles.subList(from, to).clear();
+            } else {
+                int[] values = {value, value + 1, value + 2};
+                expected.addAll(Arrays.asList(value, value + 1, value + 2));
+                ints.addAll(values);
+                longs.addAll(new long[]{value, value + 1, value + 2});
+                doubles.addAll(new double[]{value, value + 1, value + 2});
+            }
+            assertEquals(expected.size(), ints.size());
+            assertEquals(expected.size(), longs.size());
+            assertEquals(expected.size(), doubles.size());
+        }
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals((int) expected.get(i), ints.getInt(i));
+            assertEquals((long) expected.get(i), longs.getLong(i));
+            assertEquals((double) expected.get(i), doubles.getDouble(i), 0);
+        }
+        assertEquals(expected, ints);
+    }
+
+    private static void assertThrows(IntArrayList list, int fromIndex, int toIndex) {
+        try {
+            list.removeRange(fromIndex, toIndex);
+            fail("removeRange(" + fromIndex + ", " + toIndex + ")");
+        } catch (IndexOutOfBoundsException ignored) {
+        }
+    }
+
+    private static void assertThrows(Runnable runnable) {
+        try {
+            runnable.run();
+            fail();
+        } catch (IndexOutOfBoundsException ignored) {
+        }
+    }
+
+}
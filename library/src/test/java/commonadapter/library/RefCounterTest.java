@@ -0,0 +1,133 @@
+package commonadapter.library;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 引用计数, 以及与 DefaultImageBinder 相同的组合方式: 内存缓存和显示的 ImageView 各持有一个引用,
+ * 只有两者都释放后才放入重用池
+ */
+public class RefCounterTest {
+
+    @Test
+    public void releasesOnLastReference() {
+        RefCounter<Object> counter = new RefCounter<>();
+        Object item = new Object();
+        counter.retain(item);
+        counter.retain(item);
+        assertEquals(2, counter.count(item));
+        assertFalse(counter.release(item));
+        assertTrue(counter.release(item));
+        assertEquals(0, counter.count(item));
+        assertEquals(0, counter.size());
+        // 多余的释放不会再次通知
+        assertFalse(counter.release(item));
+    }
+
+    @Test
+    public void countsByIdentity() {
+        RefCounter<String> counter = new RefCounter<>();
+        String first = new String("a");
+        String second = new String("a");
+        counter.retain(first);
+        counter.retain(second);
+        assertEquals(2, counter.size());
+        assertTrue(counter.release(first));
+        assertEquals(1, counter.count(second));
+    }
+
+    @Test
+    public void displayedItemIsPooledOnlyAfterUnbind() {
+        Images images = new Images(20);
+        byte[] shown = images.decode("a", 8);
+        images.show(shown);
+        images.decode("b", 8);
+        images.decode("c", 8);
+        // a 已经被缓存淘汰, 但仍然在显示, 不能重用
+        assertNull(images.mCache.get("a"));
+        assertNull(images.mPool.get(1));
+        images.hide(shown);
+        assertSame(shown, images.mPool.get(1));
+    }
+
+    @Test
+    public void cachedItemIsNotPooledWhenUnbound() {
+        Images images = new Images(20);
+        byte[] shown = images.decode("a", 8);
+        images.show(shown);
+        images.hide(shown);
+        assertNull(images.mPool.get(1));
+        images.mCache.evictAll();
+        assertSame(shown, images.mPool.get(1));
+    }
+
+    @Test
+    public void itemShownTwiceNeedsBothReleased() {
+        Images images = new Images(20);
+        byte[] shown = images.decode("a", 8);
+        images.show(shown);
+        images.show(shown);
+        images.mCache.evictAll();
+        images.hide(shown);
+        assertNull(images.mPool.get(1));
+        images.hide(shown);
+        assertSame(shown, images.mPool.get(1));
+    }
+
+    /**
+     * 按 DefaultImageBinder 的方式组合 SizedLruCache, RefCounter 和 SizedPool
+     */
+    private static final class Images {
+
+        final RefCounter<byte[]> mRefCounts = new RefCounter<>();
+        final SizedPool<byte[], Integer> mPool;
+        final SizedLruCache<String, byte[]> mCache;
+
+        Images(int maxBytes) {
+            mPool = new SizedPool<byte[], Integer>(maxBytes) {
+                @Override
+                int sizeOf(byte[] item) {
+                    return item.length;
+                }
+
+                @Override
+                boolean canReuse(byte[] item, Integer request) {
+                    return item.length >= request;
+                }
+            };
+            mCache = new SizedLruCache<String, byte[]>(maxBytes) {
+                @Override
+                int sizeOf(String key, byte[] value) {
+                    return value.length;
+                }
+
+                @Override
+                void entryRemoved(boolean evicted, String key, byte[] oldValue, byte[] newValue) {
+                    hide(oldValue);
+                }
+            };
+        }
+
+        byte[] decode(String key, int size) {
+            byte[] item = new byte[size];
+            mRefCounts.retain(item);
+            mCache.put(key, item);
+            return item;
+        }
+
+        void show(byte[] item) {
+            mRefCounts.retain(item);
+        }
+
+        void hide(byte[] item) {
+            if (mRefCounts.release(item))
+                mPool.put(item);
+        }
+    }
+
+}
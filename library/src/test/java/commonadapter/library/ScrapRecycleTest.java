@@ -0,0 +1,118 @@
+package commonadapter.library;
+
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Item 被移入 ListView 回收站之后的回收时机: notifyDataSetChanged() 重新布局时立即取回的 Item
+ * 保留图片请求和绑定记录, 没有取回或者用于其他 Item 时才回收
+ */
+public class ScrapRecycleTest {
+
+    private RecyclingAdapter mAdapter;
+    private ListViewHooks mHooks;
+
+    @Before
+    public void setUp() {
+        mAdapter = new RecyclingAdapter();
+        mHooks = new ListViewHooks();
+    }
+
+    /**
+     * 模拟 notifyDataSetChanged() 之后的重新布局: 可见 Item 全部移入回收站, 再按位置取回
+     */
+    private void relayout(View... children) {
+        for (View child : children)
+            mHooks.onMovedToScrapHeap(child);
+        for (int i = 0; i < children.length; i++)
+            mAdapter.getView(i, children[i], null);
+        mHooks.recycleScrapped();
+    }
+
+    @Test
+    public void notifyWithStableIdsKeepsVisibleItems() {
+        View first = mAdapter.getView(0, null, null);
+        View second = mAdapter.getView(1, null, null);
+        assertEquals(2, mAdapter.mConvertCount);
+
+        mAdapter.add(100);
+        relayout(first, second);
+        assertEquals(0, mAdapter.mRecycleCount);
+        assertEquals(2, mAdapter.mConvertCount);
+
+        mAdapter.getView(0, first, null);
+        assertEquals(2, mAdapter.mConvertCount);
+    }
+
+    @Test
+    public void notifyWithMovedItemsKeepsSameIds() {
+        View first = mAdapter.getView(0, null, null);
+        mAdapter.insert(0, 100);
+        mHooks.onMovedToScrapHeap(first);
+        mAdapter.getView(1, first, null);
+        mHooks.recycleScrapped();
+        assertEquals(0, mAdapter.mRecycleCount);
+        assertEquals(2, mAdapter.mConvertCount);
+    }
+
+    @Test
+    public void scrappedItemIsRecycledWhenNotReused() {
+        View first = mAdapter.getView(0, null, null);
+        mHooks.onMovedToScrapHeap(first);
+        assertEquals(0, mAdapter.mRecycleCount);
+        mHooks.recycleScrapped();
+        assertEquals(1, mAdapter.mRecycleCount);
+
+        // 图片已经被取消, 同一位置复用时需要重新绑定
+        mAdapter.getView(0, first, null);
+        assertEquals(2, mAdapter.mConvertCount);
+    }
+
+    @Test
+    public void scrappedItemIsRecycledWhenReusedForOtherItem() {
+        View first = mAdapter.getView(0, null, null);
+        mHooks.onMovedToScrapHeap(first);
+        mAdapter.getView(3, first, null);
+        assertEquals(1, mAdapter.mRecycleCount);
+        assertEquals(2, mAdapter.mConvertCount);
+        mHooks.recycleScrapped();
+        assertEquals(1, mAdapter.mRecycleCount);
+    }
+
+    @Test
+    public void scrappedTwiceIsRecycledOnce() {
+        View first = mAdapter.getView(0, null, null);
+        mHooks.onMovedToScrapHeap(first);
+        mHooks.onMovedToScrapHeap(first);
+        mHooks.recycleScrapped();
+        mHooks.recycleScrapped();
+        assertEquals(1, mAdapter.mRecycleCount);
+    }
+
+    @Test
+    public void withoutStableIdsSamePositionIsKept() {
+        mAdapter.setItemIdProvider(null);
+        View first = mAdapter.getView(0, null, null);
+        relayout(first);
+        assertEquals(0, mAdapter.mRecycleCount);
+        mHooks.onMovedToScrapHeap(first);
+        mAdapter.getView(1, first, null);
+        assertEquals(1, mAdapter.mRecycleCount);
+    }
+
+    private static final class RecyclingAdapter extends NumberAdapter {
+
+        int mRecycleCount;
+
+        @Override
+        void recycleHolder(HolderState state) {
+            mRecycleCount++;
+            super.recycleHolder(state);
+        }
+    }
+
+}
@@ -0,0 +1,106 @@
+package commonadapter.library;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * SectionedAdapter 的位置转换, 布局类型和不支持的操作
+ */
+public class SectionedAdapterTest {
+
+    private CityAdapter mAdapter;
+
+    @Before
+    public void setUp() {
+        mAdapter = new CityAdapter();
+        mAdapter.addSection("A", new ArrayList<>(Arrays.asList("Anqing", "Anshan")));
+        mAdapter.addSection("B", new ArrayList<String>());
+        mAdapter.addSection("C", new ArrayList<>(Arrays.asList("Changsha")));
+    }
+
+    @Test
+    public void positionsMapToSections() {
+        assertEquals(6, mAdapter.getCount());
+        assertTrue(mAdapter.isHeader(0));
+        assertEquals(1, mAdapter.getOffsetInSection(2));
+        assertTrue(mAdapter.isHeader(3));
+        assertTrue(mAdapter.isHeader(4));
+        assertEquals(2, mAdapter.getSectionForPosition(5));
+        assertEquals(4, mAdapter.getPositionForSection(2));
+        assertEquals(SectionedAdapter.VIEW_TYPE_HEADER, mAdapter.getItemViewType(3));
+        assertEquals(SectionedAdapter.VIEW_TYPE_ITEM, mAdapter.getItemViewType(5));
+        assertFalse(mAdapter.isEnabled(4));
+        assertTrue(mAdapter.isEnabled(5));
+    }
+
+    @Test
+    public void sectionChangesUpdatePositions() {
+        mAdapter.addToSection(1, "Beijing");
+        assertEquals(7, mAdapter.getCount());
+        assertEquals("Beijing", mAdapter.getItem(4));
+        assertEquals(5, mAdapter.getPositionForSection(2));
+        mAdapter.removeSection(0);
+        assertEquals(4, mAdapter.getCount());
+        assertEquals("B", mAdapter.getItem(0));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void registerByClassIsUnsupported() {
+        mAdapter.register(String.class, 3, new ItemBinder<String, ViewHolder>() {
+            @Override
+            public void bind(ViewHolder holder, String item, int position) {
+            }
+        });
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void registerByMatcherIsUnsupported() {
+        mAdapter.register(new ItemMatcher<Object>() {
+            @Override
+            public boolean matches(Object item) {
+                return true;
+            }
+        }, 3, new ItemBinder<Object, ViewHolder>() {
+            @Override
+            public void bind(ViewHolder holder, Object item, int position) {
+            }
+        });
+    }
+
+    @Test
+    public void viewTypeCountIsFixed() {
+        assertEquals(2, mAdapter.getViewTypeCount());
+    }
+
+    private static final class CityAdapter extends SectionedAdapter<String, String, ViewHolder> {
+
+        CityAdapter() {
+            super(null, 1, 2);
+        }
+
+        @Override
+        protected ViewHolder getHolder(LayoutInflater inflater, View convertView, ViewGroup parent, int layoutId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        protected void convertHeader(ViewHolder holder, int section) {
+        }
+
+        @Override
+        protected void convertItem(ViewHolder holder, int section, int offset) {
+        }
+    }
+
+}
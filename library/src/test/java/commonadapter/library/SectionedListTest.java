@@ -0,0 +1,96 @@
+package commonadapter.library;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * SectionedList 的展开结果和位置转换, 与每次重新展开的朴素实现比较
+ */
+public class SectionedListTest {
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void negativeIndexThrows() {
+        SectionedList<String, Integer> list = new SectionedList<>();
+        list.addSection("a", new ArrayList<Integer>());
+        list.get(-1);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void indexPastEndThrows() {
+        SectionedList<String, Integer> list = new SectionedList<>();
+        list.addSection("a", new ArrayList<Integer>());
+        list.get(1);
+    }
+
+    @Test
+    public void randomOperationsMatchNaiveModel() {
+        Random random = new Random(5);
+        SectionedList<String, Integer> list = new SectionedList<>();
+        List<String> sections = new ArrayList<>();
+        List<List<Integer>> items = new ArrayList<>();
+        int next = 0;
+        for (int step = 0; step < 3000; step++) {
+            int op = random.nextInt(10);
+            if (op < 3 || sections.isEmpty()) {
+                List<Integer> sectionItems = new ArrayList<>();
+                for (int i = random.nextInt(5); i > 0; i--)
+                    sectionItems.add(next++);
+                String section = "s" + step;
+                list.addSection(section, sectionItems);
+                sections.add(section);
+                items.add(sectionItems);
+            } else if (op < 4) {
+                int section = random.nextInt(sections.size());
+                list.removeSection(section);
+                sections.remove(section);
+                items.remove(section);
+            } else if (op < 9) {
+                // SectionedList 和模型共用同一个 Item 列表, 修改后需要通知
+                int section = random.nextInt(sections.size());
+                List<Integer> sectionItems = items.get(section);
+                if (sectionItems.isEmpty() || random.nextBoolean())
+                    sectionItems.add(random.nextInt(sectionItems.size() + 1), next++);
+                else
+                    sectionItems.remove(random.nextInt(sectionItems.size()));
+                list.updateSection(section);
+            } else if (0 == random.nextInt(20)) {
+                list.clearSections();
+                sections.clear();
+                items.clear();
+            }
+            assertMatches(sections, items, list);
+        }
+    }
+
+    private static void assertMatches(List<String> sections, List<List<Integer>> items,
+                                      SectionedList<String, Integer> list) {
+        List<Object> flat = new ArrayList<>();
+        List<Integer> sectionOf = new ArrayList<>();
+        List<Integer> offsetOf = new ArrayList<>();
+        for (int s = 0; s < sections.size(); s++) {
+            assertEquals(flat.size(), list.positionOf(s));
+            flat.add(sections.get(s));
+            sectionOf.add(s);
+            offsetOf.add(0);
+            for (int i = 0; i < items.get(s).size(); i++) {
+                flat.add(items.get(s).get(i));
+                sectionOf.add(s);
+                offsetOf.add(i + 1);
+            }
+        }
+        assertEquals(sections.size(), list.getSectionCount());
+        assertEquals(flat.size(), list.size());
+        assertEquals(flat, new ArrayList<>(list));
+        // 倒序访问, 避免只命中上一次查找的缓存
+        for (int i = flat.size() - 1; i >= 0; i--) {
+            assertEquals(sectionOf.get(i).intValue(), list.sectionOf(i));
+            assertEquals(offsetOf.get(i).intValue(), list.offsetOf(i));
+        }
+    }
+
+}
@@ -0,0 +1,135 @@
+package commonadapter.library;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * 按字节数限制大小的 LRU 缓存: 淘汰顺序, 大小统计, 移除回调, 与按访问顺序排列的 LinkedHashMap 比较
+ */
+public class SizedLruCacheTest {
+
+    @Test
+    public void evictsLeastRecentlyUsedBySize() {
+        ByteCache cache = new ByteCache(10);
+        cache.put("a", new byte[4]);
+        cache.put("b", new byte[4]);
+        cache.get("a");
+        cache.put("c", new byte[4]);
+        assertNull(cache.get("b"));
+        assertEquals(8, cache.size());
+        assertEquals(Arrays.asList("evict b"), cache.mRemoved);
+        assertEquals(1, cache.evictionCount());
+        assertEquals(1, cache.hitCount());
+        assertEquals(1, cache.missCount());
+    }
+
+    @Test
+    public void largeEntryEvictsEverythingOlder() {
+        ByteCache cache = new ByteCache(10);
+        cache.put("a", new byte[3]);
+        cache.put("b", new byte[3]);
+        cache.put("c", new byte[9]);
+        assertEquals(9, cache.size());
+        assertEquals(Arrays.asList("evict a", "evict b"), cache.mRemoved);
+        // 单个条目超出容量时也会被移除
+        cache.put("d", new byte[11]);
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.count());
+    }
+
+    @Test
+    public void replaceReportsOldValue() {
+        ByteCache cache = new ByteCache(10);
+        byte[] first = new byte[2];
+        cache.put("a", first);
+        assertSame(first, cache.put("a", new byte[5]));
+        assertEquals(5, cache.size());
+        assertEquals(Arrays.asList("replace a"), cache.mRemoved);
+    }
+
+    @Test
+    public void removeAndTrim() {
+        ByteCache cache = new ByteCache(10);
+        cache.put("a", new byte[2]);
+        cache.put("b", new byte[3]);
+        cache.put("c", new byte[4]);
+        cache.remove("b");
+        assertNull(cache.remove("b"));
+        assertEquals(6, cache.size());
+        cache.trimToSize(5);
+        assertEquals(4, cache.size());
+        cache.evictAll();
+        assertEquals(0, cache.size());
+        assertEquals(Arrays.asList("remove b", "evict a", "evict c"), cache.mRemoved);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void zeroCapacityThrows() {
+        new ByteCache(0);
+    }
+
+    @Test
+    public void randomOperationsMatchAccessOrderedMap() {
+        Random random = new Random(17);
+        int maxSize = 64;
+        ByteCache cache = new ByteCache(maxSize);
+        LinkedHashMap<String, byte[]> expected = new LinkedHashMap<>(0, 0.75f, true);
+        for (int round = 0; round < 10000; round++) {
+            String key = String.valueOf(random.nextInt(40));
+            if (random.nextBoolean()) {
+                assertSame(expected.get(key), cache.get(key));
+            } else if (0 == random.nextInt(10)) {
+                assertSame(expected.remove(key), cache.remove(key));
+            } else {
+                byte[] value = new byte[random.nextInt(16)];
+                expected.put(key, value);
+                cache.put(key, value);
+                trim(expected, maxSize);
+            }
+            assertEquals(sizeOf(expected), cache.size());
+            assertEquals(expected.size(), cache.count());
+        }
+    }
+
+    private static void trim(LinkedHashMap<String, byte[]> map, int maxSize) {
+        while (sizeOf(map) > maxSize)
+            map.remove(map.keySet().iterator().next());
+    }
+
+    private static int sizeOf(Map<String, byte[]> map) {
+        int size = 0;
+        for (byte[] value : map.values())
+            size += value.length;
+        return size;
+    }
+
+    private static final class ByteCache extends SizedLruCache<String, byte[]> {
+
+        final List<String> mRemoved = new ArrayList<>();
+
+        ByteCache(int maxSize) {
+            super(maxSize);
+        }
+
+        @Override
+        int sizeOf(String key, byte[] value) {
+            return value.length;
+        }
+
+        @Override
+        void entryRemoved(boolean evicted, String key, byte[] oldValue, byte[] newValue) {
+            mRemoved.add((evicted ? "evict " : null == newValue ? "remove " : "replace ") + key);
+        }
+    }
+
+}
@@ -0,0 +1,94 @@
+package commonadapter.library;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * 重用池: 按大小匹配取出, 超出容量时丢弃最早放入的对象
+ */
+public class SizedPoolTest {
+
+    @Test
+    public void getReturnsMatchingItemOnce() {
+        BufferPool pool = new BufferPool(100);
+        byte[] small = new byte[10];
+        byte[] large = new byte[40];
+        pool.put(small);
+        pool.put(large);
+        assertSame(large, pool.get(20));
+        assertNull(pool.get(20));
+        assertSame(small, pool.get(10));
+        assertEquals(2, pool.getReuseCount());
+        assertEquals(0, pool.size());
+    }
+
+    @Test
+    public void prefersMostRecentlyPut() {
+        BufferPool pool = new BufferPool(100);
+        byte[] first = new byte[10];
+        byte[] second = new byte[10];
+        pool.put(first);
+        pool.put(second);
+        assertSame(second, pool.get(5));
+        assertSame(first, pool.get(5));
+    }
+
+    @Test
+    public void dropsOldestWhenFull() {
+        BufferPool pool = new BufferPool(25);
+        byte[] first = new byte[10];
+        byte[] second = new byte[10];
+        byte[] third = new byte[10];
+        pool.put(first);
+        pool.put(second);
+        pool.put(third);
+        assertEquals(20, pool.size());
+        assertSame(third, pool.get(1));
+        assertSame(second, pool.get(1));
+        assertNull(pool.get(1));
+    }
+
+    @Test
+    public void ignoresItemLargerThanPool() {
+        BufferPool pool = new BufferPool(25);
+        byte[] kept = new byte[10];
+        pool.put(kept);
+        pool.put(new byte[26]);
+        assertEquals(10, pool.size());
+        assertSame(kept, pool.get(1));
+    }
+
+    @Test
+    public void clearDropsEverything() {
+        BufferPool pool = new BufferPool(100);
+        pool.put(new byte[10]);
+        pool.clear();
+        assertEquals(0, pool.size());
+        assertNull(pool.get(1));
+        assertEquals(0, pool.getReuseCount());
+    }
+
+    /**
+     * 按容量匹配的缓冲区池, 请求为需要的最小字节数
+     */
+    private static final class BufferPool extends SizedPool<byte[], Integer> {
+
+        BufferPool(int maxSize) {
+            super(maxSize);
+        }
+
+        @Override
+        int sizeOf(byte[] item) {
+            return item.length;
+        }
+
+        @Override
+        boolean canReuse(byte[] item, Integer request) {
+            return item.length >= request;
+        }
+    }
+
+}
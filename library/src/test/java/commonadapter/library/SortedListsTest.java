@@ -0,0 +1,136 @@
+package commonadapter.library;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * SortedLists 的插入位置和归并结果, 与直接排序的结果比较
+ */
+public class SortedListsTest {
+
+    private static final Comparator<Integer> NATURAL = new Comparator<Integer>() {
+        @Override
+        public int compare(Integer lhs, Integer rhs) {
+            return lhs.compareTo(rhs);
+        }
+    };
+
+    /**
+     * 只比较 key, 用于检查相等元素的先后顺序
+     */
+    private static final Comparator<Entry> BY_KEY = new Comparator<Entry>() {
+        @Override
+        public int compare(Entry lhs, Entry rhs) {
+            return lhs.mKey < rhs.mKey ? -1 : lhs.mKey == rhs.mKey ? 0 : 1;
+        }
+    };
+
+    @Test
+    public void insertionIndexBoundaries() {
+        List<Integer> list = Arrays.asList(1, 3, 3, 5);
+        assertEquals(0, SortedLists.insertionIndex(list, 0, NATURAL));
+        assertEquals(1, SortedLists.insertionIndex(list, 2, NATURAL));
+        assertEquals(3, SortedLists.insertionIndex(list, 3, NATURAL));
+        assertEquals(4, SortedLists.insertionIndex(list, 5, NATURAL));
+        assertEquals(4, SortedLists.insertionIndex(list, 9, NATURAL));
+        assertEquals(0, SortedLists.insertionIndex(new ArrayList<Integer>(), 1, NATURAL));
+    }
+
+    @Test
+    public void insertKeepsEqualElementsInInsertionOrder() {
+        List<Entry> list = new ArrayList<>();
+        Entry first = new Entry(1, 0);
+        Entry second = new Entry(1, 1);
+        SortedLists.insert(list, new Entry(2, 0), BY_KEY);
+        SortedLists.insert(list, first, BY_KEY);
+        SortedLists.insert(list, new Entry(0, 0), BY_KEY);
+        SortedLists.insert(list, second, BY_KEY);
+        assertEquals(4, list.size());
+        assertSame(first, list.get(1));
+        assertSame(second, list.get(2));
+    }
+
+    @Test
+    public void mergeEmptyAndSingle() {
+        List<Integer> list = new ArrayList<>(Arrays.asList(1, 4));
+        SortedLists.merge(list, Collections.<Integer>emptyList(), NATURAL);
+        assertEquals(Arrays.asList(1, 4), list);
+        SortedLists.merge(list, Collections.singletonList(2), NATURAL);
+        assertEquals(Arrays.asList(1, 2, 4), list);
+        List<Integer> empty = new ArrayList<>();
+        SortedLists.merge(empty, Arrays.asList(3, 1, 2), NATURAL);
+        assertEquals(Arrays.asList(1, 2, 3), empty);
+    }
+
+    @Test
+    public void mergeMatchesStableSort() {
+        Random random = new Random(7);
+        for (int round = 0; round < 500; round++) {
+            List<Entry> list = new ArrayList<>();
+            for (int i = random.nextInt(40); i > 0; i--)
+                list.add(new Entry(random.nextInt(20), list.size()));
+            Collections.sort(list, BY_KEY);
+            List<Entry> batch = new ArrayList<>();
+            for (int i = random.nextInt(40); i > 0; i--)
+                batch.add(new Entry(random.nextInt(20), 100 + batch.size()));
+
+            // 已有元素在前, 新元素按原顺序在后, 稳定排序的结果即为期望的顺序
+            List<Entry> expected = new ArrayList<>(list);
+            expected.addAll(batch);
+            Collections.sort(expected, BY_KEY);
+
+            SortedLists.merge(list, batch, BY_KEY);
+            assertEquals("round " + round, expected, list);
+        }
+    }
+
+    @Test
+    public void repeatedInsertMatchesSort() {
+        Random random = new Random(11);
+        List<Integer> list = new ArrayList<>();
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            int value = random.nextInt(100);
+            SortedLists.insert(list, value, NATURAL);
+            expected.add(value);
+        }
+        Collections.sort(expected);
+        assertEquals(expected, list);
+    }
+
+    private static final class Entry {
+
+        final int mKey;
+        final int mOrder;
+
+        Entry(int key, int order) {
+            mKey = key;
+            mOrder = order;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Entry && ((Entry) o).mKey == mKey && ((Entry) o).mOrder == mOrder;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * mKey + mOrder;
+        }
+
+        @Override
+        public String toString() {
+            return mKey + "#" + mOrder;
+        }
+    }
+
+}
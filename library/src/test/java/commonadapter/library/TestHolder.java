@@ -0,0 +1,40 @@
+package commonadapter.library;
+
+import android.view.View;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 单元测试使用的 ViewHolder, convertView 自己保存 Tag,
+ * 使 HolderState 在没有 Android 实现的环境中也能随 Item 复用
+ */
+final class TestHolder implements ViewHolder {
+
+    private final TaggedView mConvertView = new TaggedView();
+
+    @Override
+    public View getConvertView() {
+        return mConvertView;
+    }
+
+    static final class TaggedView extends View {
+
+        private final Map<Integer, Object> mTags = new HashMap<>();
+
+        TaggedView() {
+            super(null);
+        }
+
+        @Override
+        public void setTag(int key, Object tag) {
+            mTags.put(key, tag);
+        }
+
+        @Override
+        public Object getTag(int key) {
+            return mTags.get(key);
+        }
+    }
+
+}
@@ -22,7 +22,7 @@ import java.util.regex.Pattern;
 
 import commonadapter.library.DefaultAdapter;
 import commonadapter.library.DefaultViewHolder;
-import commonadapter.library.DefaultViewHolder.ImageBinder;
+import commonadapter.library.DefaultViewHolder.RecyclableImageBinder;
 
 public class MainActivity extends AppCompatActivity {
 
@@ -49,7 +49,7 @@ public class MainActivity extends AppCompatActivity {
 
         adapter = new DefaultAdapter<String>(this, new ArrayList<String>(), R.layout.item_simple) {
 
-            private ImageBinder mImageBinder = new ImageBinder() {
+            private RecyclableImageBinder mImageBinder = new RecyclableImageBinder() {
 
                 private ImageOptions mImageOptions = new ImageOptions.Builder()
                         .setSize(300 / 3, 168 / 3)
@@ -70,6 +70,12 @@ public class MainActivity extends AppCompatActivity {
                             //.fit()
                             .into(imageView);
                 }
+
+                @Override
+                public void unbind(@NonNull ImageView imageView) {
+                    Picasso.with(imageView.getContext()).cancelRequest(imageView);
+                    imageView.setImageResource(R.mipmap.ic_launcher);
+                }
             };
 
             @SuppressLint("DefaultLocale")
@@ -82,7 +88,7 @@ public class MainActivity extends AppCompatActivity {
         };
 
         if (lv_main != null) {
-            lv_main.setAdapter(adapter);
+            adapter.attachTo(lv_main);
         }
     }
 